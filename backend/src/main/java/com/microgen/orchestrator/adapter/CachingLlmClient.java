@@ -0,0 +1,340 @@
+package com.microgen.orchestrator.adapter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Caches completions per (provider, model, systemPrompt, userPrompt).
+ *
+ * The memory tier is an LRU bounded by entry count and by the size of the
+ * cached responses. The optional disk tier keeps one file per key so
+ * responses survive restarts; disk hits are promoted back into memory. Both
+ * tiers expire entries after their own TTL. The disk tier is also bounded by
+ * the total size of its files: past {@code diskMaxBytes} the least recently
+ * used files (by modification time, which a hit refreshes) are deleted until
+ * it is back under 90% of the budget. {@code ERROR:} responses are never
+ * cached.
+ *
+ * Keys are SHA-256 digests, so the (often very long) prompts are not retained.
+ */
+public class CachingLlmClient implements LlmClient {
+
+    private final LlmClient delegate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LinkedHashMap<String, CachedResponse> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Duration ttl;
+
+    private final Path diskDir;
+    private final Duration diskTtl;
+    private final long diskMaxBytes;
+    private final Object diskLock = new Object();
+    private long diskBytes;
+
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+    private final Counter uncacheable;
+
+    public CachingLlmClient(LlmClient delegate, int maxEntries, long maxBytes, Duration ttl,
+            Path diskDir, Duration diskTtl, long diskMaxBytes, MeterRegistry meterRegistry) throws IOException {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttl = ttl;
+        this.diskDir = diskDir;
+        this.diskTtl = diskTtl;
+        this.diskMaxBytes = diskMaxBytes;
+        if (diskDir != null) {
+            Files.createDirectories(diskDir);
+            synchronized (diskLock) {
+                // Also enforces a budget lowered since the last run
+                diskBytes = diskUsage();
+                trimDisk();
+            }
+        }
+
+        String provider = delegate.getProviderName();
+        memoryHits = lookups(meterRegistry, provider, "memory_hit");
+        diskHits = lookups(meterRegistry, provider, "disk_hit");
+        misses = lookups(meterRegistry, provider, "miss");
+        uncacheable = lookups(meterRegistry, provider, "uncacheable");
+        Gauge.builder("llm.cache.bytes", this, CachingLlmClient::memoryBytes)
+                .tag("provider", provider)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("llm.cache.entries", this, CachingLlmClient::memoryEntries)
+                .tag("provider", provider)
+                .register(meterRegistry);
+        Gauge.builder("llm.cache.disk.bytes", this, CachingLlmClient::diskBytes)
+                .tag("provider", provider)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String generate(String systemPrompt, String userPrompt) {
+        return lookupOrCall(systemPrompt, userPrompt, null);
+    }
+
+    /** A hit is delivered as a single chunk; a miss streams from the delegate and is cached at the end. */
+    @Override
+    public String generateStream(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        return lookupOrCall(systemPrompt, userPrompt, onChunk);
+    }
+
+    private String lookupOrCall(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        String key = keyOf(systemPrompt, userPrompt);
+
+        String cached = fromMemory(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return replay(cached, onChunk);
+        }
+        cached = fromDisk(key);
+        if (cached != null) {
+            diskHits.increment();
+            toMemory(key, cached);
+            return replay(cached, onChunk);
+        }
+
+        misses.increment();
+        String response = onChunk == null
+                ? delegate.generate(systemPrompt, userPrompt)
+                : delegate.generateStream(systemPrompt, userPrompt, onChunk);
+        if (response == null || response.startsWith("ERROR")) {
+            uncacheable.increment();
+            return response;
+        }
+        toMemory(key, response);
+        toDisk(key, response);
+        return response;
+    }
+
+    private static String replay(String cached, Consumer<String> onChunk) {
+        if (onChunk != null) {
+            onChunk.accept(cached);
+        }
+        return cached;
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public String getModel() {
+        return delegate.getModel();
+    }
+
+    private synchronized String fromMemory(String key) {
+        CachedResponse entry = memory.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isOlderThan(ttl)) {
+            memory.remove(key);
+            memoryBytes -= entry.bytes();
+            return null;
+        }
+        return entry.response();
+    }
+
+    private synchronized void toMemory(String key, String response) {
+        CachedResponse entry = new CachedResponse(response, System.currentTimeMillis());
+        if (entry.bytes() > maxBytes) {
+            return;
+        }
+        CachedResponse previous = memory.put(key, entry);
+        if (previous != null) {
+            memoryBytes -= previous.bytes();
+        }
+        memoryBytes += entry.bytes();
+
+        Iterator<CachedResponse> eldest = memory.values().iterator();
+        while ((memory.size() > maxEntries || memoryBytes > maxBytes) && eldest.hasNext()) {
+            memoryBytes -= eldest.next().bytes();
+            eldest.remove();
+        }
+    }
+
+    private String fromDisk(String key) {
+        if (diskDir == null) {
+            return null;
+        }
+        Path file = diskDir.resolve(key + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            CachedResponse entry = objectMapper.readValue(file.toFile(), CachedResponse.class);
+            if (entry.isOlderThan(diskTtl)) {
+                deleteFromDisk(file);
+                return null;
+            }
+            // Keeps hot entries at the young end for eviction
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return entry.response();
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable LLM cache file " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void toDisk(String key, String response) {
+        if (diskDir == null) {
+            return;
+        }
+        Path file = diskDir.resolve(key + ".json");
+        try {
+            Path tmp = Files.createTempFile(diskDir, key, ".tmp");
+            objectMapper.writeValue(tmp.toFile(), new CachedResponse(response, System.currentTimeMillis()));
+            long size = Files.size(tmp);
+            if (size > diskMaxBytes) {
+                Files.delete(tmp);
+                return;
+            }
+            synchronized (diskLock) {
+                long replaced = Files.exists(file) ? Files.size(file) : 0;
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                diskBytes += size - replaced;
+                if (diskBytes > diskMaxBytes) {
+                    trimDisk();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write LLM cache file " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void deleteFromDisk(Path file) throws IOException {
+        synchronized (diskLock) {
+            long size = Files.exists(file) ? Files.size(file) : 0;
+            if (Files.deleteIfExists(file)) {
+                diskBytes -= size;
+            }
+        }
+    }
+
+    // Caller holds diskLock. Trims to 90% so a full cache does not list the directory on every write.
+    private void trimDisk() throws IOException {
+        if (diskBytes <= diskMaxBytes) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(diskDir)) {
+            listing.filter(f -> f.getFileName().toString().endsWith(".json")).forEach(files::add);
+        }
+        Map<Path, FileTime> modified = new LinkedHashMap<>();
+        for (Path file : files) {
+            try {
+                modified.put(file, Files.getLastModifiedTime(file));
+            } catch (IOException e) {
+                // Deleted meanwhile
+            }
+        }
+        List<Path> oldestFirst = new ArrayList<>(modified.keySet());
+        oldestFirst.sort(Comparator.comparing(modified::get));
+
+        long target = diskMaxBytes / 10 * 9;
+        for (Path file : oldestFirst) {
+            if (diskBytes <= target) {
+                break;
+            }
+            long size = Files.size(file);
+            if (Files.deleteIfExists(file)) {
+                diskBytes -= size;
+            }
+        }
+    }
+
+    private long diskUsage() throws IOException {
+        long total = 0;
+        try (Stream<Path> listing = Files.list(diskDir)) {
+            for (Path file : (Iterable<Path>) listing::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    // Left behind by a crash mid-write
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(".json")) {
+                    total += Files.size(file);
+                }
+            }
+        }
+        return total;
+    }
+
+    private String keyOf(String systemPrompt, String userPrompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[] { delegate.getProviderName(), delegate.getModel(), systemPrompt,
+                    userPrompt }) {
+                byte[] bytes = (part == null ? "" : part).getBytes(StandardCharsets.UTF_8);
+                // Length prefix keeps ("ab","c") and ("a","bc") apart
+                digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ':');
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private synchronized long memoryBytes() {
+        return memoryBytes;
+    }
+
+    private synchronized int memoryEntries() {
+        return memory.size();
+    }
+
+    private long diskBytes() {
+        synchronized (diskLock) {
+            return diskBytes;
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String provider, String result) {
+        return Counter.builder("llm.cache.lookups")
+                .tag("provider", provider)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    record CachedResponse(String response, long storedAt) {
+
+        long bytes() {
+            return response.length() * 2L;
+        }
+
+        boolean isOlderThan(Duration maxAge) {
+            return System.currentTimeMillis() - storedAt > maxAge.toMillis();
+        }
+    }
+}
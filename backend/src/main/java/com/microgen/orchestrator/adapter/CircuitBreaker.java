@@ -0,0 +1,100 @@
+package com.microgen.orchestrator.adapter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Circuit breaker for one provider. After {@code failureThreshold} consecutive
+ * failures (or a single one that cannot heal by itself, such as an exhausted
+ * quota) the circuit opens and calls are refused without touching the
+ * network. Once the open period is over a single probe call is let through:
+ * success closes the circuit, failure opens it again for twice as long, up to
+ * {@code maxOpenDuration}. A Retry-After from the provider extends the period.
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Duration maxOpenDuration;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Duration nextOpenDuration;
+    private Instant openUntil = Instant.MIN;
+    private boolean probeInFlight;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, Duration maxOpenDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.maxOpenDuration = maxOpenDuration;
+        this.nextOpenDuration = openDuration;
+    }
+
+    /** Whether a call may go out now; in HALF_OPEN only one probe at a time. */
+    synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (Instant.now().isBefore(openUntil)) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        } else if (probeInFlight) {
+            return false;
+        }
+        probeInFlight = true;
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        nextOpenDuration = openDuration;
+        probeInFlight = false;
+    }
+
+    /**
+     * Records a failure that says something about the provider's health.
+     * {@code immediate} opens the circuit regardless of the threshold.
+     */
+    synchronized void onFailure(boolean immediate, Duration retryAfter) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            open(retryAfter);
+            nextOpenDuration = min(nextOpenDuration.multipliedBy(2), maxOpenDuration);
+        } else if (state == State.CLOSED && (immediate || consecutiveFailures >= failureThreshold)) {
+            open(retryAfter);
+        }
+    }
+
+    /** The call ended without a verdict (cancelled, or rejected as our own bad request). */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized Duration remainingOpen() {
+        Duration remaining = Duration.between(Instant.now(), openUntil);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private void open(Duration retryAfter) {
+        Duration duration = retryAfter != null && retryAfter.compareTo(nextOpenDuration) > 0
+                ? retryAfter : nextOpenDuration;
+        state = State.OPEN;
+        openUntil = Instant.now().plus(duration);
+        probeInFlight = false;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
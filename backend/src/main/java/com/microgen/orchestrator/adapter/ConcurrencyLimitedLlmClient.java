@@ -0,0 +1,69 @@
+package com.microgen.orchestrator.adapter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Caps the number of in-flight calls to one provider. Callers beyond the limit
+ * wait for a permit instead of piling onto a provider that answers bursts
+ * with 429/503.
+ */
+public class ConcurrencyLimitedLlmClient implements LlmClient {
+
+    private final LlmClient delegate;
+    private final Semaphore permits;
+
+    public ConcurrencyLimitedLlmClient(LlmClient delegate, int maxInFlight, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxInFlight, true);
+        Gauge.builder("llm.calls.in_flight", permits, p -> maxInFlight - p.availablePermits())
+                .tag("provider", delegate.getProviderName())
+                .register(meterRegistry);
+        Gauge.builder("llm.calls.waiting", permits, Semaphore::getQueueLength)
+                .tag("provider", delegate.getProviderName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String generate(String systemPrompt, String userPrompt) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR: Interrupted while waiting for a " + getProviderName() + " call slot";
+        }
+        try {
+            return delegate.generate(systemPrompt, userPrompt);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public String generateStream(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR: Interrupted while waiting for a " + getProviderName() + " call slot";
+        }
+        try {
+            return delegate.generateStream(systemPrompt, userPrompt, onChunk);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public String getModel() {
+        return delegate.getModel();
+    }
+}
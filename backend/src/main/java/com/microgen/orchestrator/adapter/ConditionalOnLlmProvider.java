@@ -0,0 +1,27 @@
+package com.microgen.orchestrator.adapter;
+
+import org.springframework.context.annotation.Conditional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Activates an adapter when its provider is {@code llm.provider} or is listed
+ * in {@code llm.routing.providers}; several adapters can be active at once
+ * and are then combined by {@link RoutingLlmClient}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Documented
+@Conditional(OnLlmProviderCondition.class)
+public @interface ConditionalOnLlmProvider {
+
+    /** Provider id, as returned by {@link LlmClient#getProviderName()}. */
+    String value();
+
+    /** Whether to activate when neither property is set. */
+    boolean matchIfMissing() default false;
+}
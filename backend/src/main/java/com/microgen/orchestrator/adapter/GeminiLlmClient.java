@@ -1,22 +1,21 @@
 package com.microgen.orchestrator.adapter;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
 @Component
-@ConditionalOnProperty(name = "llm.provider", havingValue = "gemini", matchIfMissing = true)
+@ConditionalOnLlmProvider(value = "gemini", matchIfMissing = true)
 public class GeminiLlmClient implements LlmClient {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${gemini.api.key:}")
@@ -25,6 +24,10 @@ public class GeminiLlmClient implements LlmClient {
     @Value("${gemini.model:gemini-1.5-flash-latest}")
     private String model;
 
+    public GeminiLlmClient(LlmHttpTransport transport) {
+        this.restTemplate = transport.restTemplate("gemini");
+    }
+
     @Override
     public String generate(String systemPrompt, String userPrompt) {
         if (apiKey == null || apiKey.isEmpty() || apiKey.contains("YOUR_GEMINI_KEY")) {
@@ -52,16 +55,12 @@ public class GeminiLlmClient implements LlmClient {
 
         try {
             HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(rootNode), headers);
-            String response = restTemplate.postForObject(url, entity, String.class);
-
-            JsonNode responseJson = objectMapper.readTree(response);
-
             // Extract text from Gemini response structure:
             // candidates[0].content.parts[0].text
-            return responseJson
-                    .path("candidates").get(0)
-                    .path("content").path("parts").get(0)
-                    .path("text").asText();
+            String text = restTemplate.execute(url, HttpMethod.POST, restTemplate.httpEntityCallback(entity),
+                    response -> StreamingResponses.readContent(response.getBody(), objectMapper,
+                            StreamingResponses.GEMINI_CONTENT));
+            return text != null ? text : "ERROR: Gemini response had no candidates[0].content.parts[0].text";
 
         } catch (org.springframework.web.client.HttpClientErrorException.NotFound e) {
             return "ERROR: Gemini model '" + model
@@ -75,4 +74,14 @@ public class GeminiLlmClient implements LlmClient {
             return "ERROR: Failed to communicate with Gemini: " + e.getMessage();
         }
     }
+
+    @Override
+    public String getProviderName() {
+        return "gemini";
+    }
+
+    @Override
+    public String getModel() {
+        return model;
+    }
 }
@@ -1,22 +1,23 @@
 package com.microgen.orchestrator.adapter;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.function.Consumer;
+
 @Component
-@ConditionalOnProperty(name = "llm.provider", havingValue = "huggingface")
+@ConditionalOnLlmProvider("huggingface")
 public class HuggingFaceLlmClient implements LlmClient {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${huggingface.api.key:}")
@@ -28,8 +29,22 @@ public class HuggingFaceLlmClient implements LlmClient {
     @Value("${huggingface.api.url:https://router.huggingface.co/v1}")
     private String apiUrl;
 
+    public HuggingFaceLlmClient(LlmHttpTransport transport) {
+        this.restTemplate = transport.restTemplate("huggingface");
+    }
+
     @Override
     public String generate(String systemPrompt, String userPrompt) {
+        return call(systemPrompt, userPrompt, null);
+    }
+
+    /** Sends the request with {@code stream: true} and reads the Server-Sent Events as it arrives. */
+    @Override
+    public String generateStream(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        return call(systemPrompt, userPrompt, onChunk);
+    }
+
+    private String call(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
         if (apiKey == null || apiKey.isEmpty() || apiKey.contains("YOUR_HF_KEY")) {
             return "ERROR: Missing HuggingFace API Key. Get one at https://huggingface.co/settings/tokens";
         }
@@ -57,6 +72,9 @@ public class HuggingFaceLlmClient implements LlmClient {
         requestBody.put("max_tokens", 4000);
         requestBody.put("temperature", 0.7);
         requestBody.put("top_p", 0.95);
+        if (onChunk != null) {
+            requestBody.put("stream", true);
+        }
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -64,20 +82,19 @@ public class HuggingFaceLlmClient implements LlmClient {
 
         try {
             HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(requestBody), headers);
-            String response = restTemplate.postForObject(url, entity, String.class);
-
-            JsonNode responseJson = objectMapper.readTree(response);
-
+            if (onChunk != null) {
+                return restTemplate.execute(url, HttpMethod.POST, restTemplate.httpEntityCallback(entity),
+                        response -> StreamingResponses.readServerSentEvents(response.getBody(), objectMapper, onChunk));
+            }
             // OpenAI-compatible format: {"choices": [{"message": {"content": "..."}}]}
-            if (responseJson.has("choices") && responseJson.get("choices").isArray()
-                    && responseJson.get("choices").size() > 0) {
-                return responseJson.get("choices").get(0)
-                        .path("message")
-                        .path("content")
-                        .asText();
+            String content = restTemplate.execute(url, HttpMethod.POST, restTemplate.httpEntityCallback(entity),
+                    response -> StreamingResponses.readContent(response.getBody(), objectMapper,
+                            StreamingResponses.CHAT_CONTENT));
+            if (content != null) {
+                return content;
             }
 
-            return "ERROR: Unexpected HuggingFace response format: " + response;
+            return "ERROR: Unexpected HuggingFace response format: no choices[0].message.content";
 
         } catch (org.springframework.web.client.HttpClientErrorException e) {
             System.err.println("HuggingFace API Error: " + e.getStatusCode() + " - " + e.getResponseBodyAsString());
@@ -94,4 +111,14 @@ public class HuggingFaceLlmClient implements LlmClient {
             return "ERROR: Failed to communicate with HuggingFace: " + e.getMessage();
         }
     }
+
+    @Override
+    public String getProviderName() {
+        return "huggingface";
+    }
+
+    @Override
+    public String getModel() {
+        return model;
+    }
 }
@@ -0,0 +1,78 @@
+package com.microgen.orchestrator.adapter;
+
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Per-thread state of an {@link LlmClient} call.
+ * <p>
+ * The deadline is that of the job on whose behalf the thread calls the
+ * provider; the HTTP layer turns the remaining time into the socket read
+ * timeout, so no provider call outlives its job. Threads forked for a job must
+ * copy the deadline over (see {@code GenerationJobExecutor#fork}). A call
+ * shared by several jobs binds a deadline that moves as jobs join it (see
+ * {@code RequestCoalescer}); it is read afresh on every check.
+ * <p>
+ * The last exchange is recorded by {@link LlmHttpTransport} so decorators can
+ * see the status code and headers behind an adapter's "ERROR: ..." string.
+ */
+public final class LlmCallContext {
+
+    /** Outcome of the last HTTP exchange: a response, or the I/O failure that prevented one. */
+    public record Exchange(int status, HttpHeaders headers, IOException failure) {
+    }
+
+    private static final ThreadLocal<Supplier<Instant>> DEADLINE = new ThreadLocal<>();
+    private static final ThreadLocal<Exchange> LAST_EXCHANGE = new ThreadLocal<>();
+
+    private LlmCallContext() {
+    }
+
+    public static Instant getDeadline() {
+        Supplier<Instant> deadline = DEADLINE.get();
+        return deadline == null ? null : deadline.get();
+    }
+
+    public static void setDeadline(Instant deadline) {
+        if (deadline == null) {
+            DEADLINE.remove();
+        } else {
+            DEADLINE.set(() -> deadline);
+        }
+    }
+
+    /** Binds a deadline that may change while the call runs; the supplier may return null for none. */
+    public static void bindDeadline(Supplier<Instant> deadline) {
+        DEADLINE.set(deadline);
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    public static Exchange getLastExchange() {
+        return LAST_EXCHANGE.get();
+    }
+
+    static void recordResponse(int status, HttpHeaders headers) {
+        LAST_EXCHANGE.set(new Exchange(status, headers, null));
+    }
+
+    static void recordFailure(IOException failure) {
+        LAST_EXCHANGE.set(new Exchange(0, HttpHeaders.EMPTY, failure));
+    }
+
+    public static void clearExchange() {
+        LAST_EXCHANGE.remove();
+    }
+
+    /** Time left before the deadline, or null when the call is not bound to one. */
+    public static Duration remaining() {
+        Instant deadline = getDeadline();
+        return deadline == null ? null : Duration.between(Instant.now(), deadline);
+    }
+}
@@ -1,5 +1,32 @@
 package com.microgen.orchestrator.adapter;
 
+import java.util.function.Consumer;
+
 public interface LlmClient {
     String generate(String systemPrompt, String userPrompt);
+
+    /**
+     * Streaming variant of {@link #generate}: each chunk of the completion is
+     * handed to {@code onChunk} as the provider produces it, and the full text
+     * is returned at the end. Like {@code generate} it returns an "ERROR: ..."
+     * string on failure, possibly after some chunks were already delivered.
+     * Providers without a streaming API deliver the completion as one chunk.
+     */
+    default String generateStream(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        String response = generate(systemPrompt, userPrompt);
+        if (response != null && !response.startsWith("ERROR")) {
+            onChunk.accept(response);
+        }
+        return response;
+    }
+
+    /** Short provider id used in config keys, limits and metric tags. */
+    default String getProviderName() {
+        return getClass().getSimpleName();
+    }
+
+    /** Model id requests are sent to; part of the identity of a call for coalescing and caching. */
+    default String getModel() {
+        return "";
+    }
 }
@@ -0,0 +1,139 @@
+package com.microgen.orchestrator.adapter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Wraps the provider adapters selected by {@code llm.provider} or
+ * {@code llm.routing.providers} with the cross-cutting decorators. Services
+ * inject the plain {@link LlmClient} type and get the decorated chain through
+ * {@code @Primary}.
+ */
+@Configuration
+public class LlmClientConfiguration {
+
+    // Decorators holding threads of their own; the chain is a single bean, so they are closed here
+    private final List<AutoCloseable> closeables = new ArrayList<>();
+
+    @Bean
+    @Primary
+    public LlmClient llmClient(List<LlmClient> adapters, Environment environment, MeterRegistry meterRegistry)
+            throws IOException {
+        // off | record | replay
+        String fixtureMode = environment.getProperty("llm.fixtures.mode", "off").toLowerCase();
+        LlmFixtureStore fixtures = fixtureMode.equals("off") ? null
+                : new LlmFixtureStore(Path.of(environment.getProperty("llm.fixtures.dir", "./fixtures/llm")));
+        if (fixtureMode.equals("replay")) {
+            // Offline: the recordings stand in for the provider, everything above it stays real
+            System.out.println("Replaying " + fixtures.load() + " recorded LLM fixtures");
+            adapters = List.of(new ReplayLlmClient(fixtures,
+                    environment.getProperty("llm.provider", "replay"),
+                    environment.getProperty("llm.fixtures.replay.latency", "recorded").toLowerCase(),
+                    environment.getProperty("llm.fixtures.replay.latency-scale", Double.class, 1.0),
+                    environment.getProperty("llm.fixtures.replay.latency-median", Duration.class,
+                            Duration.ofSeconds(2)),
+                    environment.getProperty("llm.fixtures.replay.latency-p99", Duration.class,
+                            Duration.ofSeconds(10)),
+                    environment.getProperty("llm.fixtures.replay.chunk-chars", Integer.class, 64)));
+        }
+        if (adapters.isEmpty()) {
+            throw new IllegalStateException("No LLM adapter matches llm.provider / llm.routing.providers");
+        }
+
+        List<LlmClient> providers = new ArrayList<>();
+        for (LlmClient adapter : inRoutingOrder(adapters, environment)) {
+            // llm.<provider>.max-in-flight overrides the global llm.max-in-flight
+            int maxInFlight = environment.getProperty("llm." + adapter.getProviderName() + ".max-in-flight",
+                    Integer.class, environment.getProperty("llm.max-in-flight", Integer.class, 4));
+            LlmClient limited = new ConcurrencyLimitedLlmClient(adapter, maxInFlight, meterRegistry);
+            // Calls waiting for rate-limit budget do not hold a call slot either
+            String rateLimit = "llm." + adapter.getProviderName() + ".rate-limit.";
+            LlmClient governed = new RateLimitedLlmClient(limited,
+                    environment.getProperty(rateLimit + "requests", Long.class, 0L),
+                    environment.getProperty(rateLimit + "tokens", Long.class, 0L),
+                    environment.getProperty(rateLimit + "period", Duration.class, Duration.ofMinutes(1)),
+                    environment.getProperty(rateLimit + "expected-output-tokens", Long.class,
+                            environment.getProperty("llm.rate-limit.expected-output-tokens", Long.class, 2000L)),
+                    environment.getProperty("llm.rate-limit.max-wait", Duration.class, Duration.ofMinutes(5)),
+                    meterRegistry);
+            // Outside the limiter, so a call backing off between retries does not hold a slot
+            providers.add(new ResilientLlmClient(governed,
+                    environment.getProperty("llm.retry.max-attempts", Integer.class, 3),
+                    environment.getProperty("llm.retry.base-backoff", Duration.class, Duration.ofMillis(500)),
+                    environment.getProperty("llm.retry.max-backoff", Duration.class, Duration.ofSeconds(10)),
+                    environment.getProperty("llm.retry.max-retry-after", Duration.class, Duration.ofSeconds(60)),
+                    environment.getProperty("llm.circuit.failure-threshold", Integer.class, 5),
+                    environment.getProperty("llm.circuit.open-duration", Duration.class, Duration.ofSeconds(30)),
+                    environment.getProperty("llm.circuit.max-open-duration", Duration.class, Duration.ofMinutes(5)),
+                    meterRegistry));
+        }
+
+        LlmClient client = providers.get(0);
+        if (providers.size() > 1) {
+            RoutingLlmClient router = new RoutingLlmClient(providers,
+                    environment.getProperty("llm.routing.hedge.enabled", Boolean.class, true),
+                    environment.getProperty("llm.routing.hedge.percentile", Double.class, 0.95),
+                    environment.getProperty("llm.routing.hedge.min-delay", Duration.class, Duration.ofSeconds(2)),
+                    environment.getProperty("llm.routing.hedge.default-delay", Duration.class,
+                            Duration.ofSeconds(20)),
+                    environment.getProperty("llm.routing.error-penalty", Duration.class, Duration.ofSeconds(30)),
+                    environment.getProperty("llm.routing.error-half-life", Duration.class, Duration.ofMinutes(1)),
+                    meterRegistry);
+            closeables.add(router);
+            client = router;
+        }
+
+        if (fixtureMode.equals("record")) {
+            // Below the cache, so only real provider calls are recorded
+            client = new RecordingLlmClient(client, fixtures);
+        }
+
+        // Outermost, so cache hits never wait for a provider call slot
+        if (environment.getProperty("llm.cache.enabled", Boolean.class, true)) {
+            String diskDir = environment.getProperty("llm.cache.disk.dir", "");
+            client = new CachingLlmClient(client,
+                    environment.getProperty("llm.cache.max-entries", Integer.class, 1000),
+                    environment.getProperty("llm.cache.max-bytes", Long.class, 64L * 1024 * 1024),
+                    environment.getProperty("llm.cache.ttl", Duration.class, Duration.ofHours(1)),
+                    diskDir.isBlank() ? null : Path.of(diskDir),
+                    environment.getProperty("llm.cache.disk.ttl", Duration.class, Duration.ofDays(7)),
+                    environment.getProperty("llm.cache.disk.max-bytes", Long.class, 256L * 1024 * 1024),
+                    meterRegistry);
+        }
+        return client;
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        for (AutoCloseable closeable : closeables) {
+            closeable.close();
+        }
+        closeables.clear();
+    }
+
+    // Listed order is the routing preference until latency samples come in
+    private static List<LlmClient> inRoutingOrder(List<LlmClient> adapters, Environment environment) {
+        List<String> order = Arrays.stream(environment.getProperty("llm.routing.providers", "").split(","))
+                .map(String::trim)
+                .map(String::toLowerCase)
+                .toList();
+        return adapters.stream()
+                .sorted(Comparator.comparingInt(a -> {
+                    int index = order.indexOf(a.getProviderName());
+                    return index < 0 ? Integer.MAX_VALUE : index;
+                }))
+                .toList();
+    }
+}
@@ -0,0 +1,99 @@
+package com.microgen.orchestrator.adapter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Directory of recorded LLM exchanges, one {@code <sha256>.json} file per
+ * (systemPrompt, userPrompt) pair. The key leaves provider and model out, so a
+ * recording made against one provider replays under any configuration.
+ */
+class LlmFixtureStore {
+
+    record Fixture(String systemPrompt, String userPrompt, String response, long latencyMillis, String provider,
+            String model, long recordedAt) {
+    }
+
+    private final Path dir;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Fixture> byKey = new ConcurrentHashMap<>();
+    // Fixtures per system prompt, for serving prompts that were never recorded
+    private final Map<String, List<Fixture>> bySystemPrompt = new ConcurrentHashMap<>();
+
+    LlmFixtureStore(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+    }
+
+    /** Reads every fixture into memory; replay never touches the disk afterwards. */
+    int load() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path file : files) {
+                try {
+                    index(objectMapper.readValue(file.toFile(), Fixture.class));
+                } catch (IOException e) {
+                    System.err.println("Ignoring unreadable LLM fixture " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        return byKey.size();
+    }
+
+    Fixture find(String systemPrompt, String userPrompt) {
+        return byKey.get(keyOf(systemPrompt, userPrompt));
+    }
+
+    /** A recorded fixture for the same system prompt, picked deterministically by the user prompt. */
+    Fixture findSimilar(String systemPrompt, String userPrompt) {
+        List<Fixture> candidates = bySystemPrompt.get(hash(systemPrompt));
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(userPrompt.hashCode(), candidates.size()));
+    }
+
+    void save(Fixture fixture) {
+        String key = keyOf(fixture.systemPrompt(), fixture.userPrompt());
+        Path file = dir.resolve(key + ".json");
+        try {
+            Path tmp = Files.createTempFile(dir, key, ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), fixture);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            index(fixture);
+        } catch (IOException e) {
+            System.err.println("Failed to write LLM fixture " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void index(Fixture fixture) {
+        if (byKey.put(keyOf(fixture.systemPrompt(), fixture.userPrompt()), fixture) == null) {
+            bySystemPrompt.computeIfAbsent(hash(fixture.systemPrompt()), k -> new CopyOnWriteArrayList<>()).add(fixture);
+        }
+    }
+
+    private static String keyOf(String systemPrompt, String userPrompt) {
+        return hash(systemPrompt + '\u0000' + userPrompt);
+    }
+
+    private static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.microgen.orchestrator.adapter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.ManagedHttpClientConnectionFactory;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.ManagedHttpClientConnection;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.io.HttpConnectionFactory;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The one HTTP client all LLM adapters send their requests through: a pooled
+ * Apache HttpClient with keep-alive connections per host, gzip/deflate
+ * response decompression and idle-connection eviction. Each adapter gets a
+ * request factory for its provider via {@link #requestFactory(String)}, which
+ * applies {@code llm.<provider>.read-timeout} (falling back to
+ * {@code llm.http.read-timeout}) further capped by the calling job's
+ * remaining deadline ({@link LlmCallContext}). A call made after the deadline
+ * fails before anything is sent.
+ */
+@Component
+public class LlmHttpTransport {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Duration defaultReadTimeout;
+    private final Duration connectionRequestTimeout;
+    private final Counter connectionsOpened;
+    private final LongAdder totalRequests = new LongAdder();
+    private final Map<String, ClientHttpRequestFactory> factories = new ConcurrentHashMap<>();
+
+    public LlmHttpTransport(Environment environment, MeterRegistry meterRegistry,
+            @Value("${llm.http.connect-timeout:PT10S}") Duration connectTimeout,
+            @Value("${llm.http.read-timeout:PT180S}") Duration readTimeout,
+            @Value("${llm.http.connection-request-timeout:PT30S}") Duration connectionRequestTimeout,
+            @Value("${llm.http.pool.max-total:64}") int maxTotal,
+            @Value("${llm.http.pool.max-per-host:16}") int maxPerHost,
+            @Value("${llm.http.pool.idle-timeout:PT60S}") Duration idleTimeout) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.defaultReadTimeout = readTimeout;
+        this.connectionRequestTimeout = connectionRequestTimeout;
+        this.connectionsOpened = Counter.builder("llm.http.connections.opened")
+                .description("New connections opened to LLM providers; compare with llm.http.requests for reuse")
+                .register(meterRegistry);
+
+        // Connections are created once per new socket and then reused from the pool
+        HttpConnectionFactory<ManagedHttpClientConnection> countingFactory = new HttpConnectionFactory<>() {
+            @Override
+            public ManagedHttpClientConnection createConnection(Socket socket) throws IOException {
+                connectionsOpened.increment();
+                return ManagedHttpClientConnectionFactory.INSTANCE.createConnection(socket);
+            }
+        };
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setConnectionFactory(countingFactory)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerHost)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build();
+
+        Gauge.builder("llm.http.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .register(meterRegistry);
+        Gauge.builder("llm.http.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .register(meterRegistry);
+        Gauge.builder("llm.http.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .register(meterRegistry);
+        Gauge.builder("llm.http.pool.max", connectionManager, cm -> cm.getTotalStats().getMax())
+                .register(meterRegistry);
+        Gauge.builder("llm.http.connections.reuse_ratio", this, LlmHttpTransport::reuseRatio)
+                .description("Share of requests served on an already open connection")
+                .register(meterRegistry);
+    }
+
+    /**
+     * RestTemplate for one provider's adapter. Each exchange is recorded in
+     * {@link LlmCallContext} for the resilience and rate-limit decorators.
+     */
+    public RestTemplate restTemplate(String provider) {
+        RestTemplate restTemplate = new RestTemplate(requestFactory(provider));
+        restTemplate.getInterceptors().add(LlmHttpTransport::recordExchange);
+        return restTemplate;
+    }
+
+    /** Request factory for one provider; all providers share the same connection pool. */
+    public ClientHttpRequestFactory requestFactory(String provider) {
+        return factories.computeIfAbsent(provider, p -> new ProviderRequestFactory(p,
+                environment.getProperty("llm." + p + ".read-timeout", Duration.class, defaultReadTimeout)));
+    }
+
+    private static ClientHttpResponse recordExchange(HttpRequest request, byte[] body,
+            ClientHttpRequestExecution execution) throws IOException {
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            LlmCallContext.recordResponse(response.getStatusCode().value(), response.getHeaders());
+            return response;
+        } catch (IOException e) {
+            LlmCallContext.recordFailure(e);
+            throw e;
+        }
+    }
+
+    private double reuseRatio() {
+        long requests = totalRequests.sum();
+        return requests == 0 ? 0 : Math.max(0, 1 - connectionsOpened.count() / requests);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    private class ProviderRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+        private final Duration readTimeout;
+        private final Counter requests;
+
+        ProviderRequestFactory(String provider, Duration readTimeout) {
+            super(httpClient);
+            this.readTimeout = readTimeout;
+            this.requests = Counter.builder("llm.http.requests").tag("provider", provider).register(meterRegistry);
+        }
+
+        @Override
+        public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+            Duration remaining = LlmCallContext.remaining();
+            if (remaining != null && (remaining.isNegative() || remaining.isZero())) {
+                throw new IOException("Job deadline exceeded before calling the LLM provider");
+            }
+            requests.increment();
+            totalRequests.increment();
+            return super.createRequest(uri, httpMethod);
+        }
+
+        @Override
+        protected HttpClientContext createHttpContext(HttpMethod httpMethod, URI uri) {
+            Duration timeout = readTimeout;
+            Duration remaining = LlmCallContext.remaining();
+            if (remaining != null && remaining.compareTo(timeout) < 0) {
+                timeout = remaining;
+            }
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                    .setResponseTimeout(Timeout.of(timeout))
+                    .build());
+            return context;
+        }
+    }
+}
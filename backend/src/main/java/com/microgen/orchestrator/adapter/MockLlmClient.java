@@ -59,4 +59,9 @@ public class MockLlmClient implements LlmClient {
         return "// High-quality business logic generated based on: " + userPrompt
                 + "\n@org.springframework.web.bind.annotation.GetMapping(\"/api/v1/status\")\npublic String getStatus() { return \"Service is Operational\"; }";
     }
+
+    @Override
+    public String getProviderName() {
+        return "mock";
+    }
 }
@@ -1,11 +1,10 @@
 package com.microgen.orchestrator.adapter;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -14,12 +13,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Component
-@ConditionalOnProperty(name = "llm.provider", havingValue = "ollama", matchIfMissing = false)
+@ConditionalOnLlmProvider("ollama")
 public class OllamaLlmClient implements LlmClient {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${ollama.api.url:http://host.docker.internal:11434/api/chat}")
@@ -28,11 +28,25 @@ public class OllamaLlmClient implements LlmClient {
     @Value("${ollama.model:llama3}")
     private String model;
 
+    public OllamaLlmClient(LlmHttpTransport transport) {
+        this.restTemplate = transport.restTemplate("ollama");
+    }
+
     @Override
     public String generate(String systemPrompt, String userPrompt) {
+        return call(systemPrompt, userPrompt, null);
+    }
+
+    /** Sends the request with {@code stream: true} and reads the newline-delimited JSON chunks as it arrives. */
+    @Override
+    public String generateStream(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        return call(systemPrompt, userPrompt, onChunk);
+    }
+
+    private String call(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("model", model);
-        requestBody.put("stream", false);
+        requestBody.put("stream", onChunk != null);
 
         List<Map<String, String>> messages = new ArrayList<>();
         messages.add(Map.of("role", "system", "content", systemPrompt));
@@ -44,10 +58,14 @@ public class OllamaLlmClient implements LlmClient {
 
         try {
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            String response = restTemplate.postForObject(apiUrl, entity, String.class);
-
-            JsonNode root = objectMapper.readTree(response);
-            return root.path("message").path("content").asText();
+            if (onChunk != null) {
+                return restTemplate.execute(apiUrl, HttpMethod.POST, restTemplate.httpEntityCallback(entity),
+                        response -> StreamingResponses.readNdjson(response.getBody(), objectMapper, onChunk));
+            }
+            String content = restTemplate.execute(apiUrl, HttpMethod.POST, restTemplate.httpEntityCallback(entity),
+                    response -> StreamingResponses.readContent(response.getBody(), objectMapper,
+                            StreamingResponses.OLLAMA_CONTENT));
+            return content != null ? content : "ERROR: Ollama response had no message.content";
         } catch (org.springframework.web.client.HttpClientErrorException e) {
             String body = e.getResponseBodyAsString();
             return "ERROR: Ollama API request failed: " + e.getStatusCode() + " - " + body;
@@ -56,4 +74,14 @@ public class OllamaLlmClient implements LlmClient {
             return "ERROR: Generic failure communicating with Ollama: " + e.getMessage();
         }
     }
+
+    @Override
+    public String getProviderName() {
+        return "ollama";
+    }
+
+    @Override
+    public String getModel() {
+        return model;
+    }
 }
@@ -0,0 +1,28 @@
+package com.microgen.orchestrator.adapter;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.Arrays;
+import java.util.Map;
+
+class OnLlmProviderCondition implements Condition {
+
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnLlmProvider.class.getName());
+        String provider = (String) attributes.get("value");
+        Environment environment = context.getEnvironment();
+
+        String selected = environment.getProperty("llm.provider", "");
+        String routed = environment.getProperty("llm.routing.providers", "");
+        if (selected.isBlank() && routed.isBlank()) {
+            return (Boolean) attributes.get("matchIfMissing");
+        }
+        return provider.equalsIgnoreCase(selected.trim()) || Arrays.stream(routed.split(","))
+                .map(String::trim)
+                .anyMatch(provider::equalsIgnoreCase);
+    }
+}
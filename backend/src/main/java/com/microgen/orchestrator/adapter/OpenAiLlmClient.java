@@ -1,12 +1,11 @@
 package com.microgen.orchestrator.adapter;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
@@ -14,12 +13,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Component
-@ConditionalOnProperty(name = "llm.provider", havingValue = "openai")
+@ConditionalOnLlmProvider("openai")
 public class OpenAiLlmClient implements LlmClient {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${llm.api.base}")
@@ -31,8 +31,22 @@ public class OpenAiLlmClient implements LlmClient {
     @Value("${llm.model}")
     private String model;
 
+    public OpenAiLlmClient(LlmHttpTransport transport) {
+        this.restTemplate = transport.restTemplate("openai");
+    }
+
     @Override
     public String generate(String systemPrompt, String userPrompt) {
+        return call(systemPrompt, userPrompt, null);
+    }
+
+    /** Sends the request with {@code stream: true} and reads the Server-Sent Events as it arrives. */
+    @Override
+    public String generateStream(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        return call(systemPrompt, userPrompt, onChunk);
+    }
+
+    private String call(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
         String url = apiBase + "/chat/completions";
 
         HttpHeaders headers = new HttpHeaders();
@@ -48,13 +62,20 @@ public class OpenAiLlmClient implements LlmClient {
 
         requestBody.put("messages", messages);
         requestBody.put("temperature", 0.7);
+        if (onChunk != null) {
+            requestBody.put("stream", true);
+        }
 
         try {
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            String response = restTemplate.postForObject(url, entity, String.class);
-
-            JsonNode root = objectMapper.readTree(response);
-            return root.path("choices").get(0).path("message").path("content").asText();
+            if (onChunk != null) {
+                return restTemplate.execute(url, HttpMethod.POST, restTemplate.httpEntityCallback(entity),
+                        response -> StreamingResponses.readServerSentEvents(response.getBody(), objectMapper, onChunk));
+            }
+            String content = restTemplate.execute(url, HttpMethod.POST, restTemplate.httpEntityCallback(entity),
+                    response -> StreamingResponses.readContent(response.getBody(), objectMapper,
+                            StreamingResponses.CHAT_CONTENT));
+            return content != null ? content : "ERROR: OpenAI response had no choices[0].message.content";
         } catch (org.springframework.web.client.HttpClientErrorException e) {
             String body = e.getResponseBodyAsString();
             if (body.contains("insufficient_quota")) {
@@ -69,4 +90,14 @@ public class OpenAiLlmClient implements LlmClient {
             return "ERROR: Generic failure communicating with LLM: " + e.getMessage();
         }
     }
+
+    @Override
+    public String getProviderName() {
+        return "openai";
+    }
+
+    @Override
+    public String getModel() {
+        return model;
+    }
 }
@@ -1,11 +1,10 @@
 package com.microgen.orchestrator.adapter;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -14,12 +13,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Component
-@ConditionalOnProperty(name = "llm.provider", havingValue = "openrouter", matchIfMissing = false)
+@ConditionalOnLlmProvider("openrouter")
 public class OpenRouterLlmClient implements LlmClient {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${openrouter.api.key:}")
@@ -28,9 +28,26 @@ public class OpenRouterLlmClient implements LlmClient {
     @Value("${openrouter.model:google/gemini-2.0-flash-exp:free}")
     private String model;
 
+    @Value("${openrouter.api.url:https://openrouter.ai/api/v1}")
+    private String apiUrl;
+
+    public OpenRouterLlmClient(LlmHttpTransport transport) {
+        this.restTemplate = transport.restTemplate("openrouter");
+    }
+
     @Override
     public String generate(String systemPrompt, String userPrompt) {
-        String url = "https://openrouter.ai/api/v1/chat/completions";
+        return call(systemPrompt, userPrompt, null);
+    }
+
+    /** Sends the request with {@code stream: true} and reads the Server-Sent Events as it arrives. */
+    @Override
+    public String generateStream(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        return call(systemPrompt, userPrompt, onChunk);
+    }
+
+    private String call(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        String url = apiUrl + "/chat/completions";
 
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("model", model);
@@ -39,6 +56,9 @@ public class OpenRouterLlmClient implements LlmClient {
         messages.add(Map.of("role", "system", "content", systemPrompt));
         messages.add(Map.of("role", "user", "content", userPrompt));
         requestBody.put("messages", messages);
+        if (onChunk != null) {
+            requestBody.put("stream", true);
+        }
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -48,10 +68,14 @@ public class OpenRouterLlmClient implements LlmClient {
 
         try {
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            String response = restTemplate.postForObject(url, entity, String.class);
-
-            JsonNode root = objectMapper.readTree(response);
-            return root.path("choices").get(0).path("message").path("content").asText();
+            if (onChunk != null) {
+                return restTemplate.execute(url, HttpMethod.POST, restTemplate.httpEntityCallback(entity),
+                        response -> StreamingResponses.readServerSentEvents(response.getBody(), objectMapper, onChunk));
+            }
+            String content = restTemplate.execute(url, HttpMethod.POST, restTemplate.httpEntityCallback(entity),
+                    response -> StreamingResponses.readContent(response.getBody(), objectMapper,
+                            StreamingResponses.CHAT_CONTENT));
+            return content != null ? content : "ERROR: OpenRouter response had no choices[0].message.content";
         } catch (org.springframework.web.client.HttpClientErrorException e) {
             String body = e.getResponseBodyAsString();
             return "ERROR: OpenRouter API request failed: " + e.getStatusCode() + " - " + body;
@@ -63,4 +87,14 @@ public class OpenRouterLlmClient implements LlmClient {
             return "ERROR: Generic failure communicating with OpenRouter: " + e.getMessage();
         }
     }
+
+    @Override
+    public String getProviderName() {
+        return "openrouter";
+    }
+
+    @Override
+    public String getModel() {
+        return model;
+    }
 }
@@ -0,0 +1,231 @@
+package com.microgen.orchestrator.adapter;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.TokensInheritanceStrategy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Client-side request and token budget for one provider, so calls wait their
+ * turn here instead of being sent and rejected with 429 / quota errors.
+ * <p>
+ * Both budgets refill per {@code period} and start from
+ * {@code llm.<provider>.rate-limit.*}; zero leaves a budget unlimited until the
+ * provider announces one. After every response the budgets are synced with
+ * the {@code x-ratelimit-limit-*} / {@code x-ratelimit-remaining-*} headers
+ * (or the single-bucket {@code x-ratelimit-limit} / {@code -remaining} used by
+ * OpenRouter). Token use is estimated at four characters per token: a call
+ * reserves its prompt plus {@code expectedOutputTokens} up front and settles
+ * the difference once the completion is known.
+ * <p>
+ * A call waits at most {@code maxWait}, and never past its job's deadline.
+ */
+public class RateLimitedLlmClient implements LlmClient {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final LlmClient delegate;
+    private final Budget requests;
+    private final Budget tokens;
+    private final long expectedOutputTokens;
+    private final Duration maxWait;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+
+    public RateLimitedLlmClient(LlmClient delegate, long requestsPerPeriod, long tokensPerPeriod, Duration period,
+            long expectedOutputTokens, Duration maxWait, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.requests = new Budget(requestsPerPeriod, period);
+        this.tokens = new Budget(tokensPerPeriod, period);
+        this.expectedOutputTokens = expectedOutputTokens;
+        this.maxWait = maxWait;
+
+        String provider = delegate.getProviderName();
+        this.waitTimer = Timer.builder("llm.ratelimit.wait").tag("provider", provider).register(meterRegistry);
+        Gauge.builder("llm.ratelimit.waiting", waiting, AtomicInteger::get)
+                .tag("provider", provider)
+                .register(meterRegistry);
+        Gauge.builder("llm.ratelimit.available", requests, Budget::available)
+                .tag("provider", provider)
+                .tag("budget", "requests")
+                .register(meterRegistry);
+        Gauge.builder("llm.ratelimit.available", tokens, Budget::available)
+                .tag("provider", provider)
+                .tag("budget", "tokens")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String generate(String systemPrompt, String userPrompt) {
+        return call(systemPrompt, userPrompt, null);
+    }
+
+    @Override
+    public String generateStream(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        return call(systemPrompt, userPrompt, onChunk);
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public String getModel() {
+        return delegate.getModel();
+    }
+
+    private String call(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        long promptTokens = (systemPrompt.length() + userPrompt.length()) / CHARS_PER_TOKEN;
+        long reserved = promptTokens + expectedOutputTokens;
+
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            Duration wait = maxWait;
+            Duration remaining = LlmCallContext.remaining();
+            if (remaining != null && remaining.compareTo(wait) < 0) {
+                wait = remaining;
+            }
+            if (!requests.acquire(1, wait)) {
+                return "ERROR: " + getProviderName() + " request budget exhausted, no capacity within " + wait;
+            }
+            Duration left = wait.minusNanos(System.nanoTime() - start);
+            if (!tokens.acquire(reserved, left.isNegative() ? Duration.ZERO : left)) {
+                requests.refund(1);
+                return "ERROR: " + getProviderName() + " token budget exhausted, no capacity within " + wait;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR: Interrupted while waiting for " + getProviderName() + " rate-limit budget";
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+
+        String response = onChunk == null
+                ? delegate.generate(systemPrompt, userPrompt)
+                : delegate.generateStream(systemPrompt, userPrompt, onChunk);
+
+        long used = promptTokens + (response == null ? 0 : response.length() / CHARS_PER_TOKEN);
+        tokens.settle(reserved, used);
+        LlmCallContext.Exchange exchange = LlmCallContext.getLastExchange();
+        if (exchange != null && exchange.failure() == null) {
+            sync(exchange);
+        }
+        return response;
+    }
+
+    private void sync(LlmCallContext.Exchange exchange) {
+        HttpHeaders headers = exchange.headers();
+        requests.sync(header(headers, "x-ratelimit-limit-requests", "x-ratelimit-limit"),
+                header(headers, "x-ratelimit-remaining-requests", "x-ratelimit-remaining"));
+        tokens.sync(header(headers, "x-ratelimit-limit-tokens", null),
+                header(headers, "x-ratelimit-remaining-tokens", null));
+        if (exchange.status() == 429) {
+            // Whatever we believed, the provider says there is nothing left
+            requests.drain();
+        }
+    }
+
+    private static Long header(HttpHeaders headers, String name, String fallback) {
+        String value = headers.getFirst(name);
+        if (value == null && fallback != null) {
+            value = headers.getFirst(fallback);
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** A refilling budget; null bucket means unlimited. */
+    private static final class Budget {
+
+        private final Duration period;
+        private volatile Bucket bucket;
+        private long capacity;
+
+        Budget(long capacity, Duration period) {
+            this.period = period;
+            this.capacity = capacity;
+            this.bucket = capacity > 0 ? Bucket.builder().addLimit(bandwidth(capacity)).build() : null;
+        }
+
+        boolean acquire(long amount, Duration maxWait) throws InterruptedException {
+            Bucket current = bucket;
+            if (current == null) {
+                return true;
+            }
+            // A single call larger than the whole budget would never fit; let it drain the bucket instead
+            long needed = Math.min(amount, capacity);
+            return current.asBlocking().tryConsume(needed, maxWait);
+        }
+
+        void refund(long amount) {
+            Bucket current = bucket;
+            if (current != null) {
+                current.addTokens(amount);
+            }
+        }
+
+        void settle(long reserved, long used) {
+            Bucket current = bucket;
+            if (current == null || reserved == used) {
+                return;
+            }
+            if (used < reserved) {
+                current.addTokens(reserved - used);
+            } else {
+                current.consumeIgnoringRateLimits(used - reserved);
+            }
+        }
+
+        void drain() {
+            Bucket current = bucket;
+            if (current != null && current.getAvailableTokens() > 0) {
+                current.consumeIgnoringRateLimits(current.getAvailableTokens());
+            }
+        }
+
+        synchronized void sync(Long limit, Long remaining) {
+            if (limit != null && limit > 0 && limit != capacity) {
+                capacity = limit;
+                if (bucket == null) {
+                    bucket = Bucket.builder().addLimit(bandwidth(limit)).build();
+                } else {
+                    bucket.replaceConfiguration(BucketConfiguration.builder().addLimit(bandwidth(limit)).build(),
+                            TokensInheritanceStrategy.PROPORTIONALLY);
+                }
+            }
+            if (bucket != null && remaining != null) {
+                long surplus = bucket.getAvailableTokens() - remaining;
+                if (surplus > 0) {
+                    bucket.consumeIgnoringRateLimits(surplus);
+                }
+            }
+        }
+
+        double available() {
+            Bucket current = bucket;
+            return current == null ? Double.NaN : current.getAvailableTokens();
+        }
+
+        private Bandwidth bandwidth(long limit) {
+            return Bandwidth.classic(limit, Refill.greedy(limit, period));
+        }
+    }
+}
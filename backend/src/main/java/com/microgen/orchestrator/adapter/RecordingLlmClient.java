@@ -0,0 +1,53 @@
+package com.microgen.orchestrator.adapter;
+
+import java.util.function.Consumer;
+
+/**
+ * Record mode ({@code llm.fixtures.mode=record}): passes every call through and
+ * saves each successful (systemPrompt, userPrompt) → response pair, with its
+ * latency, as a fixture that {@link ReplayLlmClient} can serve offline.
+ */
+public class RecordingLlmClient implements LlmClient {
+
+    private final LlmClient delegate;
+    private final LlmFixtureStore store;
+
+    RecordingLlmClient(LlmClient delegate, LlmFixtureStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public String generate(String systemPrompt, String userPrompt) {
+        long start = System.nanoTime();
+        String response = delegate.generate(systemPrompt, userPrompt);
+        record(systemPrompt, userPrompt, response, start);
+        return response;
+    }
+
+    @Override
+    public String generateStream(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        long start = System.nanoTime();
+        String response = delegate.generateStream(systemPrompt, userPrompt, onChunk);
+        record(systemPrompt, userPrompt, response, start);
+        return response;
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public String getModel() {
+        return delegate.getModel();
+    }
+
+    private void record(String systemPrompt, String userPrompt, String response, long start) {
+        if (response == null || response.startsWith("ERROR")) {
+            return;
+        }
+        store.save(new LlmFixtureStore.Fixture(systemPrompt, userPrompt, response,
+                (System.nanoTime() - start) / 1_000_000, getProviderName(), getModel(), System.currentTimeMillis()));
+    }
+}
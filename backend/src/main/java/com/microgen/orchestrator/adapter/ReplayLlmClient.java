@@ -0,0 +1,110 @@
+package com.microgen.orchestrator.adapter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Replay mode ({@code llm.fixtures.mode=replay}): stands in for the provider
+ * adapter and serves recorded fixtures without any network access, so the
+ * rest of the chain (limits, retries, cache) and the orchestrator behave as in
+ * production. Prompts that were never recorded get a fixture recorded for the
+ * same system prompt, which lets a handful of recordings drive a load test
+ * with thousands of distinct prompts.
+ * <p>
+ * Latency per call follows {@code latency}: {@code recorded} (the recorded
+ * latency times {@code scale}), {@code fixed} (the median) or
+ * {@code lognormal} (fitted to the median and p99). Streaming calls spread
+ * the response over that time in {@code chunkChars}-sized chunks.
+ */
+public class ReplayLlmClient implements LlmClient {
+
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final LlmFixtureStore store;
+    private final String providerName;
+    private final String latencyModel;
+    private final double scale;
+    private final Duration median;
+    private final double sigma;
+    private final int chunkChars;
+
+    ReplayLlmClient(LlmFixtureStore store, String providerName, String latencyModel, double scale,
+            Duration median, Duration p99, int chunkChars) {
+        this.store = store;
+        this.providerName = providerName;
+        this.latencyModel = latencyModel;
+        this.scale = scale;
+        this.median = median;
+        this.sigma = p99.compareTo(median) > 0
+                ? Math.log((double) p99.toNanos() / median.toNanos()) / Z_99 : 0;
+        this.chunkChars = Math.max(1, chunkChars);
+    }
+
+    @Override
+    public String generate(String systemPrompt, String userPrompt) {
+        LlmFixtureStore.Fixture fixture = lookup(systemPrompt, userPrompt);
+        if (fixture == null) {
+            return "ERROR: No recorded fixture for this prompt";
+        }
+        String waited = await(latencyOf(fixture));
+        return waited != null ? waited : fixture.response();
+    }
+
+    @Override
+    public String generateStream(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        LlmFixtureStore.Fixture fixture = lookup(systemPrompt, userPrompt);
+        if (fixture == null) {
+            return "ERROR: No recorded fixture for this prompt";
+        }
+        String response = fixture.response();
+        int chunks = Math.max(1, (response.length() + chunkChars - 1) / chunkChars);
+        Duration perChunk = latencyOf(fixture).dividedBy(chunks);
+        for (int i = 0; i < response.length(); i += chunkChars) {
+            String waited = await(perChunk);
+            if (waited != null) {
+                return waited;
+            }
+            onChunk.accept(response.substring(i, Math.min(response.length(), i + chunkChars)));
+        }
+        return response;
+    }
+
+    @Override
+    public String getProviderName() {
+        return providerName;
+    }
+
+    @Override
+    public String getModel() {
+        return "replay";
+    }
+
+    private LlmFixtureStore.Fixture lookup(String systemPrompt, String userPrompt) {
+        LlmFixtureStore.Fixture fixture = store.find(systemPrompt, userPrompt);
+        return fixture != null ? fixture : store.findSimilar(systemPrompt, userPrompt);
+    }
+
+    private Duration latencyOf(LlmFixtureStore.Fixture fixture) {
+        return switch (latencyModel) {
+            case "fixed" -> median;
+            case "lognormal" -> Duration.ofNanos((long) (median.toNanos()
+                    * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian())));
+            default -> Duration.ofMillis((long) (fixture.latencyMillis() * scale));
+        };
+    }
+
+    /** Sleeps like a provider would; returns an ERROR string when cut short, null otherwise. */
+    private static String await(Duration latency) {
+        Duration remaining = LlmCallContext.remaining();
+        boolean overrun = remaining != null && latency.compareTo(remaining) > 0;
+        try {
+            Thread.sleep(Math.max(0, (overrun ? remaining : latency).toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR: Interrupted during replayed LLM call";
+        }
+        return overrun ? "ERROR: Replayed LLM call exceeded the job deadline" : null;
+    }
+}
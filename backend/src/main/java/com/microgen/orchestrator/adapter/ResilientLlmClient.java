@@ -0,0 +1,205 @@
+package com.microgen.orchestrator.adapter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Retry and circuit-breaking for one provider. Adapters report failures as
+ * "ERROR: ..." strings; the HTTP exchange behind them (recorded in
+ * {@link LlmCallContext}) decides how the failure is treated:
+ * <ul>
+ * <li>RETRYABLE - timeouts, connection failures, 408, 429 and 5xx (e.g. a
+ * HuggingFace model that is still loading): retried with jittered exponential
+ * backoff, or after the provider's Retry-After;</li>
+ * <li>QUOTA and AUTH - not retried, and they open the circuit right away since
+ * every further call would fail the same way;</li>
+ * <li>BAD_REQUEST - other 4xx and failures before any request was sent: not
+ * retried and not held against the provider.</li>
+ * </ul>
+ * Retries stop when the next wait would overrun the job's deadline. A stream
+ * that already delivered chunks is never retried.
+ */
+public class ResilientLlmClient implements LlmClient {
+
+    enum FailureKind { RETRYABLE, QUOTA, AUTH, BAD_REQUEST }
+
+    private final LlmClient delegate;
+    private final CircuitBreaker breaker;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration maxRetryAfter;
+    private final Map<FailureKind, Counter> failures = new EnumMap<>(FailureKind.class);
+    private final Counter retries;
+    private final Counter rejected;
+
+    public ResilientLlmClient(LlmClient delegate, int maxAttempts, Duration baseBackoff, Duration maxBackoff,
+            Duration maxRetryAfter, int failureThreshold, Duration openDuration, Duration maxOpenDuration,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.breaker = new CircuitBreaker(failureThreshold, openDuration, maxOpenDuration);
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxRetryAfter = maxRetryAfter;
+
+        String provider = delegate.getProviderName();
+        for (FailureKind kind : FailureKind.values()) {
+            failures.put(kind, Counter.builder("llm.calls.failed")
+                    .tag("provider", provider)
+                    .tag("kind", kind.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.retries = Counter.builder("llm.calls.retried").tag("provider", provider).register(meterRegistry);
+        this.rejected = Counter.builder("llm.circuit.rejected").tag("provider", provider).register(meterRegistry);
+        // 0 = closed, 1 = half-open, 2 = open
+        Gauge.builder("llm.circuit.state", breaker, b -> switch (b.getState()) {
+            case CLOSED -> 0;
+            case HALF_OPEN -> 1;
+            case OPEN -> 2;
+        }).tag("provider", provider).register(meterRegistry);
+    }
+
+    @Override
+    public String generate(String systemPrompt, String userPrompt) {
+        return call(systemPrompt, userPrompt, null);
+    }
+
+    @Override
+    public String generateStream(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        return call(systemPrompt, userPrompt, onChunk);
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public String getModel() {
+        return delegate.getModel();
+    }
+
+    private String call(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        for (int attempt = 1; ; attempt++) {
+            if (!breaker.tryAcquire()) {
+                rejected.increment();
+                return "ERROR: " + getProviderName() + " is unavailable (circuit open), retry in "
+                        + Math.max(1, breaker.remainingOpen().toSeconds()) + "s";
+            }
+
+            boolean[] delivered = {false};
+            LlmCallContext.clearExchange();
+            String response = onChunk == null
+                    ? delegate.generate(systemPrompt, userPrompt)
+                    : delegate.generateStream(systemPrompt, userPrompt, chunk -> {
+                        delivered[0] = true;
+                        onChunk.accept(chunk);
+                    });
+
+            if (response != null && !response.startsWith("ERROR")) {
+                breaker.onSuccess();
+                return response;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                // Cancelled by the caller; says nothing about the provider
+                breaker.onIgnored();
+                return response;
+            }
+
+            LlmCallContext.Exchange exchange = LlmCallContext.getLastExchange();
+            FailureKind kind = classify(response, exchange);
+            failures.get(kind).increment();
+            Duration retryAfter = exchange == null ? null : retryAfter(exchange.headers());
+            if (kind == FailureKind.BAD_REQUEST) {
+                breaker.onIgnored();
+            } else {
+                breaker.onFailure(kind != FailureKind.RETRYABLE, retryAfter);
+            }
+
+            if (kind != FailureKind.RETRYABLE || delivered[0] || attempt >= maxAttempts) {
+                return response;
+            }
+            Duration wait = retryAfter != null ? retryAfter : backoff(attempt);
+            Duration remaining = LlmCallContext.remaining();
+            if (wait.compareTo(maxRetryAfter) > 0 || (remaining != null && wait.compareTo(remaining) >= 0)) {
+                return response;
+            }
+
+            retries.increment();
+            System.out.println("Retrying " + getProviderName() + " call in " + wait.toMillis() + "ms after: "
+                    + response);
+            try {
+                Thread.sleep(wait.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return response;
+            }
+        }
+    }
+
+    static FailureKind classify(String response, LlmCallContext.Exchange exchange) {
+        String message = response == null ? "" : response.toLowerCase();
+        if (message.contains("quota")) {
+            return FailureKind.QUOTA;
+        }
+        if (exchange == null) {
+            // Nothing was sent: missing key, request could not be built, interrupted while queued
+            return FailureKind.BAD_REQUEST;
+        }
+        if (exchange.failure() != null) {
+            return FailureKind.RETRYABLE;
+        }
+        int status = exchange.status();
+        if (status == 401 || status == 403) {
+            return FailureKind.AUTH;
+        }
+        if (status == 402) {
+            return FailureKind.QUOTA;
+        }
+        if (status == 408 || status == 429 || status >= 500) {
+            return FailureKind.RETRYABLE;
+        }
+        if (status >= 400) {
+            return FailureKind.BAD_REQUEST;
+        }
+        // 2xx whose body the adapter could not use
+        return FailureKind.RETRYABLE;
+    }
+
+    /** Retry-After as delta-seconds or HTTP-date; null when absent or unparseable. */
+    static Duration retryAfter(HttpHeaders headers) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Duration delta = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return delta.isNegative() ? Duration.ZERO : delta;
+            } catch (RuntimeException ignored) {
+                return null;
+            }
+        }
+    }
+
+    // Exponential backoff with equal jitter: half fixed, half random
+    private Duration backoff(int attempt) {
+        long cap = Math.min(maxBackoff.toMillis(), baseBackoff.toMillis() << Math.min(attempt - 1, 20));
+        long half = cap / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+}
@@ -0,0 +1,334 @@
+package com.microgen.orchestrator.adapter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads calls over several providers. Each provider keeps a moving average
+ * of its successful latency and a time-decaying error rate; a call goes to the
+ * provider with the lowest {@code latency + errorRate * errorPenalty}, falls
+ * over to the next one on an ERROR response, and, when hedging is enabled, is
+ * duplicated to the runner-up once the primary has been slower than its own
+ * latency percentile. The first successful answer wins and the other call is
+ * cancelled, which aborts its HTTP exchange.
+ *
+ * The percentile comes from calls of the same class only: an intent
+ * extraction returns in seconds while a whole service takes a minute, so a
+ * shared window would hedge the former far too late. The class is the opening
+ * of the system prompt, which holds the fixed part of every prompt template.
+ * Closing the client stops the hedging threads.
+ */
+public class RoutingLlmClient implements LlmClient, AutoCloseable {
+
+    private static final double LATENCY_ALPHA = 0.2;
+    private static final int LATENCY_SAMPLES = 128;
+    private static final int MIN_SAMPLES_FOR_PERCENTILE = 10;
+    private static final int CALL_CLASS_PREFIX = 160;
+    // Bounds the windows per provider should prompts vary early; later classes share one window
+    private static final int MAX_CALL_CLASSES = 32;
+    private static final String OTHER_CALL_CLASS = "";
+
+    private final List<Route> routes;
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private final boolean hedgeEnabled;
+    private final double hedgePercentile;
+    private final Duration hedgeMinDelay;
+    private final Duration hedgeDefaultDelay;
+    private final Duration errorPenalty;
+    private final Counter hedgesFired;
+    private final Counter hedgesWon;
+    private final Counter failovers;
+
+    public RoutingLlmClient(List<LlmClient> providers, boolean hedgeEnabled, double hedgePercentile,
+            Duration hedgeMinDelay, Duration hedgeDefaultDelay, Duration errorPenalty, Duration errorHalfLife,
+            MeterRegistry meterRegistry) {
+        this.routes = providers.stream().map(p -> new Route(p, errorHalfLife)).toList();
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelay = hedgeMinDelay;
+        this.hedgeDefaultDelay = hedgeDefaultDelay;
+        this.errorPenalty = errorPenalty;
+
+        for (Route route : routes) {
+            String provider = route.client.getProviderName();
+            route.calls = Counter.builder("llm.routing.calls").tag("provider", provider).register(meterRegistry);
+            Gauge.builder("llm.routing.latency.ewma", route, Route::ewmaLatencyMillis)
+                    .tag("provider", provider)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("llm.routing.error.rate", route, Route::errorRate)
+                    .tag("provider", provider)
+                    .register(meterRegistry);
+        }
+        this.hedgesFired = Counter.builder("llm.routing.hedges").tag("result", "fired").register(meterRegistry);
+        this.hedgesWon = Counter.builder("llm.routing.hedges").tag("result", "won").register(meterRegistry);
+        this.failovers = Counter.builder("llm.routing.failovers").register(meterRegistry);
+    }
+
+    @Override
+    public String generate(String systemPrompt, String userPrompt) {
+        List<Route> ranked = rank();
+        Instant deadline = LlmCallContext.getDeadline();
+        CompletionService<String> completions = new ExecutorCompletionService<>(virtualThreads);
+        List<Future<String>> started = new ArrayList<>();
+        Future<String> hedge = null;
+        int next = 0;
+        int pending = 0;
+        String lastError = "ERROR: No LLM provider available";
+
+        try {
+            started.add(completions.submit(attempt(ranked.get(next++), systemPrompt, userPrompt, deadline)));
+            pending++;
+            while (pending > 0) {
+                Future<String> done;
+                if (hedgeEnabled && hedge == null && pending == 1 && next < ranked.size()) {
+                    done = completions.poll(hedgeDelay(ranked.get(next - 1), systemPrompt).toMillis(),
+                            TimeUnit.MILLISECONDS);
+                    if (done == null) {
+                        hedgesFired.increment();
+                        hedge = completions.submit(attempt(ranked.get(next++), systemPrompt, userPrompt, deadline));
+                        started.add(hedge);
+                        pending++;
+                        continue;
+                    }
+                } else {
+                    done = completions.take();
+                }
+                pending--;
+
+                String response = outcome(done);
+                if (!isError(response)) {
+                    if (done == hedge) {
+                        hedgesWon.increment();
+                    }
+                    return response;
+                }
+                lastError = response;
+                if (pending == 0 && next < ranked.size()) {
+                    failovers.increment();
+                    started.add(completions.submit(attempt(ranked.get(next++), systemPrompt, userPrompt, deadline)));
+                    pending++;
+                }
+            }
+            return lastError;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR: Interrupted while waiting for an LLM provider";
+        } catch (RejectedExecutionException e) {
+            // close() ran, so the first attempt, a hedge or a failover could not start
+            return "ERROR: LLM router is shut down";
+        } finally {
+            // No-op for finished calls; aborts the losing hedge or anything still running
+            started.forEach(f -> f.cancel(true));
+        }
+    }
+
+    /**
+     * Streams from the best provider. Hedging would interleave two streams, so
+     * streaming calls only fail over, and only while nothing was delivered yet.
+     */
+    @Override
+    public String generateStream(String systemPrompt, String userPrompt, Consumer<String> onChunk) {
+        String lastError = "ERROR: No LLM provider available";
+        boolean first = true;
+        for (Route route : rank()) {
+            if (!first) {
+                failovers.increment();
+            }
+            first = false;
+            boolean[] delivered = {false};
+            long start = System.nanoTime();
+            route.calls.increment();
+            String response = route.client.generateStream(systemPrompt, userPrompt, chunk -> {
+                delivered[0] = true;
+                onChunk.accept(chunk);
+            });
+            route.record(callClass(systemPrompt), System.nanoTime() - start, isError(response));
+            if (!isError(response) || delivered[0] || Thread.currentThread().isInterrupted()) {
+                return response;
+            }
+            lastError = response;
+        }
+        return lastError;
+    }
+
+    @Override
+    public String getProviderName() {
+        return "routing";
+    }
+
+    @Override
+    public String getModel() {
+        return routes.stream()
+                .map(r -> r.client.getProviderName() + ":" + r.client.getModel())
+                .collect(Collectors.joining(","));
+    }
+
+    private List<Route> rank() {
+        // Stable sort, so providers without samples keep their configured order
+        return routes.stream()
+                .sorted(Comparator.comparingDouble(r -> r.score(errorPenalty)))
+                .toList();
+    }
+
+    /** Stops hedges and failover attempts still running; called when the application shuts down. */
+    @Override
+    public void close() {
+        virtualThreads.shutdownNow();
+    }
+
+    private Duration hedgeDelay(Route primary, String systemPrompt) {
+        Duration percentile = primary.latencyPercentile(callClass(systemPrompt), hedgePercentile);
+        if (percentile == null) {
+            return hedgeDefaultDelay;
+        }
+        return percentile.compareTo(hedgeMinDelay) < 0 ? hedgeMinDelay : percentile;
+    }
+
+    private Callable<String> attempt(Route route, String systemPrompt, String userPrompt, Instant deadline) {
+        route.calls.increment();
+        return () -> {
+            LlmCallContext.setDeadline(deadline);
+            long start = System.nanoTime();
+            try {
+                String response = route.client.generate(systemPrompt, userPrompt);
+                // A cancelled hedge says nothing about the provider's health
+                if (!Thread.currentThread().isInterrupted()) {
+                    route.record(callClass(systemPrompt), System.nanoTime() - start, isError(response));
+                }
+                return response;
+            } finally {
+                LlmCallContext.clear();
+            }
+        };
+    }
+
+    private static String outcome(Future<String> done) throws InterruptedException {
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            return "ERROR: " + e.getCause().getMessage();
+        }
+    }
+
+    private static boolean isError(String response) {
+        return response == null || response.startsWith("ERROR");
+    }
+
+    // Prompt templates put their per-request details after the opening
+    private static String callClass(String systemPrompt) {
+        if (systemPrompt == null) {
+            return OTHER_CALL_CLASS;
+        }
+        return systemPrompt.length() <= CALL_CLASS_PREFIX ? systemPrompt
+                : systemPrompt.substring(0, CALL_CLASS_PREFIX);
+    }
+
+    private static final class Route {
+
+        private final LlmClient client;
+        private final Duration errorHalfLife;
+        private Counter calls;
+
+        // Successful latencies per call class, for the hedge delay
+        private final Map<String, LatencyWindow> windows = new HashMap<>();
+        private double ewmaLatencyNanos = -1;
+        private double errorRate;
+        private long errorRateUpdatedAt = System.nanoTime();
+
+        Route(LlmClient client, Duration errorHalfLife) {
+            this.client = client;
+            this.errorHalfLife = errorHalfLife;
+        }
+
+        synchronized void record(String callClass, long latencyNanos, boolean failed) {
+            errorRate = decayedErrorRate() * (1 - LATENCY_ALPHA) + (failed ? LATENCY_ALPHA : 0);
+            errorRateUpdatedAt = System.nanoTime();
+            if (failed) {
+                // Fast failures would otherwise make a broken provider look quick
+                return;
+            }
+            ewmaLatencyNanos = ewmaLatencyNanos < 0 ? latencyNanos
+                    : ewmaLatencyNanos * (1 - LATENCY_ALPHA) + latencyNanos * LATENCY_ALPHA;
+            String key = windows.containsKey(callClass) || windows.size() < MAX_CALL_CLASSES ? callClass
+                    : OTHER_CALL_CLASS;
+            windows.computeIfAbsent(key, k -> new LatencyWindow()).add(latencyNanos);
+        }
+
+        /** Expected cost of a call in nanoseconds; providers without samples score 0 and get tried. */
+        synchronized double score(Duration errorPenalty) {
+            double latency = Math.max(0, ewmaLatencyNanos);
+            return latency + decayedErrorRate() * errorPenalty.toNanos();
+        }
+
+        synchronized double errorRate() {
+            return decayedErrorRate();
+        }
+
+        synchronized double ewmaLatencyMillis() {
+            return Math.max(0, ewmaLatencyNanos) / 1_000_000;
+        }
+
+        synchronized Duration latencyPercentile(String callClass, double percentile) {
+            LatencyWindow window = windows.get(callClass);
+            if (window == null) {
+                window = windows.get(OTHER_CALL_CLASS);
+            }
+            return window == null ? null : window.percentile(percentile);
+        }
+
+        // Errors fade with time so a provider that recovered is tried again
+        private double decayedErrorRate() {
+            if (errorHalfLife.isZero()) {
+                return errorRate;
+            }
+            double halfLives = (double) (System.nanoTime() - errorRateUpdatedAt) / errorHalfLife.toNanos();
+            return errorRate * Math.pow(0.5, halfLives);
+        }
+    }
+
+    /** The last {@link #LATENCY_SAMPLES} latencies; guarded by the owning route. */
+    private static final class LatencyWindow {
+
+        private final long[] latencies = new long[LATENCY_SAMPLES];
+        private int sampleCount;
+        private int nextSample;
+
+        void add(long latencyNanos) {
+            latencies[nextSample] = latencyNanos;
+            nextSample = (nextSample + 1) % LATENCY_SAMPLES;
+            sampleCount = Math.min(sampleCount + 1, LATENCY_SAMPLES);
+        }
+
+        Duration percentile(double percentile) {
+            if (sampleCount < MIN_SAMPLES_FOR_PERCENTILE) {
+                return null;
+            }
+            long[] sorted = Arrays.copyOf(latencies, sampleCount);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(sampleCount - 1, Math.ceil(percentile * sampleCount) - 1);
+            return Duration.ofNanos(sorted[Math.max(0, index)]);
+        }
+    }
+}
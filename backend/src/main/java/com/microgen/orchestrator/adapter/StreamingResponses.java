@@ -0,0 +1,206 @@
+package com.microgen.orchestrator.adapter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Readers for the response formats the adapters talk: a single JSON
+ * completion, OpenAI-style Server-Sent Events ({@code data: {...}} lines
+ * ending with {@code [DONE]}) and Ollama's newline-delimited JSON. The
+ * streaming formats hand the content deltas to the consumer as they arrive
+ * and return the concatenated completion.
+ * <p>
+ * None of them builds a JSON tree or holds the raw body as a String: a token
+ * parser walks down to the one content field, skipping everything else, so
+ * the completion text is the only copy of the payload that gets allocated.
+ */
+final class StreamingResponses {
+
+    /** {@code choices[0].message.content} of an OpenAI-compatible completion. */
+    static final Object[] CHAT_CONTENT = {"choices", 0, "message", "content"};
+
+    /** {@code choices[0].delta.content} of a chat-completions stream event. */
+    static final Object[] CHAT_DELTA_CONTENT = {"choices", 0, "delta", "content"};
+
+    /** {@code message.content} of an Ollama chat response or stream line. */
+    static final Object[] OLLAMA_CONTENT = {"message", "content"};
+
+    /** {@code candidates[0].content.parts[0].text} of a Gemini response. */
+    static final Object[] GEMINI_CONTENT = {"candidates", 0, "content", "parts", 0, "text"};
+
+    private StreamingResponses() {
+    }
+
+    /**
+     * Reads the string at {@code path} (field names and array indexes) straight
+     * from the response stream. Returns null when the response has no string
+     * there, and throws when it carries a top-level {@code error} instead.
+     */
+    static String readContent(InputStream body, ObjectMapper objectMapper, Object... path) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            return content(parser, path, null);
+        } catch (ProviderError e) {
+            throw new IOException("Provider returned an error: " + e.getMessage());
+        }
+    }
+
+    /** Chat-completions stream: {@code choices[0].delta.content} of each event. */
+    static String readServerSentEvents(InputStream body, ObjectMapper objectMapper, Consumer<String> onChunk)
+            throws IOException {
+        StringBuilder completion = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            // Blank lines separate events; lines starting with ':' are keep-alive comments
+            if (!line.startsWith("data:")) {
+                continue;
+            }
+            String data = line.substring(5).trim();
+            if (data.equals("[DONE]")) {
+                return completion.toString();
+            }
+            if (data.isEmpty()) {
+                continue;
+            }
+            emit(event(objectMapper.getFactory(), data, CHAT_DELTA_CONTENT, null), completion, onChunk);
+        }
+        throw new IOException("Stream ended before [DONE] after " + completion.length() + " characters");
+    }
+
+    /** Ollama chat stream: {@code message.content} of each line until {@code "done": true}. */
+    static String readNdjson(InputStream body, ObjectMapper objectMapper, Consumer<String> onChunk)
+            throws IOException {
+        StringBuilder completion = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            boolean[] done = {false};
+            emit(event(objectMapper.getFactory(), line, OLLAMA_CONTENT, done), completion, onChunk);
+            if (done[0]) {
+                return completion.toString();
+            }
+        }
+        throw new IOException("Stream ended before \"done\" after " + completion.length() + " characters");
+    }
+
+    private static String event(JsonFactory factory, String json, Object[] path, boolean[] done)
+            throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            return content(parser, path, done);
+        } catch (ProviderError e) {
+            throw new IOException("Stream aborted by provider: " + e.getMessage());
+        }
+    }
+
+    private static void emit(String content, StringBuilder completion, Consumer<String> onChunk) {
+        if (content != null && !content.isEmpty()) {
+            completion.append(content);
+            onChunk.accept(content);
+        }
+    }
+
+    /**
+     * Walks one JSON document. Stops at the content unless {@code done} is
+     * given, in which case the rest of the top-level object is read for a
+     * {@code "done": true} flag (Ollama puts it after the message).
+     */
+    private static String content(JsonParser parser, Object[] path, boolean[] done) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object but got " + parser.currentToken());
+        }
+        String content = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (name.equals(path[0])) {
+                content = descend(parser, path, 1);
+                if (done == null) {
+                    return content;
+                }
+            } else if (name.equals("error")) {
+                throw new ProviderError(errorMessage(parser));
+            } else if (name.equals("done") && done != null) {
+                done[0] = parser.currentToken() == JsonToken.VALUE_TRUE;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return content;
+    }
+
+    // The parser sits on the value reached by path[0..depth); leaves it at that value's end
+    private static String descend(JsonParser parser, Object[] path, int depth) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (depth == path.length) {
+            if (token == JsonToken.VALUE_STRING) {
+                return parser.getText();
+            }
+            parser.skipChildren();
+            return null;
+        }
+
+        String found = null;
+        Object step = path[depth];
+        if (token == JsonToken.START_OBJECT && step instanceof String field) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean match = field.equals(parser.currentName());
+                parser.nextToken();
+                if (match && found == null) {
+                    found = descend(parser, path, depth + 1);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY && step instanceof Integer index) {
+            for (int i = 0; parser.nextToken() != JsonToken.END_ARRAY; i++) {
+                if (i == index) {
+                    found = descend(parser, path, depth + 1);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else {
+            parser.skipChildren();
+        }
+        return found;
+    }
+
+    private static String errorMessage(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        String message = null;
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                if (name.equals("message") && parser.currentToken() == JsonToken.VALUE_STRING) {
+                    message = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return message != null ? message : "unknown error";
+    }
+
+    /** A top-level {@code error} object in place of a completion. */
+    private static final class ProviderError extends IOException {
+
+        ProviderError(String message) {
+            super(message);
+        }
+    }
+}
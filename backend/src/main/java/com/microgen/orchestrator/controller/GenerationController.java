@@ -1,14 +1,28 @@
 package com.microgen.orchestrator.controller;
 
+import com.microgen.orchestrator.model.GenerationBatch;
 import com.microgen.orchestrator.model.GenerationJob;
+import com.microgen.orchestrator.service.AdmissionRejectedException;
+import com.microgen.orchestrator.service.BatchService;
+import com.microgen.orchestrator.service.JobEventPublisher;
 import com.microgen.orchestrator.service.PromptOrchestrationService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
@@ -17,23 +31,100 @@ import java.util.Map;
 public class GenerationController {
 
     private final PromptOrchestrationService orchestrationService;
+    private final JobEventPublisher eventPublisher;
+    private final BatchService batchService;
+
+    // When enabled, /generate returns the PENDING job right away and clients follow
+    // /jobs/{jobId}/events or poll /status/{jobId}
+    @Value("${generation.async.enabled:true}")
+    private boolean asyncEnabled;
 
     @PostMapping("/generate")
-    public GenerationJob generate(@RequestBody Map<String, String> request) {
+    public GenerationJob generate(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
         String prompt = request.get("prompt");
+        Duration timeout = parseTimeout(request.get("timeoutSeconds"));
         GenerationJob job = orchestrationService.createJob(prompt);
-        return orchestrationService.processJob(job.getId());
+        CompletableFuture<GenerationJob> result = orchestrationService.submitJob(job.getId(),
+                httpRequest.getRemoteAddr(), timeout);
+        if (asyncEnabled) {
+            return job;
+        }
+        return result.join();
+    }
+
+    @PostMapping("/generate/batch")
+    public GenerationBatch generateBatch(@RequestBody Map<String, List<String>> request,
+            HttpServletRequest httpRequest) {
+        try {
+            return batchService.submitBatch(request.get("prompts"), httpRequest.getRemoteAddr());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/batch/{batchId}")
+    public Map<String, Object> getBatchStatus(@PathVariable String batchId) {
+        GenerationBatch batch = findBatch(batchId);
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (GenerationJob job : batchService.getJobs(batch)) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("id", job.getId());
+            summary.put("status", job.getStatus());
+            summary.put("serviceName", job.getServiceName());
+            summary.put("error", job.getError());
+            jobs.add(summary);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", batch.getId());
+        response.put("createdAt", batch.getCreatedAt());
+        response.put("jobs", jobs);
+        return response;
+    }
+
+    @GetMapping("/batch/{batchId}/download")
+    public ResponseEntity<byte[]> downloadBatch(@PathVariable String batchId) throws Exception {
+        GenerationBatch batch = findBatch(batchId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=batch-" + batch.getId() + ".zip")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(batchService.getBatchZip(batch));
     }
 
     @GetMapping("/status/{jobId}")
     public GenerationJob getStatus(@PathVariable String jobId) {
-        return orchestrationService.getJob(jobId);
+        return findJob(jobId);
+    }
+
+    /**
+     * Server-Sent Events: {@code status} on each stage change, {@code file} per
+     * generated file as soon as it is final, then {@code done}.
+     */
+    @GetMapping(path = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String jobId) {
+        return eventPublisher.subscribe(findJob(jobId));
+    }
+
+    /**
+     * Cancels a queued or running job; its in-flight LLM calls are aborted and
+     * the job ends as CANCELLED.
+     */
+    @DeleteMapping("/jobs/{jobId}")
+    public GenerationJob cancel(@PathVariable String jobId) {
+        GenerationJob job = findJob(jobId);
+        if (job.isFinished()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Job " + jobId + " already finished as " + job.getStatus());
+        }
+        return orchestrationService.cancelJob(jobId);
     }
 
     @GetMapping("/download/{jobId}")
     public ResponseEntity<byte[]> download(@PathVariable String jobId) throws Exception {
-        GenerationJob job = orchestrationService.getJob(jobId);
-        byte[] zipContent = orchestrationService.getProjectZip(jobId);
+        GenerationJob job = findJob(jobId);
+        if (job.getGeneratedFiles() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Job " + jobId + " has no generated files");
+        }
+        byte[] zipContent = orchestrationService.getProjectZip(job);
 
         String filename = (job.getServiceName() != null ? job.getServiceName() : "microservice") + ".zip";
 
@@ -42,4 +133,43 @@ public class GenerationController {
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
                 .body(zipContent);
     }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<String> handleRejected(AdmissionRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(e.getMessage());
+    }
+
+    private Duration parseTimeout(String timeoutSeconds) {
+        if (timeoutSeconds == null || timeoutSeconds.isBlank()) {
+            return null;
+        }
+        try {
+            long seconds = Long.parseLong(timeoutSeconds.trim());
+            if (seconds <= 0) {
+                throw new NumberFormatException();
+            }
+            return Duration.ofSeconds(seconds);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "timeoutSeconds must be a positive whole number");
+        }
+    }
+
+    private GenerationBatch findBatch(String batchId) {
+        GenerationBatch batch = batchService.getBatch(batchId);
+        if (batch == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Batch not found: " + batchId);
+        }
+        return batch;
+    }
+
+    private GenerationJob findJob(String jobId) {
+        GenerationJob job = orchestrationService.getJob(jobId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found: " + jobId);
+        }
+        return job;
+    }
 }
@@ -0,0 +1,186 @@
+package com.microgen.orchestrator.engine;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Finds the dependency list in an LLM response in one left-to-right pass:
+ * the first well-formed JSON array of objects that mentions
+ * {@code "artifactId"}.
+ * <p>
+ * On the way it steps over {@code /// START FILE} blocks, fenced code blocks
+ * other than {@code json}, Java-style comments, XML tags and whole
+ * {@code <project>} documents, so brackets in generated code or a pom never
+ * count. Inside a candidate array, brackets within strings are ignored and
+ * comments are dropped; a balanced candidate that still is not valid JSON is
+ * passed over and the search goes on after it. Every character is visited a
+ * bounded number of times and searches for missing closing markers are
+ * remembered, so the cost stays linear on any input.
+ */
+final class DependencyBlockScanner {
+
+  private static final String START_FILE = "/// START FILE";
+  private static final String END_FILE = "/// END FILE";
+  private static final String FENCE = "```";
+  private static final JsonFactory JSON = new JsonFactory();
+
+  private final String text;
+  private final int length;
+  // Position of the next occurrence at or after the last search; -1 once known to be absent
+  private int nextTagEnd = Integer.MIN_VALUE;
+  private int nextProjectEnd = Integer.MIN_VALUE;
+
+  private DependencyBlockScanner(String text) {
+    this.text = text;
+    this.length = text.length();
+  }
+
+  /** The dependency JSON array with comments removed, or "" when there is none. */
+  static String find(String text) {
+    return new DependencyBlockScanner(text).scan();
+  }
+
+  private String scan() {
+    StringBuilder candidate = null;
+    int depth = 0;
+    boolean inString = false;
+    boolean expectObject = false;
+    boolean inJsonFence = false;
+
+    int i = 0;
+    while (i < length) {
+      char c = text.charAt(i);
+
+      if (inString) {
+        candidate.append(c);
+        if (c == '\\' && i + 1 < length) {
+          candidate.append(text.charAt(i + 1));
+          i += 2;
+          continue;
+        }
+        if (c == '"') {
+          inString = false;
+        }
+        i++;
+        continue;
+      }
+
+      // Code, markup and comments; blocks that hold code also end any open candidate
+      if (c == '/' && i + 1 < length) {
+        char next = text.charAt(i + 1);
+        if (next == '/') {
+          if (text.startsWith(START_FILE, i)) {
+            candidate = null;
+            i = skipPast(END_FILE, i + START_FILE.length());
+          } else {
+            i = lineEnd(i);
+          }
+          continue;
+        }
+        if (next == '*') {
+          i = skipPast("*/", i + 2);
+          continue;
+        }
+      }
+      if (c == '`' && text.startsWith(FENCE, i)) {
+        candidate = null;
+        if (inJsonFence) {
+          inJsonFence = false;
+          i += FENCE.length();
+          continue;
+        }
+        int infoEnd = lineEnd(i);
+        String info = text.substring(i + FENCE.length(), infoEnd).trim();
+        if (info.isEmpty() || info.equalsIgnoreCase("json")) {
+          inJsonFence = true;
+          i = infoEnd;
+        } else {
+          i = skipPast(FENCE, infoEnd);
+        }
+        continue;
+      }
+      if (c == '<' && candidate == null) {
+        int tagEnd = tagEnd(i);
+        if (tagEnd != -1) {
+          i = text.startsWith("<project", i) ? projectEnd(tagEnd) : tagEnd;
+          continue;
+        }
+      }
+
+      if (candidate == null) {
+        if (c == '[') {
+          candidate = new StringBuilder().append(c);
+          depth = 1;
+          expectObject = true;
+        }
+        i++;
+        continue;
+      }
+
+      if (expectObject && !Character.isWhitespace(c)) {
+        expectObject = false;
+        if (c != '{') {
+          // Not an array of objects; look at this character again as plain text
+          candidate = null;
+          continue;
+        }
+      }
+      candidate.append(c);
+      if (c == '"') {
+        inString = true;
+      } else if (c == '[') {
+        depth++;
+      } else if (c == ']' && --depth == 0) {
+        String json = candidate.toString();
+        candidate = null;
+        if (json.contains("\"artifactId\"") && isJsonArray(json)) {
+          return json;
+        }
+      }
+      i++;
+    }
+    return "";
+  }
+
+  private static boolean isJsonArray(String json) {
+    try (JsonParser parser = JSON.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        return false;
+      }
+      parser.skipChildren();
+      return parser.nextToken() == null;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /** Index just after the next {@code marker} at or after {@code from}, or the end of the text. */
+  private int skipPast(String marker, int from) {
+    int found = text.indexOf(marker, from);
+    return found == -1 ? length : found + marker.length();
+  }
+
+  private int lineEnd(int from) {
+    int newline = text.indexOf('\n', from);
+    return newline == -1 ? length : newline;
+  }
+
+  /** Index just after the '>' closing the tag opened at {@code from}, or -1 if no '>' follows. */
+  private int tagEnd(int from) {
+    if (nextTagEnd != -1 && nextTagEnd < from) {
+      nextTagEnd = text.indexOf('>', from);
+    }
+    return nextTagEnd == -1 ? -1 : nextTagEnd + 1;
+  }
+
+  /** Index just after {@code </project>}, or {@code tagEnd} when the document is not closed. */
+  private int projectEnd(int tagEnd) {
+    if (nextProjectEnd != -1 && nextProjectEnd < tagEnd) {
+      nextProjectEnd = text.indexOf("</project>", tagEnd);
+    }
+    return nextProjectEnd == -1 ? tagEnd : nextProjectEnd + "</project>".length();
+  }
+}
@@ -0,0 +1,152 @@
+package com.microgen.orchestrator.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass parser for the {@code /// START FILE: Name.java} ... {@code /// END FILE}
+ * blocks the business-logic prompt asks for. Output can be fed whole or in
+ * chunks of any size as it streams in; each character is looked at once and
+ * copied at most twice, so cost stays linear in the output size however it is
+ * split. A file is emitted as soon as its END FILE line arrives. A block cut
+ * short by the next START FILE, or by the end of a truncated output, is
+ * emitted as incomplete. Text outside blocks is ignored.
+ */
+public class FileBlockParser {
+
+  private static final String START_MARKER = "/// START FILE:";
+  private static final String END_MARKER = "/// END FILE";
+
+  /** One parsed file; {@code complete} is false when its END FILE marker never came. */
+  public record FileBlock(String name, String content, boolean complete) {
+  }
+
+  private final Consumer<FileBlock> onFile;
+  private final StringBuilder line = new StringBuilder();
+  private final StringBuilder content = new StringBuilder();
+  private String name;
+  private int blocks;
+
+  public FileBlockParser(Consumer<FileBlock> onFile) {
+    this.onFile = onFile;
+  }
+
+  /** Parses a complete output. */
+  public static List<FileBlock> parse(String output) {
+    List<FileBlock> files = new ArrayList<>();
+    FileBlockParser parser = new FileBlockParser(files::add);
+    parser.accept(output);
+    parser.finish();
+    return files;
+  }
+
+  /** Feeds the next piece of output; lines may be split anywhere across chunks. */
+  public void accept(CharSequence chunk) {
+    String text = chunk.toString();
+    int pos = 0;
+    if (line.length() > 0) {
+      // Complete the line left open by the previous chunk
+      int newline = text.indexOf('\n');
+      if (newline == -1) {
+        line.append(text);
+        return;
+      }
+      line.append(text, 0, newline);
+      endOfLine(line.toString(), 0, line.length());
+      line.setLength(0);
+      pos = newline + 1;
+    }
+
+    // Only lines holding "///" can be markers; the lines between them are copied in bulk
+    int lastNewline = text.lastIndexOf('\n');
+    while (pos <= lastNewline) {
+      int marker = text.indexOf("///", pos);
+      if (marker == -1 || marker > lastNewline) {
+        appendContent(text, pos, lastNewline + 1);
+        pos = lastNewline + 1;
+        break;
+      }
+      int lineStart = text.lastIndexOf('\n', marker) + 1;
+      int lineEnd = text.indexOf('\n', marker);
+      appendContent(text, pos, lineStart);
+      endOfLine(text, lineStart, lineEnd);
+      pos = lineEnd + 1;
+    }
+    line.append(text, pos, text.length());
+  }
+
+  /** Ends the output, emitting a block that is still open as incomplete. */
+  public void finish() {
+    if (line.length() > 0) {
+      endOfLine(line.toString(), 0, line.length());
+      line.setLength(0);
+    }
+    if (name != null) {
+      emit(false);
+    }
+  }
+
+  /** Number of START FILE markers seen so far. */
+  public int blockCount() {
+    return blocks;
+  }
+
+  // One line of text[from, to), without its newline
+  private void endOfLine(String text, int from, int to) {
+    int markerStart = from;
+    while (markerStart < to && Character.isWhitespace(text.charAt(markerStart))) {
+      markerStart++;
+    }
+    if (to - markerStart > START_MARKER.length() && text.startsWith(START_MARKER, markerStart)) {
+      if (name != null) {
+        emit(false);
+      }
+      String fileName = text.substring(markerStart + START_MARKER.length(), to).trim();
+      if (!fileName.isEmpty()) {
+        blocks++;
+        name = fileName;
+      }
+    } else if (name != null) {
+      int end = indexOf(text, END_MARKER, from, to);
+      if (end != -1) {
+        content.append(text, from, end);
+        emit(true);
+      } else {
+        content.append(text, from, to).append('\n');
+      }
+    }
+  }
+
+  // Searches text[from, to) only, so a line never triggers a scan of the rest of the output
+  private static int indexOf(String text, String marker, int from, int to) {
+    for (int i = from; i + marker.length() <= to; i++) {
+      if (text.charAt(i) == '/' && text.startsWith(marker, i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void appendContent(String text, int from, int to) {
+    if (name != null) {
+      content.append(text, from, to);
+    }
+  }
+
+  private void emit(boolean complete) {
+    // Same bounds as String.trim, without the intermediate copy
+    int start = 0;
+    int end = content.length();
+    while (start < end && content.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && content.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    FileBlock block = new FileBlock(name, content.substring(start, end), complete);
+    name = null;
+    content.setLength(0);
+    onFile.accept(block);
+  }
+}
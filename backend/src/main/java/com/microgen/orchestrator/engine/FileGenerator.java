@@ -0,0 +1,37 @@
+package com.microgen.orchestrator.engine;
+
+import com.microgen.orchestrator.model.IntentModel;
+
+import java.util.Set;
+
+/**
+ * One family of artifacts that depend only on the parsed intent (auth,
+ * persistence, container, ...). Every FileGenerator bean is picked up by
+ * {@link CodeGenerationEngine}. Generators may render in parallel; one that names
+ * others in {@link #dependsOn()} starts only after they have written their
+ * files, may read those files from the tree, and wins if both write the same
+ * path.
+ */
+public interface FileGenerator {
+
+  /** Unique name other generators refer to in {@link #dependsOn()}. */
+  String name();
+
+  default Set<String> dependsOn() {
+    return Set.of();
+  }
+
+  boolean appliesTo(IntentModel intent);
+
+  /**
+   * Writes this family's files. For large intents this is called on a ForkJoin
+   * worker, so per-item work handed to {@link FileTree#renderEach} is split
+   * across the pool.
+   */
+  void generate(IntentModel intent, FileTree files);
+
+  /** {@code src/main/java/} plus the base package as a directory, with a trailing slash. */
+  static String packagePath(IntentModel intent) {
+    return "src/main/java/" + intent.getPackageName().replace('.', '/') + "/";
+  }
+}
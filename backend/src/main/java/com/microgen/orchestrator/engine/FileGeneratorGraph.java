@@ -0,0 +1,138 @@
+package com.microgen.orchestrator.engine;
+
+import com.microgen.orchestrator.model.IntentModel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The registered {@link FileGenerator}s in dependency order, checked once at
+ * startup. Rendering starts every generator as soon as the ones it depends on
+ * are done, so independent families run side by side on the pool.
+ *
+ * Below {@code sequentialBelow} entities the handoff to the pool costs more
+ * than it saves, so small intents render one generator after another on the
+ * calling thread. Either way an interrupt of the calling thread stops the
+ * render before the next generator starts and throws
+ * {@link CancellationException}.
+ */
+final class FileGeneratorGraph {
+
+  private final List<FileGenerator> generators;
+  private final ForkJoinPool pool;
+  private final int sequentialBelow;
+
+  FileGeneratorGraph(List<FileGenerator> generators, ForkJoinPool pool, int sequentialBelow) {
+    this.generators = inDependencyOrder(generators);
+    this.pool = pool;
+    this.sequentialBelow = sequentialBelow;
+  }
+
+  FileTree render(IntentModel intent) {
+    int entities = intent.getEntities() == null ? 0 : intent.getEntities().size();
+    return entities < sequentialBelow ? renderSequentially(intent) : renderOnPool(intent);
+  }
+
+  private FileTree renderSequentially(IntentModel intent) {
+    FileTree files = new FileTree();
+    for (FileGenerator generator : generators) {
+      if (Thread.interrupted()) {
+        throw cancelled();
+      }
+      if (generator.appliesTo(intent)) {
+        generator.generate(intent, files);
+      }
+    }
+    return files;
+  }
+
+  private FileTree renderOnPool(IntentModel intent) {
+    FileTree files = new FileTree();
+    Map<String, CompletableFuture<Void>> done = new HashMap<>();
+    for (FileGenerator generator : generators) {
+      CompletableFuture<?>[] dependencies = generator.dependsOn().stream()
+          .map(done::get)
+          .toArray(CompletableFuture[]::new);
+      done.put(generator.name(), CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+        if (generator.appliesTo(intent)) {
+          generator.generate(intent, files);
+        }
+      }, pool));
+    }
+
+    CompletableFuture<Void> all = CompletableFuture.allOf(done.values().toArray(CompletableFuture[]::new));
+    try {
+      // Unlike join(), get() wakes up on interrupt; cancelled stages that have not started never run
+      all.get();
+    } catch (InterruptedException e) {
+      done.values().forEach(stage -> stage.cancel(false));
+      throw cancelled();
+    } catch (ExecutionException e) {
+      // Surface what the generator threw, as if it had run on the caller's thread
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+    return files;
+  }
+
+  // Keeps the interrupt for the caller, which is unwinding a cancelled job
+  private static CancellationException cancelled() {
+    Thread.currentThread().interrupt();
+    return new CancellationException("Scaffold rendering interrupted");
+  }
+
+  List<String> names() {
+    return generators.stream().map(FileGenerator::name).toList();
+  }
+
+  // Registration order is kept wherever dependencies allow
+  private static List<FileGenerator> inDependencyOrder(List<FileGenerator> generators) {
+    Map<String, FileGenerator> byName = new LinkedHashMap<>();
+    for (FileGenerator generator : generators) {
+      if (byName.putIfAbsent(generator.name(), generator) != null) {
+        throw new IllegalStateException("Duplicate file generator name: " + generator.name());
+      }
+    }
+    for (FileGenerator generator : generators) {
+      for (String dependency : generator.dependsOn()) {
+        if (!byName.containsKey(dependency)) {
+          throw new IllegalStateException(
+              "File generator " + generator.name() + " depends on unknown generator " + dependency);
+        }
+      }
+    }
+
+    List<FileGenerator> ordered = new ArrayList<>();
+    Set<String> placed = new LinkedHashSet<>();
+    while (ordered.size() < byName.size()) {
+      boolean progress = false;
+      for (FileGenerator generator : byName.values()) {
+        if (!placed.contains(generator.name()) && placed.containsAll(generator.dependsOn())) {
+          ordered.add(generator);
+          placed.add(generator.name());
+          progress = true;
+        }
+      }
+      if (!progress) {
+        Set<String> remaining = new LinkedHashSet<>(byName.keySet());
+        remaining.removeAll(placed);
+        throw new IllegalStateException("File generators depend on each other in a cycle: " + remaining);
+      }
+    }
+    return ordered;
+  }
+}
@@ -0,0 +1,45 @@
+package com.microgen.orchestrator.engine;
+
+import java.util.Collection;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Generated files by path, written concurrently by {@link FileGenerator}s.
+ * Iteration is always in path order, so the result does not depend on which
+ * task finished first.
+ */
+public final class FileTree {
+
+  private final ConcurrentSkipListMap<String, String> files = new ConcurrentSkipListMap<>();
+
+  public void put(String path, String content) {
+    files.put(path, content);
+  }
+
+  public String get(String path) {
+    return files.get(path);
+  }
+
+  /**
+   * Runs {@code render} for every item. On a ForkJoin worker each item becomes
+   * its own task, so hundreds of entities spread over the pool; elsewhere the
+   * items are rendered one after another.
+   */
+  public <T> void renderEach(Collection<T> items, Consumer<? super T> render) {
+    if (items.size() < 2 || !ForkJoinTask.inForkJoinPool()) {
+      items.forEach(render);
+      return;
+    }
+    ForkJoinTask.invokeAll(items.stream()
+        .map(item -> ForkJoinTask.adapt(() -> render.accept(item)))
+        .toList());
+  }
+
+  /** Live view in path order. */
+  public NavigableMap<String, String> asMap() {
+    return files;
+  }
+}
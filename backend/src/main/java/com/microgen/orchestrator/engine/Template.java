@@ -0,0 +1,135 @@
+package com.microgen.orchestrator.engine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A text template compiled once into alternating literal and placeholder
+ * segments. Placeholders are written {@code {{name}}} with a name of letters
+ * and digits; anything else between double braces (a GitHub Actions
+ * {@code ${{ secrets.TOKEN }}}, say) stays literal text.
+ * <p>
+ * Rendering looks every distinct value up once, sizes the output exactly and
+ * copies the segments in order. There is no format string to parse per call,
+ * unlike {@code String.formatted}. Values are converted with
+ * {@link String#valueOf(Object)}, so null renders as "null" like {@code %s}
+ * did. A missing value is an error.
+ */
+public final class Template {
+
+  private final String id;
+  private final List<String> parameters;
+  // literals[i] comes before the value of slots[i]; the last literal closes the template
+  private final String[] literals;
+  private final int[] slots;
+  private final int literalLength;
+
+  private Template(String id, List<String> parameters, String[] literals, int[] slots) {
+    this.id = id;
+    this.parameters = List.copyOf(parameters);
+    this.literals = literals;
+    this.slots = slots;
+    int length = 0;
+    for (String literal : literals) {
+      length += literal.length();
+    }
+    this.literalLength = length;
+  }
+
+  static Template compile(String id, String source) {
+    List<String> parameters = new ArrayList<>();
+    List<String> literals = new ArrayList<>();
+    List<Integer> slots = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
+
+    int pos = 0;
+    while (pos < source.length()) {
+      int open = source.indexOf("{{", pos);
+      int close = open == -1 ? -1 : source.indexOf("}}", open + 2);
+      if (close == -1) {
+        literal.append(source, pos, source.length());
+        break;
+      }
+      String name = source.substring(open + 2, close);
+      if (!isParameterName(name)) {
+        literal.append(source, pos, open + 2);
+        pos = open + 2;
+        continue;
+      }
+      literal.append(source, pos, open);
+      literals.add(literal.toString());
+      literal.setLength(0);
+      int slot = parameters.indexOf(name);
+      if (slot == -1) {
+        slot = parameters.size();
+        parameters.add(name);
+      }
+      slots.add(slot);
+      pos = close + 2;
+    }
+    literals.add(literal.toString());
+
+    return new Template(id, parameters, literals.toArray(String[]::new),
+        slots.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  /** Placeholder names in order of first appearance. */
+  public List<String> getParameters() {
+    return parameters;
+  }
+
+  public String render(Map<String, ?> values) {
+    String[] resolved = resolve(values);
+    int length = literalLength;
+    for (int slot : slots) {
+      length += resolved[slot].length();
+    }
+    StringBuilder out = new StringBuilder(length);
+    for (int i = 0; i < slots.length; i++) {
+      out.append(literals[i]).append(resolved[slots[i]]);
+    }
+    return out.append(literals[slots.length]).toString();
+  }
+
+  /** Renders straight into {@code out}, without building the text in memory first. */
+  public void writeTo(Writer out, Map<String, ?> values) throws IOException {
+    String[] resolved = resolve(values);
+    for (int i = 0; i < slots.length; i++) {
+      out.write(literals[i]);
+      out.write(resolved[slots[i]]);
+    }
+    out.write(literals[slots.length]);
+  }
+
+  private String[] resolve(Map<String, ?> values) {
+    String[] resolved = new String[parameters.size()];
+    for (int i = 0; i < resolved.length; i++) {
+      String name = parameters.get(i);
+      Object value = values.get(name);
+      if (value == null && !values.containsKey(name)) {
+        throw new IllegalArgumentException("Template '" + id + "' needs a value for '" + name + "'");
+      }
+      resolved[i] = String.valueOf(value);
+    }
+    return resolved;
+  }
+
+  private static boolean isParameterName(String name) {
+    if (name.isEmpty() || !Character.isLetter(name.charAt(0))) {
+      return false;
+    }
+    for (int i = 1; i < name.length(); i++) {
+      if (!Character.isLetterOrDigit(name.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
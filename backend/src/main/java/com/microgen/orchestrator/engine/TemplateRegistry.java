@@ -0,0 +1,71 @@
+package com.microgen.orchestrator.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The artifact templates under {@code artifact-templates/} on the classpath,
+ * each compiled once into a {@link Template} and looked up by artifact id (the
+ * file name without {@code .tmpl}). {@link #standard()} loads them on first
+ * use; {@link CodeGenerationEngine} touches it when the context starts, so a
+ * missing or broken template fails startup instead of a generation.
+ */
+public final class TemplateRegistry {
+
+  private static final String LOCATION = "artifact-templates/";
+
+  private static final List<String> ARTIFACTS = List.of(
+      "pom", "application-main", "application-yml", "fallback-service",
+      "security-config", "jwt-utils", "auth-controller", "auth-request", "oauth2-security-config",
+      "jpa-entity", "jpa-repository", "mybatis-user", "mybatis-user-mapper", "schema-sql",
+      "crud-request", "crud-response", "crud-mapper", "crud-service", "crud-controller",
+      "crud-not-found-exception", "crud-exception-handler",
+      "dockerfile", "docker-compose", "docker-compose-db", "compose-env-mysql", "compose-env-postgresql",
+      "ci-workflow");
+
+  private static final class Standard {
+    private static final TemplateRegistry INSTANCE = load(ARTIFACTS);
+  }
+
+  private final Map<String, Template> templates;
+
+  private TemplateRegistry(Map<String, Template> templates) {
+    this.templates = templates;
+  }
+
+  public static TemplateRegistry standard() {
+    return Standard.INSTANCE;
+  }
+
+  static TemplateRegistry load(List<String> ids) {
+    Map<String, Template> templates = new LinkedHashMap<>();
+    ClassLoader classLoader = TemplateRegistry.class.getClassLoader();
+    for (String id : ids) {
+      try (InputStream in = classLoader.getResourceAsStream(LOCATION + id + ".tmpl")) {
+        if (in == null) {
+          throw new IllegalStateException("Missing artifact template " + LOCATION + id + ".tmpl");
+        }
+        templates.put(id, Template.compile(id, new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to read artifact template " + id, e);
+      }
+    }
+    return new TemplateRegistry(Map.copyOf(templates));
+  }
+
+  public Template get(String id) {
+    Template template = templates.get(id);
+    if (template == null) {
+      throw new IllegalArgumentException("Unknown artifact template: " + id);
+    }
+    return template;
+  }
+
+  public String render(String id, Map<String, ?> values) {
+    return get(id).render(values);
+  }
+}
@@ -0,0 +1,58 @@
+package com.microgen.orchestrator.engine.generator;
+
+import com.microgen.orchestrator.engine.FileGenerator;
+import com.microgen.orchestrator.engine.FileTree;
+import com.microgen.orchestrator.engine.TemplateRegistry;
+import com.microgen.orchestrator.model.IntentModel;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** Application.java and application.yml, wired to the chosen database. */
+@Component
+public class ApplicationFileGenerator implements FileGenerator {
+
+  private final TemplateRegistry templates = TemplateRegistry.standard();
+
+  @Override
+  public String name() {
+    return "application";
+  }
+
+  @Override
+  public boolean appliesTo(IntentModel intent) {
+    return true;
+  }
+
+  @Override
+  public void generate(IntentModel intent, FileTree files) {
+    files.put(FileGenerator.packagePath(intent) + "Application.java",
+        templates.render("application-main", Map.of("packageName", intent.getPackageName())));
+    files.put("src/main/resources/application.yml", generateApplicationYml(intent));
+  }
+
+  private String generateApplicationYml(IntentModel intent) {
+    String dbUrl = "";
+    String dbDriver = "";
+    String dbUser = "sa";
+    String dbPass = "password";
+
+    if (intent.getDatabase().equalsIgnoreCase("MYSQL")) {
+      dbUrl = "jdbc:mysql://db:3306/" + intent.getServiceName().replace("-", "_");
+      dbDriver = "com.mysql.cj.jdbc.Driver";
+      dbUser = "root";
+      dbPass = "root";
+    } else if (intent.getDatabase().equalsIgnoreCase("POSTGRESQL")) {
+      dbUrl = "jdbc:postgresql://db:5432/" + intent.getServiceName().replace("-", "_");
+      dbDriver = "org.postgresql.Driver";
+      dbUser = "postgres";
+      dbPass = "postgres";
+    } else {
+      dbUrl = "jdbc:h2:mem:" + intent.getServiceName().replace("-", "_");
+      dbDriver = "org.h2.Driver";
+    }
+
+    return templates.render("application-yml", Map.of("port", intent.getPort(), "serviceName",
+        intent.getServiceName(), "dbUrl", dbUrl, "dbDriver", dbDriver, "dbUser", dbUser, "dbPass", dbPass));
+  }
+}
@@ -0,0 +1,42 @@
+package com.microgen.orchestrator.engine.generator;
+
+import com.microgen.orchestrator.engine.FileGenerator;
+import com.microgen.orchestrator.engine.FileTree;
+import com.microgen.orchestrator.engine.TemplateRegistry;
+import com.microgen.orchestrator.model.IntentModel;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** Security configuration, plus the login endpoint and token utilities for JWT. */
+@Component
+public class AuthFileGenerator implements FileGenerator {
+
+  private final TemplateRegistry templates = TemplateRegistry.standard();
+
+  @Override
+  public String name() {
+    return "auth";
+  }
+
+  @Override
+  public boolean appliesTo(IntentModel intent) {
+    return "JWT".equalsIgnoreCase(intent.getAuth()) || "OAUTH2".equalsIgnoreCase(intent.getAuth());
+  }
+
+  @Override
+  public void generate(IntentModel intent, FileTree files) {
+    String packagePath = FileGenerator.packagePath(intent);
+    Map<String, String> values = Map.of("packageName", intent.getPackageName());
+
+    if ("JWT".equalsIgnoreCase(intent.getAuth())) {
+      files.put(packagePath + "security/SecurityConfig.java", templates.render("security-config", values));
+      files.put(packagePath + "security/JwtUtils.java", templates.render("jwt-utils", values));
+      files.put(packagePath + "controller/AuthController.java", templates.render("auth-controller", values));
+      files.put(packagePath + "model/AuthRequest.java", templates.render("auth-request", values));
+    } else {
+      files.put(packagePath + "security/OAuth2SecurityConfig.java",
+          templates.render("oauth2-security-config", values));
+    }
+  }
+}
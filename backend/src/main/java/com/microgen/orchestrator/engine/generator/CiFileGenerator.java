@@ -0,0 +1,31 @@
+package com.microgen.orchestrator.engine.generator;
+
+import com.microgen.orchestrator.engine.FileGenerator;
+import com.microgen.orchestrator.engine.FileTree;
+import com.microgen.orchestrator.engine.TemplateRegistry;
+import com.microgen.orchestrator.model.IntentModel;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** GitHub Actions workflow that builds the project with Maven. */
+@Component
+public class CiFileGenerator implements FileGenerator {
+
+  private final TemplateRegistry templates = TemplateRegistry.standard();
+
+  @Override
+  public String name() {
+    return "ci";
+  }
+
+  @Override
+  public boolean appliesTo(IntentModel intent) {
+    return true;
+  }
+
+  @Override
+  public void generate(IntentModel intent, FileTree files) {
+    files.put(".github/workflows/ci.yml", templates.render("ci-workflow", Map.of()));
+  }
+}
@@ -0,0 +1,45 @@
+package com.microgen.orchestrator.engine.generator;
+
+import com.microgen.orchestrator.engine.FileGenerator;
+import com.microgen.orchestrator.engine.FileTree;
+import com.microgen.orchestrator.engine.TemplateRegistry;
+import com.microgen.orchestrator.model.IntentModel;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** Dockerfile and docker-compose.yml, with a database service unless H2 is used. */
+@Component
+public class ContainerFileGenerator implements FileGenerator {
+
+  private final TemplateRegistry templates = TemplateRegistry.standard();
+
+  @Override
+  public String name() {
+    return "container";
+  }
+
+  @Override
+  public boolean appliesTo(IntentModel intent) {
+    return true;
+  }
+
+  @Override
+  public void generate(IntentModel intent, FileTree files) {
+    files.put("Dockerfile", templates.render("dockerfile", Map.of()));
+    files.put("docker-compose.yml", generateDockerCompose(intent));
+  }
+
+  private String generateDockerCompose(IntentModel intent) {
+    String dbName = intent.getServiceName().replace("-", "_");
+
+    if (intent.getDatabase().equalsIgnoreCase("MYSQL")) {
+      return templates.render("docker-compose-db", Map.of("port", intent.getPort(), "dbImage", "mysql:8.0",
+          "environment", templates.render("compose-env-mysql", Map.of("dbName", dbName))));
+    } else if (intent.getDatabase().equalsIgnoreCase("POSTGRESQL")) {
+      return templates.render("docker-compose-db", Map.of("port", intent.getPort(), "dbImage", "postgres:15-alpine",
+          "environment", templates.render("compose-env-postgresql", Map.of("dbName", dbName))));
+    }
+    return templates.render("docker-compose", Map.of("port", intent.getPort()));
+  }
+}
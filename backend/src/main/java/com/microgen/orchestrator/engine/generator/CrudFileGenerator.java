@@ -0,0 +1,95 @@
+package com.microgen.orchestrator.engine.generator;
+
+import com.microgen.orchestrator.engine.FileGenerator;
+import com.microgen.orchestrator.engine.FileTree;
+import com.microgen.orchestrator.engine.TemplateRegistry;
+import com.microgen.orchestrator.model.EntityModel;
+import com.microgen.orchestrator.model.IntentModel;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The CRUD stack on top of each JPA entity and repository: request and
+ * response DTOs, a mapper, a transactional service and a paged REST controller
+ * under {@code /api/<entity>s}, plus one exception handler for the service.
+ * When this applies, PromptOrchestrationService lists {@link #classNames} in
+ * the business-logic prompt so the LLM only writes what goes beyond plain
+ * CRUD, and the fan-out planner leaves them out of its plan. It reads nothing
+ * the entity and persistence generators write and none of its paths collide
+ * with theirs, so it renders alongside them rather than after.
+ */
+@Component
+public class CrudFileGenerator implements FileGenerator {
+
+  /** Java files written once per service whenever there is at least one entity. */
+  public static final List<String> SHARED_CLASS_NAMES = List.of("exception/ResourceNotFoundException.java",
+      "exception/GlobalExceptionHandler.java");
+
+  private final TemplateRegistry templates = TemplateRegistry.standard();
+
+  /** Java files this generator writes for one entity, by sub-package. */
+  public static List<String> classNames(EntityModel entity) {
+    String name = entity.getName();
+    return List.of("model/" + name + "Request.java", "model/" + name + "Response.java",
+        "mapper/" + name + "Mapper.java", "service/" + name + "Service.java",
+        "controller/" + name + "Controller.java");
+  }
+
+  @Override
+  public String name() {
+    return "crud";
+  }
+
+  /** Whether the CRUD layer is rendered for this intent, i.e. it uses JPA and names entities. */
+  public static boolean generatesCrud(IntentModel intent) {
+    return "JPA".equalsIgnoreCase(intent.getPersistence()) && intent.getEntities() != null
+        && !intent.getEntities().isEmpty();
+  }
+
+  @Override
+  public boolean appliesTo(IntentModel intent) {
+    return generatesCrud(intent);
+  }
+
+  @Override
+  public void generate(IntentModel intent, FileTree files) {
+    String packagePath = FileGenerator.packagePath(intent);
+    Map<String, String> shared = Map.of("packageName", intent.getPackageName());
+    files.put(packagePath + SHARED_CLASS_NAMES.get(0), templates.render("crud-not-found-exception", shared));
+    files.put(packagePath + SHARED_CLASS_NAMES.get(1), templates.render("crud-exception-handler", shared));
+
+    files.renderEach(intent.getEntities(), entity -> generateEntityLayer(intent, entity, packagePath, files));
+  }
+
+  private void generateEntityLayer(IntentModel intent, EntityModel entity, String packagePath, FileTree files) {
+    StringBuilder fields = new StringBuilder();
+    StringBuilder copyToEntity = new StringBuilder();
+    StringBuilder copyToResponse = new StringBuilder();
+    for (EntityModel.FieldModel field : entity.getFields()) {
+      // The entity template declares the id itself
+      if (field.getName().equalsIgnoreCase("id")) {
+        continue;
+      }
+      String property = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+      // Lombok names the getter of a primitive boolean isX
+      String getter = ("boolean".equals(field.getType()) ? "is" : "get") + property + "()";
+      fields.append("    private ").append(field.getType()).append(' ').append(field.getName()).append(";\n");
+      copyToEntity.append("        entity.set").append(property).append("(request.").append(getter).append(");\n");
+      copyToResponse.append("        response.set").append(property).append("(entity.").append(getter)
+          .append(");\n");
+    }
+
+    String name = entity.getName();
+    Map<String, String> values = Map.of("packageName", intent.getPackageName(), "entityName", name,
+        "resourcePath", name.toLowerCase() + "s", "fields", fields.toString(),
+        "copyToEntity", copyToEntity.toString(), "copyToResponse", copyToResponse.toString());
+    List<String> paths = classNames(entity);
+    files.put(packagePath + paths.get(0), templates.render("crud-request", values));
+    files.put(packagePath + paths.get(1), templates.render("crud-response", values));
+    files.put(packagePath + paths.get(2), templates.render("crud-mapper", values));
+    files.put(packagePath + paths.get(3), templates.render("crud-service", values));
+    files.put(packagePath + paths.get(4), templates.render("crud-controller", values));
+  }
+}
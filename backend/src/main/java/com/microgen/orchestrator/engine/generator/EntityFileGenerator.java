@@ -0,0 +1,43 @@
+package com.microgen.orchestrator.engine.generator;
+
+import com.microgen.orchestrator.engine.FileGenerator;
+import com.microgen.orchestrator.engine.FileTree;
+import com.microgen.orchestrator.engine.TemplateRegistry;
+import com.microgen.orchestrator.model.EntityModel;
+import com.microgen.orchestrator.model.IntentModel;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** One JPA entity class per {@link EntityModel}, rendered in parallel. */
+@Component
+public class EntityFileGenerator implements FileGenerator {
+
+  private final TemplateRegistry templates = TemplateRegistry.standard();
+
+  @Override
+  public String name() {
+    return "entity";
+  }
+
+  @Override
+  public boolean appliesTo(IntentModel intent) {
+    return "JPA".equalsIgnoreCase(intent.getPersistence()) && intent.getEntities() != null;
+  }
+
+  @Override
+  public void generate(IntentModel intent, FileTree files) {
+    String packagePath = FileGenerator.packagePath(intent);
+    files.renderEach(intent.getEntities(), entity -> files.put(packagePath + "model/" + entity.getName() + ".java",
+        generateJpaEntity(intent, entity)));
+  }
+
+  private String generateJpaEntity(IntentModel intent, EntityModel entity) {
+    StringBuilder fields = new StringBuilder();
+    for (EntityModel.FieldModel field : entity.getFields()) {
+      fields.append("    private ").append(field.getType()).append(' ').append(field.getName()).append(";\n");
+    }
+    return templates.render("jpa-entity", Map.of("packageName", intent.getPackageName(), "tableName",
+        entity.getName().toLowerCase() + "s", "entityName", entity.getName(), "fields", fields.toString()));
+  }
+}
@@ -0,0 +1,47 @@
+package com.microgen.orchestrator.engine.generator;
+
+import com.microgen.orchestrator.engine.FileGenerator;
+import com.microgen.orchestrator.engine.FileTree;
+import com.microgen.orchestrator.engine.TemplateRegistry;
+import com.microgen.orchestrator.model.IntentModel;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Data access: a Spring Data repository per entity for JPA, or the fixed
+ * User mapper and schema for MyBatis.
+ */
+@Component
+public class PersistenceFileGenerator implements FileGenerator {
+
+  private final TemplateRegistry templates = TemplateRegistry.standard();
+
+  @Override
+  public String name() {
+    return "persistence";
+  }
+
+  @Override
+  public boolean appliesTo(IntentModel intent) {
+    return ("JPA".equalsIgnoreCase(intent.getPersistence()) && intent.getEntities() != null)
+        || "MYBATIS".equalsIgnoreCase(intent.getPersistence());
+  }
+
+  @Override
+  public void generate(IntentModel intent, FileTree files) {
+    String packagePath = FileGenerator.packagePath(intent);
+
+    if ("JPA".equalsIgnoreCase(intent.getPersistence())) {
+      files.renderEach(intent.getEntities(), entity -> files.put(
+          packagePath + "repository/" + entity.getName() + "Repository.java",
+          templates.render("jpa-repository",
+              Map.of("packageName", intent.getPackageName(), "entityName", entity.getName()))));
+    } else {
+      Map<String, String> values = Map.of("packageName", intent.getPackageName());
+      files.put(packagePath + "model/User.java", templates.render("mybatis-user", values));
+      files.put(packagePath + "mapper/UserMapper.java", templates.render("mybatis-user-mapper", values));
+      files.put("src/main/resources/schema.sql", templates.render("schema-sql", Map.of()));
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.microgen.orchestrator.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+public class GenerationBatch {
+    private String id = UUID.randomUUID().toString();
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private List<String> jobIds;
+
+    public GenerationBatch(List<String> jobIds) {
+        this.jobIds = jobIds;
+    }
+}
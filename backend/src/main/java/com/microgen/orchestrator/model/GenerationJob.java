@@ -1,24 +1,44 @@
 package com.microgen.orchestrator.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Data
 @NoArgsConstructor
 public class GenerationJob {
+    private static final Set<String> TERMINAL_STATUSES = Set.of("COMPLETED", "FAILED", "FAILED_GOVERNANCE",
+            "CANCELLED", "TIMED_OUT");
+
     private String id = UUID.randomUUID().toString();
     private String prompt;
     private String serviceName;
-    private String status; // PENDING, COMPLETED, FAILED, FAILED_GOVERNANCE
+    // PENDING, PARSING, GENERATING, ASSEMBLING, SCANNING, COMPLETED, FAILED, FAILED_GOVERNANCE,
+    // CANCELLED, TIMED_OUT
+    // Volatile because async jobs are advanced on a worker thread while /api/status polls it
+    private volatile String status;
     private LocalDateTime createdAt = LocalDateTime.now();
+    // Set at submission; the job is aborted as TIMED_OUT once it passes
+    private LocalDateTime deadline;
     private Map<String, String> generatedFiles;
+    // Latest content of each file streamed to SSE subscribers while the job runs, for late subscribers;
+    // emptied once it finishes
+    @JsonIgnore
+    private final Map<String, String> publishedFiles = new ConcurrentHashMap<>();
     private String error;
 
     public GenerationJob(String prompt) {
         this.prompt = prompt;
         this.status = "PENDING";
     }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return TERMINAL_STATUSES.contains(status);
+    }
 }
@@ -0,0 +1,21 @@
+package com.microgen.orchestrator.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the {@link GenerationScheduler} refuses new work because the
+ * queue is full or the expected wait is over the configured threshold.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
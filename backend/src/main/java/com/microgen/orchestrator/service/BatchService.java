@@ -0,0 +1,142 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.engine.ZipUtility;
+import com.microgen.orchestrator.model.GenerationBatch;
+import com.microgen.orchestrator.model.GenerationJob;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs many prompts as one batch.
+ *
+ * Jobs are fed to the {@link GenerationScheduler} through a concurrency
+ * window of {@code generation.batch.pipeline-depth} jobs: a new job is
+ * submitted whenever an earlier one finishes, so a batch never holds more than
+ * that many jobs in the queue or running, instead of either running strictly
+ * one after another or flooding the queue. Jobs in the window run their stages
+ * independently; nothing staggers them. A batch is background work, so
+ * admission rejections are waited out rather than failing the remaining jobs.
+ *
+ * Batches are kept in memory only, capped at the 1000 most recently used, and
+ * are lost on restart; their jobs survive in the repository.
+ */
+@Service
+public class BatchService {
+
+    private final PromptOrchestrationService orchestrationService;
+    private final GenerationScheduler scheduler;
+    private final GenerationJobExecutor jobExecutor;
+
+    private final int pipelineDepth;
+    private final int maxPrompts;
+
+    // Batch -> job ids only; the jobs themselves live in the job store and repository
+    private final Map<String, GenerationBatch> batches = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, GenerationBatch> eldest) {
+                    return size() > 1000;
+                }
+            });
+
+    public BatchService(PromptOrchestrationService orchestrationService, GenerationScheduler scheduler,
+            GenerationJobExecutor jobExecutor,
+            @Value("${generation.batch.pipeline-depth:3}") int pipelineDepth,
+            @Value("${generation.batch.max-prompts:50}") int maxPrompts) {
+        this.orchestrationService = orchestrationService;
+        this.scheduler = scheduler;
+        this.jobExecutor = jobExecutor;
+        this.pipelineDepth = pipelineDepth;
+        this.maxPrompts = maxPrompts;
+    }
+
+    public GenerationBatch submitBatch(List<String> prompts, String clientKey) {
+        if (prompts == null || prompts.isEmpty()) {
+            throw new IllegalArgumentException("A batch needs at least one prompt");
+        }
+        if (prompts.size() > maxPrompts) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxPrompts + " prompts");
+        }
+
+        List<String> jobIds = new ArrayList<>();
+        for (String prompt : prompts) {
+            jobIds.add(orchestrationService.createJob(prompt).getId());
+        }
+        GenerationBatch batch = new GenerationBatch(jobIds);
+        batches.put(batch.getId(), batch);
+
+        jobExecutor.fork(() -> {
+            drive(batch, clientKey);
+            return null;
+        });
+        return batch;
+    }
+
+    public GenerationBatch getBatch(String batchId) {
+        return batches.get(batchId);
+    }
+
+    public List<GenerationJob> getJobs(GenerationBatch batch) {
+        List<GenerationJob> jobs = new ArrayList<>();
+        for (String jobId : batch.getJobIds()) {
+            GenerationJob job = orchestrationService.getJob(jobId);
+            if (job != null) {
+                jobs.add(job);
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * One zip with a top-level folder per successfully generated service. Jobs
+     * without files (failed or still running) are left out.
+     */
+    public byte[] getBatchZip(GenerationBatch batch) throws Exception {
+        Map<String, String> combined = new LinkedHashMap<>();
+        Set<String> folders = new HashSet<>();
+        for (GenerationJob job : getJobs(batch)) {
+            if (job.getGeneratedFiles() == null) {
+                continue;
+            }
+            String folder = job.getServiceName() != null ? job.getServiceName() : "microservice";
+            if (!folders.add(folder)) {
+                folder = folder + "-" + job.getId().substring(0, 8);
+                folders.add(folder);
+            }
+            for (Map.Entry<String, String> file : job.getGeneratedFiles().entrySet()) {
+                combined.put(folder + "/" + file.getKey(), file.getValue());
+            }
+        }
+        return ZipUtility.createZip(combined);
+    }
+
+    private void drive(GenerationBatch batch, String clientKey) throws InterruptedException {
+        Semaphore window = new Semaphore(pipelineDepth);
+        for (String jobId : batch.getJobIds()) {
+            window.acquire();
+            submitWhenAdmitted(jobId, clientKey).whenComplete((job, error) -> window.release());
+        }
+    }
+
+    private CompletableFuture<GenerationJob> submitWhenAdmitted(String jobId, String clientKey)
+            throws InterruptedException {
+        orchestrationService.armDeadline(jobId, null);
+        while (true) {
+            try {
+                return scheduler.submit(clientKey, () -> orchestrationService.processJob(jobId));
+            } catch (AdmissionRejectedException e) {
+                Thread.sleep(e.getRetryAfter().toMillis());
+            }
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.microgen.orchestrator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microgen.orchestrator.adapter.LlmClient;
+import com.microgen.orchestrator.engine.generator.CrudFileGenerator;
+import com.microgen.orchestrator.model.EntityModel;
+import com.microgen.orchestrator.model.IntentModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Fan-out mode of the business-logic stage. One short call plans the file
+ * list and the Maven dependencies; the files are then grouped by layer
+ * (controller, service, model, ...) and each group of at most
+ * {@code generation.fanout.max-files-per-call} files is written by its own LLM
+ * call, all in parallel. Every call sees the whole
+ * plan so classes written in parallel agree on names. The group outputs keep
+ * the {@code /// START FILE} format and are concatenated behind the planned
+ * dependency array, so {@code CodeGenerationEngine} assembles them, pom.xml
+ * included, exactly like a single response.
+ */
+@Service
+@RequiredArgsConstructor
+public class FanOutGenerationService {
+
+    /** One planned file. */
+    record PlannedFile(String file, String layer, String description) {
+    }
+
+    /** The planned files and the dependency JSON array for the pom, "" when none was planned. */
+    record Plan(List<PlannedFile> files, String dependencies) {
+    }
+
+    private static final List<String> LAYERS = List.of("model", "repository", "service", "controller",
+            "config", "exception");
+
+    // Provided by the scaffold or the engine, never planned
+    private static final Set<String> SCAFFOLD_FILES = Set.of("pom.xml", "application.yml", "application.properties",
+            "Application.java", "Dockerfile", "docker-compose.yml", "docker-compose.yaml");
+
+    private static final String PLAN_SYSTEM_PROMPT = """
+            You are a software architect planning a Spring Boot 3.x microservice.
+
+            List every Java source file the service needs: controllers, services, repositories,
+            DTOs/entities, configuration classes and exception handlers.
+            Do NOT list pom.xml, application.yml, the Application main class or a Dockerfile.
+            Do NOT list classes the requirements say are already generated.
+            Also list the Maven dependencies those files need (versions only outside the Spring Boot BOM).
+
+            CRITICAL: Return ONLY this JSON, no explanations, no markdown:
+            {"dependencies": [{"groupId": "org.springframework.boot", "artifactId": "spring-boot-starter-web"}],
+             "files": [{"file": "OrderController.java", "layer": "controller", "description": "REST endpoints for orders"}]}
+
+            "layer" is one of: controller, service, repository, model, config, exception.
+            """;
+
+    private static final String GROUP_SYSTEM_PROMPT = """
+            You are a Senior Backend Engineer writing part of a Spring Boot 3.x microservice.
+            Other engineers write the remaining files of the plan at the same time, so use exactly the
+            class names from the plan when you refer to them.
+
+            Write ONLY the files assigned to you, complete and compilable, in this EXACT format:
+
+            /// START FILE: FileName.java
+            package ...;
+            // Complete implementation
+            /// END FILE
+
+            Code Quality Standards:
+            - Spring Boot 3.x best practices, Jakarta Validation, SLF4J logging, RESTful conventions
+            - Proper error handling; no placeholder comments like "// TODO"
+
+            DO NOT:
+            - Add explanatory text outside file blocks
+            - Write files that are not assigned to you
+            - Generate test files
+            """;
+
+    private final LlmClient llmClient;
+    private final GenerationJobExecutor jobExecutor;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${generation.fanout.max-files-per-call:3}")
+    private int maxFilesPerCall;
+
+    // Plans beyond this many files are cut, a guard against runaway plans
+    @Value("${generation.fanout.max-files:40}")
+    private int maxFiles;
+
+    /**
+     * Writes the service in parallel calls. Returns the concatenated
+     * {@code /// START FILE} output, an "ERROR: ..." string when a group call
+     * failed, or null when no usable plan came back and the caller should fall
+     * back to the single-call prompt.
+     */
+    public String generate(String userPrompt, IntentModel intent) throws InterruptedException {
+        Timer.Sample planning = Timer.start(meterRegistry);
+        Plan planned = plan(userPrompt, intent);
+        planning.stop(meterRegistry.timer("generation.fanout.stage", "stage", "plan"));
+        List<PlannedFile> plan = planned.files();
+        if (plan.isEmpty()) {
+            System.err.println("Fan-out plan was empty or unreadable, falling back to a single call");
+            meterRegistry.counter("generation.fanout.fallbacks").increment();
+            return null;
+        }
+
+        List<List<PlannedFile>> groups = group(plan);
+        String planText = describe(plan);
+        System.out.println("Fan-out: " + plan.size() + " files in " + groups.size() + " parallel calls");
+
+        Timer.Sample writing = Timer.start(meterRegistry);
+        List<Future<String>> calls = new ArrayList<>();
+        try {
+            for (List<PlannedFile> group : groups) {
+                String groupPrompt = groupPrompt(userPrompt, intent, planText, group);
+                calls.add(jobExecutor.fork(() -> llmClient.generate(GROUP_SYSTEM_PROMPT, groupPrompt)));
+            }
+
+            // The engine builds pom.xml from the first dependency array in the output
+            StringBuilder combined = new StringBuilder();
+            if (!planned.dependencies().isEmpty()) {
+                combined.append(planned.dependencies()).append('\n');
+            }
+            for (Future<String> call : calls) {
+                String output = call.get();
+                if (output == null || output.startsWith("ERROR")) {
+                    return output == null ? "ERROR: Empty response for a fan-out group" : output;
+                }
+                combined.append(output.trim()).append('\n');
+            }
+            return combined.toString();
+        } catch (ExecutionException e) {
+            return "ERROR: Fan-out generation failed: " + e.getCause().getMessage();
+        } finally {
+            // Stops the other groups once one failed or the job was cancelled
+            calls.forEach(call -> call.cancel(true));
+            writing.stop(meterRegistry.timer("generation.fanout.stage", "stage", "write"));
+        }
+    }
+
+    private Plan plan(String userPrompt, IntentModel intent) {
+        Set<String> generated = generatedFiles(intent);
+        String request = userPrompt + "\n\n" + intentSummary(intent);
+        if (!generated.isEmpty()) {
+            request += "\nAlready generated (the CRUD layer of each entity): "
+                    + generated.stream().sorted().collect(Collectors.joining(", ")) + "\n";
+        }
+        String response = llmClient.generate(PLAN_SYSTEM_PROMPT, request);
+        Plan empty = new Plan(List.of(), "");
+        if (response == null || response.startsWith("ERROR")) {
+            return empty;
+        }
+        int start = response.indexOf('{');
+        int end = response.lastIndexOf('}');
+        if (start == -1 || end <= start) {
+            return empty;
+        }
+
+        Map<String, PlannedFile> files = new LinkedHashMap<>();
+        String dependencies;
+        try {
+            JsonNode root = objectMapper.readTree(response.substring(start, end + 1));
+            JsonNode planned = root.path("dependencies");
+            dependencies = planned.isArray() && !planned.isEmpty() ? objectMapper.writeValueAsString(planned) : "";
+            for (JsonNode node : root.path("files")) {
+                String file = node.path("file").asText("").trim();
+                // Flat names: the engine derives the sub-package from the suffix
+                file = file.substring(file.lastIndexOf('/') + 1);
+                if (!file.endsWith(".java") || SCAFFOLD_FILES.contains(file) || generated.contains(file)
+                        || files.size() >= maxFiles) {
+                    continue;
+                }
+                String layer = node.path("layer").asText("").trim().toLowerCase();
+                files.putIfAbsent(file, new PlannedFile(file, LAYERS.contains(layer) ? layer : layerOf(file),
+                        node.path("description").asText("")));
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to parse fan-out plan: " + e.getMessage());
+            return empty;
+        }
+        return new Plan(new ArrayList<>(files.values()), dependencies);
+    }
+
+    // Classes the engine renders for the intent's entities; planning them again would only be overwritten
+    private static Set<String> generatedFiles(IntentModel intent) {
+        Set<String> files = new HashSet<>();
+        if (!CrudFileGenerator.generatesCrud(intent)) {
+            return files;
+        }
+        for (String path : CrudFileGenerator.SHARED_CLASS_NAMES) {
+            files.add(path.substring(path.lastIndexOf('/') + 1));
+        }
+        for (EntityModel entity : intent.getEntities()) {
+            files.add(entity.getName() + ".java");
+            files.add(entity.getName() + "Repository.java");
+            for (String path : CrudFileGenerator.classNames(entity)) {
+                files.add(path.substring(path.lastIndexOf('/') + 1));
+            }
+        }
+        return files;
+    }
+
+    // Same layer split the engine applies when it places files into sub-packages
+    private static String layerOf(String file) {
+        if (file.endsWith("Controller.java")) {
+            return "controller";
+        }
+        if (file.endsWith("Repository.java")) {
+            return "repository";
+        }
+        if (file.endsWith("Config.java") || file.endsWith("Configuration.java")) {
+            return "config";
+        }
+        if (file.endsWith("Exception.java") || file.endsWith("Handler.java") || file.endsWith("Advice.java")) {
+            return "exception";
+        }
+        if (file.endsWith("Service.java") || file.endsWith("ServiceImpl.java")) {
+            return "service";
+        }
+        return "model";
+    }
+
+    /** One group per layer, split further so no call writes more than maxFilesPerCall files. */
+    private List<List<PlannedFile>> group(List<PlannedFile> plan) {
+        Map<String, List<PlannedFile>> byLayer = plan.stream()
+                .collect(Collectors.groupingBy(PlannedFile::layer, LinkedHashMap::new, Collectors.toList()));
+        List<List<PlannedFile>> groups = new ArrayList<>();
+        for (List<PlannedFile> layer : byLayer.values()) {
+            for (int i = 0; i < layer.size(); i += maxFilesPerCall) {
+                groups.add(layer.subList(i, Math.min(layer.size(), i + maxFilesPerCall)));
+            }
+        }
+        return groups;
+    }
+
+    private static String describe(List<PlannedFile> plan) {
+        StringBuilder text = new StringBuilder();
+        for (PlannedFile file : plan) {
+            text.append("- ").append(file.file()).append(" [").append(file.layer()).append("] ")
+                    .append(file.description()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static String intentSummary(IntentModel intent) {
+        StringBuilder summary = new StringBuilder()
+                .append("Service name: ").append(intent.getServiceName()).append('\n')
+                .append("Package: ").append(intent.getPackageName()).append('\n')
+                .append("Auth: ").append(intent.getAuth()).append('\n')
+                .append("Database: ").append(intent.getDatabase()).append('\n')
+                .append("Persistence: ").append(intent.getPersistence()).append('\n');
+        if (intent.getEntities() != null) {
+            for (EntityModel entity : intent.getEntities()) {
+                summary.append("Entity ").append(entity.getName()).append(": ");
+                if (entity.getFields() != null) {
+                    summary.append(entity.getFields().stream()
+                            .map(f -> f.getName() + " " + f.getType())
+                            .collect(Collectors.joining(", ")));
+                }
+                summary.append('\n');
+            }
+        }
+        return summary.toString();
+    }
+
+    private static String groupPrompt(String userPrompt, IntentModel intent, String planText,
+            List<PlannedFile> group) {
+        return "Requirements:\n" + userPrompt + "\n\n"
+                + intentSummary(intent) + "\n"
+                + "Full file plan:\n" + planText + "\n"
+                + "Your files (write exactly these):\n"
+                + group.stream().map(f -> "- " + f.file() + ": " + f.description())
+                        .collect(Collectors.joining("\n"));
+    }
+}
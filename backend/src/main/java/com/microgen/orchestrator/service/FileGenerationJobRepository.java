@@ -0,0 +1,493 @@
+package com.microgen.orchestrator.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.microgen.orchestrator.model.GenerationJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Local-disk {@link GenerationJobRepository}.
+ *
+ * Layout under {@code jobs.repository.dir}:
+ * <ul>
+ * <li>{@code journal-N.log} - append-only JSON lines, one per state transition,
+ * holding only the fields that changed.</li>
+ * <li>{@code segments/segment-N.dat} - append-only blobs of generated files;
+ * the journal records where each job's blob lives.</li>
+ * <li>{@code snapshot-N.jsonl} - the full index as of the start of journal N.</li>
+ * </ul>
+ *
+ * The index lives in memory. At startup it is rebuilt from the newest snapshot
+ * plus the journals written after it, so restart time depends on the number
+ * of jobs rather than the number of transitions ever recorded. Snapshots are
+ * taken periodically and on shutdown; each one rotates the journal and
+ * deletes the journals and snapshots it supersedes. Every start writes to a
+ * fresh journal and segment, so a record torn by a crash is never appended to.
+ *
+ * Each snapshot first applies the retention policy: finished jobs older than
+ * {@code jobs.repository.retention}, and the oldest finished jobs beyond
+ * {@code jobs.repository.max-jobs}, are dropped from the index and so from
+ * the snapshot. Afterwards segments without live files are deleted, and those
+ * whose live share fell below {@code jobs.repository.compact-threshold} have
+ * their live files copied into the current segment first.
+ */
+@Component
+public class FileGenerationJobRepository implements GenerationJobRepository {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    private final ObjectReader recordReader = objectMapper.readerFor(JobRecord.class);
+
+    private final Map<String, JobRecord> index = new ConcurrentHashMap<>();
+
+    private final Object journalLock = new Object();
+    private FileChannel journal;
+    private long journalSeq;
+    private long recordsSinceSnapshot;
+
+    private final Object segmentLock = new Object();
+    private FileChannel segment;
+    private int segmentSeq;
+    // Blobs written per segment whose location is not in the index yet; compaction leaves those segments alone
+    private final Map<Integer, Integer> unindexedWrites = new ConcurrentHashMap<>();
+
+    @Value("${jobs.repository.dir:./data/jobs}")
+    private String directory;
+    private Path dir;
+
+    @Value("${jobs.repository.segment-max-bytes:67108864}")
+    private long segmentMaxBytes;
+
+    // fsync every append; off by default, the page cache survives process crashes
+    @Value("${jobs.repository.fsync:false}")
+    private boolean fsync;
+
+    // Finished jobs are forgotten, files included, this long after creation; zero keeps them
+    @Value("${jobs.repository.retention:P30D}")
+    private Duration retention;
+
+    // Beyond this many jobs the oldest finished ones are forgotten first
+    @Value("${jobs.repository.max-jobs:100000}")
+    private int maxJobs;
+
+    // Segments with a smaller share of live bytes are rewritten into the current segment
+    @Value("${jobs.repository.compact-threshold:0.5}")
+    private double compactThreshold;
+
+    @PostConstruct
+    void open() throws IOException {
+        dir = Path.of(directory);
+        Files.createDirectories(dir.resolve("segments"));
+        long start = System.currentTimeMillis();
+
+        long snapshotSeq = latestSeq(dir, "snapshot-", ".jsonl");
+        if (snapshotSeq >= 0) {
+            replay(snapshotFile(snapshotSeq));
+        }
+        long lastJournal = -1;
+        for (long seq : sequences(dir, "journal-", ".log")) {
+            if (seq >= snapshotSeq) {
+                replay(journalFile(seq));
+            }
+            lastJournal = Math.max(lastJournal, seq);
+        }
+
+        journalSeq = Math.max(lastJournal + 1, snapshotSeq);
+        journal = openAppend(journalFile(journalSeq));
+        segmentSeq = (int) latestSeq(dir.resolve("segments"), "segment-", ".dat") + 1;
+        segment = openAppend(segmentFile(segmentSeq));
+
+        System.out.println("Job repository loaded " + index.size() + " jobs from " + dir + " in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @Override
+    public void save(GenerationJob job) {
+        JobRecord current = JobRecord.of(job);
+        synchronized (journalLock) {
+            JobRecord previous = index.get(job.getId());
+            JobRecord delta = previous == null ? current : current.changesFrom(previous);
+            append(delta);
+            index.put(job.getId(), previous == null ? current : previous.merge(current));
+        }
+    }
+
+    @Override
+    public void saveFiles(String jobId, Map<String, String> files) {
+        try {
+            byte[] blob = objectMapper.writeValueAsBytes(files);
+            int seq = -1;
+            try {
+                long offset;
+                synchronized (segmentLock) {
+                    if (segment.position() > 0 && segment.position() + blob.length > segmentMaxBytes) {
+                        segment.close();
+                        segment = openAppend(segmentFile(++segmentSeq));
+                    }
+                    offset = segment.position();
+                    unindexedWrites.merge(segmentSeq, 1, Integer::sum);
+                    seq = segmentSeq;
+                    writeFully(segment, ByteBuffer.wrap(blob));
+                }
+                JobRecord location = new JobRecord(jobId, null, null, null, null, null, seq, offset, blob.length);
+                synchronized (journalLock) {
+                    append(location);
+                    index.merge(jobId, location, JobRecord::merge);
+                }
+            } finally {
+                if (seq >= 0) {
+                    unindexedWrites.computeIfPresent(seq, (k, n) -> n == 1 ? null : n - 1);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store files of job " + jobId, e);
+        }
+    }
+
+    @Override
+    public Optional<GenerationJob> findById(String jobId) {
+        return Optional.ofNullable(index.get(jobId)).map(JobRecord::toJob);
+    }
+
+    @Override
+    public Map<String, String> loadFiles(String jobId) {
+        JobRecord record = index.get(jobId);
+        if (record == null || record.segment() == null) {
+            return null;
+        }
+        try {
+            byte[] blob;
+            try {
+                blob = readBlob(record);
+            } catch (IOException e) {
+                // Compaction may have moved the files and deleted the segment meanwhile
+                JobRecord moved = index.get(jobId);
+                if (moved == null || Objects.equals(moved.segment(), record.segment())) {
+                    throw e;
+                }
+                blob = readBlob(moved);
+            }
+            return objectMapper.readValue(blob, new TypeReference<Map<String, String>>() {
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to load files of job " + jobId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] readBlob(JobRecord record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(record.length());
+        try (FileChannel channel = FileChannel.open(segmentFile(record.segment()), StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, record.offset() + buffer.position()) < 0) {
+                    throw new IOException("Segment truncated");
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public List<GenerationJob> findUnfinished() {
+        List<GenerationJob> unfinished = new ArrayList<>();
+        for (JobRecord record : index.values()) {
+            GenerationJob job = record.toJob();
+            if (!job.isFinished()) {
+                unfinished.add(job);
+            }
+        }
+        return unfinished;
+    }
+
+    /**
+     * Applies the retention policy, writes the remaining index to a new
+     * snapshot and starts a new journal, after which older journals and
+     * snapshots are no longer needed. Segments are compacted last.
+     */
+    @Scheduled(fixedDelayString = "${jobs.repository.snapshot-interval:PT5M}")
+    public void snapshot() throws IOException {
+        List<JobRecord> records;
+        long coveredSeq;
+        synchronized (journalLock) {
+            int dropped = applyRetention();
+            if (recordsSinceSnapshot == 0 && dropped == 0) {
+                return;
+            }
+            if (dropped > 0) {
+                System.out.println("Job repository dropped " + dropped + " jobs past retention");
+            }
+            journal.close();
+            coveredSeq = ++journalSeq;
+            journal = openAppend(journalFile(journalSeq));
+            recordsSinceSnapshot = 0;
+            records = new ArrayList<>(index.values());
+        }
+
+        Path target = snapshotFile(coveredSeq);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp)) {
+            for (JobRecord record : records) {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.newLine();
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (long seq : sequences(dir, "snapshot-", ".jsonl")) {
+            if (seq < coveredSeq) {
+                Files.deleteIfExists(snapshotFile(seq));
+            }
+        }
+        for (long seq : sequences(dir, "journal-", ".log")) {
+            if (seq < coveredSeq) {
+                Files.deleteIfExists(journalFile(seq));
+            }
+        }
+
+        compactSegments();
+    }
+
+    // Caller holds journalLock. Dropped jobs vanish with the journals the next snapshot supersedes.
+    private int applyRetention() {
+        List<JobRecord> finished = new ArrayList<>();
+        for (JobRecord record : index.values()) {
+            if (record.toJob().isFinished()) {
+                finished.add(record);
+            }
+        }
+        finished.sort(Comparator.comparing(JobRecord::createdAt, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        LocalDateTime cutoff = retention.isZero() ? null : LocalDateTime.now().minus(retention);
+        int excess = index.size() - maxJobs;
+        int dropped = 0;
+        for (JobRecord record : finished) {
+            boolean expired = cutoff != null && record.createdAt() != null && record.createdAt().isBefore(cutoff);
+            if (!expired && dropped >= excess) {
+                break;
+            }
+            index.remove(record.id());
+            dropped++;
+        }
+        return dropped;
+    }
+
+    /**
+     * Deletes segments no indexed job points into, after copying the live files
+     * of sparse ones to the current segment. The current segment is left alone,
+     * and so is any segment holding a blob whose location is not indexed yet.
+     * Liveness is read from the index under the journal lock, so a location
+     * indexed after the snapshot was taken is still seen.
+     */
+    private void compactSegments() throws IOException {
+        int current;
+        synchronized (segmentLock) {
+            current = segmentSeq;
+        }
+        Map<Integer, List<JobRecord>> live = new HashMap<>();
+        synchronized (journalLock) {
+            for (JobRecord record : index.values()) {
+                if (record.segment() != null) {
+                    live.computeIfAbsent(record.segment(), seq -> new ArrayList<>()).add(record);
+                }
+            }
+        }
+
+        for (long seq : sequences(dir.resolve("segments"), "segment-", ".dat")) {
+            if (seq >= current || unindexedWrites.containsKey((int) seq)) {
+                continue;
+            }
+            Path file = segmentFile((int) seq);
+            List<JobRecord> files = live.getOrDefault((int) seq, List.of());
+            long liveBytes = files.stream().mapToLong(JobRecord::length).sum();
+            if (liveBytes > 0 && liveBytes >= compactThreshold * Files.size(file)) {
+                continue;
+            }
+            for (JobRecord record : files) {
+                relocate(record);
+            }
+            synchronized (journalLock) {
+                // Holding the journal lock, no location can be indexed; recheck what arrived meanwhile
+                boolean referenced = unindexedWrites.containsKey((int) seq) || index.values().stream()
+                        .anyMatch(record -> record.segment() != null && record.segment() == seq);
+                if (!referenced) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private void relocate(JobRecord record) throws IOException {
+        ByteBuffer blob = ByteBuffer.wrap(readBlob(record));
+        long offset;
+        int seq = -1;
+        try {
+            synchronized (segmentLock) {
+                offset = segment.position();
+                unindexedWrites.merge(segmentSeq, 1, Integer::sum);
+                seq = segmentSeq;
+                writeFully(segment, blob);
+            }
+            JobRecord location = new JobRecord(record.id(), null, null, null, null, null, seq, offset,
+                    record.length());
+            synchronized (journalLock) {
+                // Skip jobs dropped or given new files since the records were taken
+                JobRecord indexed = index.get(record.id());
+                if (indexed != null && Objects.equals(indexed.segment(), record.segment())
+                        && Objects.equals(indexed.offset(), record.offset())) {
+                    append(location);
+                    index.put(record.id(), indexed.merge(location));
+                }
+            }
+        } finally {
+            if (seq >= 0) {
+                unindexedWrites.computeIfPresent(seq, (k, n) -> n == 1 ? null : n - 1);
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        snapshot();
+        synchronized (journalLock) {
+            journal.close();
+        }
+        synchronized (segmentLock) {
+            segment.close();
+        }
+    }
+
+    private void append(JobRecord record) {
+        try {
+            byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+            writeFully(journal, ByteBuffer.wrap(line));
+            recordsSinceSnapshot++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to job journal", e);
+        }
+    }
+
+    private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    private void replay(Path file) throws IOException {
+        try (MappingIterator<JobRecord> it = recordReader.readValues(file.toFile())) {
+            while (it.hasNextValue()) {
+                JobRecord record = it.nextValue();
+                index.merge(record.id(), record, JobRecord::merge);
+            }
+        } catch (IOException | RuntimeException e) {
+            // A crash can leave a half-written last line; everything before it is intact
+            System.err.println("Stopped replaying " + file.getFileName() + " at a torn record: " + e.getMessage());
+        }
+    }
+
+    private FileChannel openAppend(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path journalFile(long seq) {
+        return dir.resolve("journal-%06d.log".formatted(seq));
+    }
+
+    private Path snapshotFile(long seq) {
+        return dir.resolve("snapshot-%06d.jsonl".formatted(seq));
+    }
+
+    private Path segmentFile(int seq) {
+        return dir.resolve("segments").resolve("segment-%06d.dat".formatted(seq));
+    }
+
+    private static long latestSeq(Path directory, String prefix, String suffix) throws IOException {
+        return sequences(directory, prefix, suffix).stream().mapToLong(Long::longValue).max().orElse(-1);
+    }
+
+    private static List<Long> sequences(Path directory, String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(f -> f.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /** One journal line; null fields are "unchanged" and omitted from the JSON. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record JobRecord(String id, String prompt, String status, String serviceName, String error,
+            LocalDateTime createdAt, Integer segment, Long offset, Integer length) {
+
+        static JobRecord of(GenerationJob job) {
+            return new JobRecord(job.getId(), job.getPrompt(), job.getStatus(), job.getServiceName(),
+                    job.getError(), job.getCreatedAt(), null, null, null);
+        }
+
+        JobRecord merge(JobRecord update) {
+            return new JobRecord(id,
+                    update.prompt != null ? update.prompt : prompt,
+                    update.status != null ? update.status : status,
+                    update.serviceName != null ? update.serviceName : serviceName,
+                    update.error != null ? update.error : error,
+                    update.createdAt != null ? update.createdAt : createdAt,
+                    update.segment != null ? update.segment : segment,
+                    update.offset != null ? update.offset : offset,
+                    update.length != null ? update.length : length);
+        }
+
+        JobRecord changesFrom(JobRecord previous) {
+            return new JobRecord(id,
+                    Objects.equals(prompt, previous.prompt) ? null : prompt,
+                    status,
+                    Objects.equals(serviceName, previous.serviceName) ? null : serviceName,
+                    Objects.equals(error, previous.error) ? null : error,
+                    null, null, null, null);
+        }
+
+        GenerationJob toJob() {
+            GenerationJob job = new GenerationJob();
+            job.setId(id);
+            job.setPrompt(prompt);
+            job.setStatus(status);
+            job.setServiceName(serviceName);
+            job.setError(error);
+            job.setCreatedAt(createdAt);
+            return job;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.adapter.LlmCallContext;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs generation jobs off the request thread. Every job gets its own virtual
+ * thread, but only {@code generation.executor.max-concurrent-jobs} of them may
+ * be inside {@link PromptOrchestrationService#processJob} at the same time.
+ * The {@link GenerationScheduler} decides which queued job gets the next slot.
+ */
+@Component
+public class GenerationJobExecutor {
+
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService timers = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("job-deadlines").daemon().factory());
+    private final Semaphore slots;
+    private final int maxConcurrentJobs;
+
+    public GenerationJobExecutor(@Value("${generation.executor.max-concurrent-jobs:16}") int maxConcurrentJobs) {
+        this.maxConcurrentJobs = maxConcurrentJobs;
+        this.slots = new Semaphore(maxConcurrentJobs, true);
+    }
+
+    /** Blocks until a job slot is free; the slot must be handed to {@link #runInSlot}. */
+    public void acquireSlot() throws InterruptedException {
+        slots.acquire();
+    }
+
+    public void releaseSlot() {
+        slots.release();
+    }
+
+    /** Runs the task on a new virtual thread and releases the slot when it finishes. */
+    public void runInSlot(Runnable task) {
+        try {
+            virtualThreads.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    releaseSlot();
+                }
+            });
+        } catch (RuntimeException e) {
+            releaseSlot();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts a helper task for a job that already holds a slot, e.g. an LLM call
+     * that can overlap with another stage. Cancelling the returned future with
+     * {@code mayInterruptIfRunning} interrupts the virtual thread, which aborts a
+     * blocking socket read. The caller's {@link LlmCallContext} deadline is
+     * carried over to the helper thread.
+     */
+    public <T> Future<T> fork(Callable<T> task) {
+        Instant deadline = LlmCallContext.getDeadline();
+        return virtualThreads.submit(() -> {
+            LlmCallContext.setDeadline(deadline);
+            try {
+                return task.call();
+            } finally {
+                LlmCallContext.clear();
+            }
+        });
+    }
+
+    /** Runs a short action (e.g. aborting a job) after the delay on a virtual thread. */
+    public ScheduledFuture<?> schedule(Runnable action, Duration delay) {
+        return timers.schedule(() -> virtualThreads.execute(action),
+                Math.max(0, delay.toMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    public int getMaxConcurrentJobs() {
+        return maxConcurrentJobs;
+    }
+
+    public int getBusySlots() {
+        return maxConcurrentJobs - slots.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timers.shutdownNow();
+        virtualThreads.shutdown();
+    }
+}
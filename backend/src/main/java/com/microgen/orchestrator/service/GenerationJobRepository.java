@@ -1,6 +1,28 @@
 package com.microgen.orchestrator.service;
 
-// import org.springframework.data.jpa.repository.JpaRepository;
-// @Repository
+import com.microgen.orchestrator.model.GenerationJob;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Durable storage for generation jobs. Job metadata and generated files are
+ * persisted separately so status lookups never have to touch file contents.
+ */
 public interface GenerationJobRepository {
+
+    /** Records the job's current status, service name and error. */
+    void save(GenerationJob job);
+
+    void saveFiles(String jobId, Map<String, String> files);
+
+    /** Returns the job without its generated files. */
+    Optional<GenerationJob> findById(String jobId);
+
+    /** Returns the generated files of the job, or null if none were stored. */
+    Map<String, String> loadFiles(String jobId);
+
+    /** Jobs whose last recorded status is not terminal, e.g. in flight during a crash. */
+    List<GenerationJob> findUnfinished();
 }
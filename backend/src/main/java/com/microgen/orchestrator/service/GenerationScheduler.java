@@ -0,0 +1,230 @@
+package com.microgen.orchestrator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission control in front of {@link PromptOrchestrationService#processJob}.
+ *
+ * Accepted jobs wait in a bounded queue and are handed to the
+ * {@link GenerationJobExecutor} as job slots free up. The queue is
+ * start-time fair queueing across clients: each job is tagged with
+ * {@code max(virtualTime, client's last finish tag)} and its finish tag adds
+ * {@code 1 / weight}, so a client that bursts fifty prompts cannot starve one
+ * that sends a single prompt. Weights default to 1 and can be raised per
+ * client through {@code generation.scheduler.client-weights}.
+ *
+ * New work is rejected up front (and surfaces as a 503 with Retry-After) when
+ * the queue is full, or when the head of the queue has already waited longer
+ * than {@code generation.scheduler.max-queue-wait} or a new job would be
+ * expected to.
+ */
+@Component
+public class GenerationScheduler {
+
+    private final GenerationJobExecutor jobExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final PriorityQueue<QueuedJob> queue = new PriorityQueue<>();
+    private final Map<String, Double> lastFinishTags = new HashMap<>();
+    private final Map<String, Double> clientWeights = new HashMap<>();
+    private double virtualTime;
+    // The dispatcher is waiting in take() with a slot it acquired for the next job
+    private boolean slotReserved;
+    private long sequence;
+    // Moving average of job run time, used to estimate the wait for new work
+    private volatile double avgJobMillis;
+
+    private final int maxQueueSize;
+    private final Duration maxQueueWait;
+
+    private Timer queueWaitTimer;
+    private Timer jobTimer;
+    private Counter rejectedCounter;
+    private Thread dispatcher;
+
+    public GenerationScheduler(GenerationJobExecutor jobExecutor, MeterRegistry meterRegistry,
+            @Value("${generation.scheduler.max-queue-size:200}") int maxQueueSize,
+            @Value("${generation.scheduler.max-queue-wait:PT60S}") Duration maxQueueWait,
+            @Value("${generation.scheduler.expected-job-duration:PT45S}") Duration expectedJobDuration,
+            @Value("${generation.scheduler.client-weights:}") String clientWeights) {
+        this.jobExecutor = jobExecutor;
+        this.meterRegistry = meterRegistry;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWait = maxQueueWait;
+        this.avgJobMillis = expectedJobDuration.toMillis();
+        // Format: client:weight,client:weight
+        for (String pair : clientWeights.split(",")) {
+            int colon = pair.lastIndexOf(':');
+            if (colon > 0) {
+                this.clientWeights.put(pair.substring(0, colon).trim(),
+                        Double.parseDouble(pair.substring(colon + 1).trim()));
+            }
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("generation.queue.depth", this, GenerationScheduler::queueDepth)
+                .description("Jobs waiting for an executor slot")
+                .register(meterRegistry);
+        Gauge.builder("generation.jobs.running", jobExecutor, GenerationJobExecutor::getBusySlots)
+                .description("Jobs currently holding an executor slot")
+                .register(meterRegistry);
+        queueWaitTimer = Timer.builder("generation.queue.wait")
+                .description("Time jobs spent queued before starting")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        jobTimer = Timer.builder("generation.job.duration")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("generation.queue.rejected")
+                .description("Jobs refused by admission control")
+                .register(meterRegistry);
+
+        dispatcher = Thread.ofVirtual().name("generation-dispatcher").start(this::dispatchLoop);
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.interrupt();
+    }
+
+    /**
+     * Queues the task or throws {@link AdmissionRejectedException}. The
+     * returned future completes with the task's result once it has run.
+     */
+    public <T> CompletableFuture<T> submit(String clientKey, Supplier<T> task) {
+        lock.lock();
+        try {
+            Duration expectedWait = expectedWait();
+            if (queue.size() >= maxQueueSize || expectedWait.compareTo(maxQueueWait) > 0) {
+                rejectedCounter.increment();
+                throw new AdmissionRejectedException("Generation queue is saturated (" + queue.size()
+                        + " jobs waiting)", expectedWait.compareTo(maxQueueWait) > 0 ? expectedWait : maxQueueWait);
+            }
+
+            double weight = clientWeights.getOrDefault(clientKey, 1.0);
+            double startTag = Math.max(virtualTime, lastFinishTags.getOrDefault(clientKey, 0.0));
+            lastFinishTags.put(clientKey, startTag + 1.0 / weight);
+
+            CompletableFuture<T> result = new CompletableFuture<>();
+            queue.add(new QueuedJob(startTag, sequence++, System.nanoTime(), () -> {
+                try {
+                    result.complete(task.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }));
+            notEmpty.signal();
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                jobExecutor.acquireSlot();
+                QueuedJob next;
+                try {
+                    next = take();
+                } catch (InterruptedException e) {
+                    jobExecutor.releaseSlot();
+                    throw e;
+                }
+                queueWaitTimer.record(Duration.ofNanos(System.nanoTime() - next.enqueuedAt()));
+                jobExecutor.runInSlot(() -> run(next));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run(QueuedJob queued) {
+        long start = System.nanoTime();
+        try {
+            queued.task().run();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            jobTimer.record(Duration.ofNanos(elapsed));
+            avgJobMillis = 0.8 * avgJobMillis + 0.2 * (elapsed / 1_000_000.0);
+        }
+    }
+
+    private QueuedJob take() throws InterruptedException {
+        lock.lock();
+        slotReserved = true;
+        try {
+            while (queue.isEmpty()) {
+                notEmpty.await();
+            }
+            QueuedJob next = queue.poll();
+            virtualTime = next.startTag();
+            if (queue.isEmpty()) {
+                // Idle: forget old finish tags so returning clients start level
+                lastFinishTags.clear();
+            }
+            return next;
+        } finally {
+            slotReserved = false;
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private Duration expectedWait() {
+        QueuedJob oldest = null;
+        for (QueuedJob queued : queue) {
+            if (oldest == null || queued.enqueuedAt() < oldest.enqueuedAt()) {
+                oldest = queued;
+            }
+        }
+        long headWaitMillis = oldest == null ? 0 : (System.nanoTime() - oldest.enqueuedAt()) / 1_000_000;
+
+        int freeSlots = jobExecutor.getMaxConcurrentJobs() - jobExecutor.getBusySlots() + (slotReserved ? 1 : 0);
+        long estimateMillis = 0;
+        if (queue.size() >= freeSlots) {
+            long rounds = (queue.size() - freeSlots) / jobExecutor.getMaxConcurrentJobs() + 1;
+            estimateMillis = (long) (rounds * avgJobMillis);
+        }
+        return Duration.ofMillis(Math.max(headWaitMillis, estimateMillis));
+    }
+
+    private record QueuedJob(double startTag, long seq, long enqueuedAt, Runnable task)
+            implements Comparable<QueuedJob> {
+
+        @Override
+        public int compareTo(QueuedJob other) {
+            int byTag = Double.compare(startTag, other.startTag);
+            return byTag != 0 ? byTag : Long.compare(seq, other.seq);
+        }
+    }
+}
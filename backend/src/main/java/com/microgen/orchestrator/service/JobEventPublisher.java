@@ -0,0 +1,223 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.model.GenerationJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Fans job progress out to Server-Sent Events subscribers.
+ *
+ * Events: {@code status} on every stage change, {@code file} for each
+ * generated file as soon as it is final, and {@code done} once the job
+ * reached a terminal status, after which the stream is closed. Events of a
+ * running job are buffered so a client that subscribes late still receives
+ * everything from the start. The buffer keeps only the paths of published
+ * files; their latest content lives on the job in the {@link JobStore} and is
+ * read from there on replay, each path once. Subscribing to a job without a
+ * stream replays it from the job itself and ends with {@code done} right away,
+ * also for a job that is not finished, such as one recovered after a restart
+ * but not requeued yet.
+ *
+ * Publishing never touches the network: each subscriber has its own queue,
+ * drained onto its emitter by a virtual thread, so a slow client delays
+ * neither the pipeline nor the other subscribers.
+ */
+@Component
+@RequiredArgsConstructor
+public class JobEventPublisher {
+
+    private final JobStore jobStore;
+    private final Map<String, JobStream> streams = new ConcurrentHashMap<>();
+
+    @Value("${jobs.events.timeout:PT10M}")
+    private Duration timeout;
+
+    public void open(String jobId) {
+        streams.putIfAbsent(jobId, new JobStream());
+    }
+
+    public void publishStatus(GenerationJob job) {
+        publish(job.getId(), new Event("status", statusOf(job)));
+    }
+
+    public void publishFile(String jobId, String path, String content) {
+        JobStream stream = streams.get(jobId);
+        GenerationJob job = stream != null ? jobStore.get(jobId) : null;
+        if (job == null) {
+            return;
+        }
+        Event event = new Event("file", Map.of("path", path, "content", content));
+        synchronized (stream) {
+            if (stream.closed) {
+                return;
+            }
+            job.getPublishedFiles().put(path, content);
+            stream.history.add(new Event("file", path));
+            for (Subscriber subscriber : stream.subscribers) {
+                subscriber.queue.add(event);
+            }
+        }
+    }
+
+    /** Sends {@code done}, completes all subscribers and drops the buffered events. */
+    public void close(GenerationJob job) {
+        JobStream stream = streams.remove(job.getId());
+        if (stream == null) {
+            return;
+        }
+        synchronized (stream) {
+            stream.closed = true;
+            stream.history.clear();
+            job.getPublishedFiles().clear();
+            for (Subscriber subscriber : stream.subscribers) {
+                subscriber.queue.add(new Event("done", statusOf(job)));
+            }
+            stream.subscribers.clear();
+        }
+    }
+
+    public SseEmitter subscribe(GenerationJob job) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        JobStream stream = streams.get(job.getId());
+        GenerationJob stored = stream != null ? jobStore.get(job.getId()) : null;
+        if (stored != null) {
+            synchronized (stream) {
+                if (!stream.closed) {
+                    Subscriber subscriber = new Subscriber(emitter, job.getId());
+                    replay(stream.history, stored.getPublishedFiles(), subscriber.queue);
+                    stream.subscribers.add(subscriber);
+                    Runnable unsubscribe = () -> {
+                        synchronized (stream) {
+                            stream.subscribers.remove(subscriber);
+                        }
+                        subscriber.drainer.interrupt();
+                    };
+                    emitter.onCompletion(unsubscribe);
+                    emitter.onTimeout(unsubscribe);
+                    emitter.onError(e -> unsubscribe.run());
+                    subscriber.drainer.start();
+                    return emitter;
+                }
+            }
+        }
+
+        // Not running (finished, or not requeued yet after a restart): replay from the job. Nothing
+        // would ever end this emitter otherwise, so it gets done even if the job is unfinished.
+        try {
+            emitter.send(SseEmitter.event().name("status").data(statusOf(job)));
+            if (job.isFinished() && job.getGeneratedFiles() != null) {
+                for (Map.Entry<String, String> file : job.getGeneratedFiles().entrySet()) {
+                    emitter.send(SseEmitter.event().name("file")
+                            .data(Map.of("path", file.getKey(), "content", file.getValue())));
+                }
+            }
+            emitter.send(SseEmitter.event().name("done").data(statusOf(job)));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    // File entries carry only the path; a file published more than once is sent at its first
+    // position with its latest content
+    private static void replay(List<Event> history, Map<String, String> files, BlockingQueue<Event> queue) {
+        Set<String> sent = new HashSet<>();
+        for (Event event : history) {
+            if (!event.name().equals("file")) {
+                queue.add(event);
+            } else {
+                String path = (String) event.data();
+                String content = files.get(path);
+                if (content != null && sent.add(path)) {
+                    queue.add(new Event("file", Map.of("path", path, "content", content)));
+                }
+            }
+        }
+    }
+
+    private void publish(String jobId, Event event) {
+        JobStream stream = streams.get(jobId);
+        if (stream == null) {
+            return;
+        }
+        synchronized (stream) {
+            if (stream.closed) {
+                return;
+            }
+            stream.history.add(event);
+            for (Subscriber subscriber : stream.subscribers) {
+                subscriber.queue.add(event);
+            }
+        }
+    }
+
+    private static Map<String, Object> statusOf(GenerationJob job) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", job.getId());
+        status.put("status", job.getStatus());
+        if (job.getServiceName() != null) {
+            status.put("serviceName", job.getServiceName());
+        }
+        if (job.getError() != null) {
+            status.put("error", job.getError());
+        }
+        return status;
+    }
+
+    // Builders are consumed when sent, so events are kept as name/data and rebuilt per subscriber
+    private record Event(String name, Object data) {
+        SseEmitter.SseEventBuilder toSse() {
+            return SseEmitter.event().name(name).data(data);
+        }
+    }
+
+    private static final class JobStream {
+        private final List<Event> history = new ArrayList<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private boolean closed;
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue = new LinkedBlockingQueue<>();
+        private final Thread drainer;
+
+        private Subscriber(SseEmitter emitter, String jobId) {
+            this.emitter = emitter;
+            this.drainer = Thread.ofVirtual().name("sse-" + jobId).unstarted(this::drain);
+        }
+
+        // Sends queued events in order until done is sent, the client goes away or the emitter ends
+        private void drain() {
+            try {
+                while (true) {
+                    Event event = queue.take();
+                    emitter.send(event.toSse());
+                    if (event.name().equals("done")) {
+                        emitter.complete();
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Unsubscribed
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
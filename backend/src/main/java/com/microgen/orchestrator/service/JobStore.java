@@ -0,0 +1,223 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.model.GenerationJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-memory cache of generation jobs in front of the
+ * {@link GenerationJobRepository}.
+ *
+ * Entries are kept in LRU order. Once a job has finished it becomes eligible
+ * for housekeeping: it expires {@code jobs.store.ttl} after completion, the
+ * least recently used finished jobs are dropped beyond
+ * {@code jobs.store.max-entries}, and beyond {@code jobs.store.max-bytes} the
+ * generated files of cold jobs are released and reloaded from the repository
+ * the next time the job is read. Jobs that are no longer cached at all are
+ * read through from the repository. Jobs still in flight are never touched.
+ *
+ * A job read back from the repository is cached again, so expiry only frees
+ * memory for jobs nobody asks for anymore. Reloaded jobs therefore expire after
+ * the shorter {@code jobs.store.reload-ttl}, and ids the repository does not
+ * know are not cached at all. Repository reads happen outside the store lock;
+ * if the job changed meanwhile, the cached version wins.
+ *
+ * Spilling and reloading swap in a copy of the job instead of mutating it, so a
+ * caller that is still serializing an older reference keeps a consistent view.
+ */
+@Component
+@RequiredArgsConstructor
+public class JobStore {
+
+    private final GenerationJobRepository repository;
+
+    // Access-ordered: iteration starts at the least recently used job
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long residentBytes;
+
+    @Value("${jobs.store.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${jobs.store.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${jobs.store.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${jobs.store.reload-ttl:PT10M}")
+    private Duration reloadTtl;
+
+    public synchronized void put(GenerationJob job) {
+        Entry previous = entries.put(job.getId(), new Entry(job));
+        if (previous != null) {
+            discard(previous);
+        }
+        enforceLimits();
+    }
+
+    /**
+     * Returns the job, reloading it or its generated files from the repository
+     * if they were evicted. Returns null for unknown jobs.
+     */
+    public GenerationJob get(String jobId) {
+        GenerationJob spilled = null;
+        synchronized (this) {
+            Entry entry = entries.get(jobId);
+            if (entry != null && !entry.spilled) {
+                return entry.job;
+            }
+            if (entry != null) {
+                spilled = entry.job;
+            }
+        }
+
+        GenerationJob stored = spilled != null ? spilled : repository.findById(jobId).orElse(null);
+        if (stored == null) {
+            return null;
+        }
+        Map<String, String> files = repository.loadFiles(jobId);
+
+        synchronized (this) {
+            Entry entry = entries.get(jobId);
+            if (entry != null && !entry.spilled) {
+                return entry.job;
+            }
+            if (entry == null) {
+                entry = new Entry(stored);
+                entry.expiresAt = stored.isFinished() ? Instant.now().plus(min(ttl, reloadTtl)) : null;
+                entries.put(jobId, entry);
+            }
+            entry.spilled = false;
+            entry.bytes = estimateBytes(files);
+            residentBytes += entry.bytes;
+            if (files != null) {
+                entry.job = copyOf(entry.job, files);
+            }
+            // Limits may spill this very entry again; the caller still gets the files
+            GenerationJob job = entry.job;
+            enforceLimits();
+            return job;
+        }
+    }
+
+    /**
+     * Called once a job reached a terminal status; starts its TTL and makes its
+     * files count against the memory budget.
+     */
+    public synchronized void markFinished(String jobId) {
+        Entry entry = entries.get(jobId);
+        if (entry == null || entry.expiresAt != null) {
+            return;
+        }
+        entry.expiresAt = Instant.now().plus(ttl);
+        if (!entry.spilled) {
+            long bytes = estimateBytes(entry.job.getGeneratedFiles());
+            residentBytes += bytes - entry.bytes;
+            entry.bytes = bytes;
+        }
+        enforceLimits();
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.store.sweep-interval:PT1M}")
+    public synchronized void evictExpired() {
+        Instant now = Instant.now();
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.expiresAt != null && entry.expiresAt.isBefore(now)) {
+                it.remove();
+                discard(entry);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long residentBytes() {
+        return residentBytes;
+    }
+
+    private void enforceLimits() {
+        evictExpired();
+
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.expiresAt != null) {
+                it.remove();
+                discard(entry);
+            }
+        }
+
+        it = entries.values().iterator();
+        while (residentBytes > maxBytes && it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.expiresAt != null && !entry.spilled && entry.bytes > 0) {
+                spill(entry);
+            }
+        }
+    }
+
+    // Files were persisted by the pipeline before the job finished, so spilling only drops the reference
+    private void spill(Entry entry) {
+        entry.job = copyOf(entry.job, null);
+        entry.spilled = true;
+        residentBytes -= entry.bytes;
+    }
+
+    private void discard(Entry entry) {
+        if (!entry.spilled) {
+            residentBytes -= entry.bytes;
+        }
+    }
+
+    private static long estimateBytes(Map<String, String> files) {
+        if (files == null) {
+            return 0;
+        }
+        long chars = 0;
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            chars += file.getKey().length() + file.getValue().length();
+        }
+        return chars * 2;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static GenerationJob copyOf(GenerationJob job, Map<String, String> files) {
+        GenerationJob copy = new GenerationJob();
+        copy.setId(job.getId());
+        copy.setPrompt(job.getPrompt());
+        copy.setServiceName(job.getServiceName());
+        copy.setStatus(job.getStatus());
+        copy.setCreatedAt(job.getCreatedAt());
+        copy.setError(job.getError());
+        copy.setDeadline(job.getDeadline());
+        copy.setGeneratedFiles(files);
+        return copy;
+    }
+
+    private static final class Entry {
+        private GenerationJob job;
+        // Set once the job finished; null while it is in flight
+        private Instant expiresAt;
+        private long bytes;
+        private boolean spilled;
+
+        private Entry(GenerationJob job) {
+            this.job = job;
+        }
+    }
+}
@@ -1,14 +1,28 @@
 package com.microgen.orchestrator.service;
 
+import com.microgen.orchestrator.adapter.LlmCallContext;
 import com.microgen.orchestrator.adapter.LlmClient;
 import com.microgen.orchestrator.engine.CodeGenerationEngine;
 import com.microgen.orchestrator.engine.ZipUtility;
+import com.microgen.orchestrator.engine.generator.CrudFileGenerator;
+import com.microgen.orchestrator.model.EntityModel;
 import com.microgen.orchestrator.model.GenerationJob;
 import com.microgen.orchestrator.model.IntentModel;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
 import java.util.UUID;
 
 @Service
@@ -19,124 +33,481 @@ public class PromptOrchestrationService {
     private final LlmClient llmClient;
     private final CodeGenerationEngine generationEngine;
     private final GovernanceService governanceService;
+    private final GenerationJobExecutor jobExecutor;
+    private final GenerationScheduler scheduler;
+    private final JobStore jobStore;
+    private final GenerationJobRepository jobRepository;
+    private final JobEventPublisher eventPublisher;
+    private final RequestCoalescer coalescer;
+    private final FanOutGenerationService fanOutGenerator;
 
-    // Pure in-memory bypass
-    private final Map<String, GenerationJob> jobs = new ConcurrentHashMap<>();
+    // Plan the file list first and write file groups in parallel calls instead of one large call
+    @Value("${generation.fanout.enabled:false}")
+    private boolean fanOutEnabled;
+
+    // fail | resume
+    @Value("${jobs.recovery.mode:fail}")
+    private String recoveryMode;
+
+    // Deadline per job, counted from submission; clients may ask for less or more up to the max
+    @Value("${generation.job.timeout:PT5M}")
+    private Duration jobTimeout;
+
+    @Value("${generation.job.max-timeout:PT30M}")
+    private Duration maxJobTimeout;
+
+    // Worker thread of each job inside processJob, interrupted on cancel or timeout
+    private final Map<String, Thread> runningJobs = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> deadlineTimers = new ConcurrentHashMap<>();
+
+    private static final String BUSINESS_LOGIC_SYSTEM_PROMPT = """
+            You are a Senior Backend Engineer specializing in Spring Boot microservices.
+
+            Generate a COMPLETE, production-ready Spring Boot microservice based on the user's requirements.
+
+            OUTPUT FORMAT - Use this EXACT format for each file:
+
+            /// START FILE: path/to/FileName.java
+            package com.example.service;
+
+            import statements...
+
+            @Annotation
+            public class FileName {
+                // Complete implementation
+            }
+            /// END FILE
+
+            CRITICAL REQUIREMENTS:
+            1. Generate ALL necessary files for a working microservice:
+               - pom.xml (with all required dependencies)
+               - application.yml or application.properties (complete configuration)
+               - Configuration classes (@Configuration)
+               - DTOs/Models with validation annotations
+               - Service layer (@Service)
+               - Controller layer (@RestController)
+               - Exception handlers (@ControllerAdvice)
+               - Any other components mentioned in requirements
+
+            2. Code Quality Standards:
+               - Use Spring Boot 3.x best practices
+               - Include proper error handling
+               - Add validation using Jakarta Validation
+               - Use SLF4J for logging
+               - Follow RESTful conventions
+               - Include Javadoc for complex logic
+
+            3. Configuration:
+               - Use application.yml format (NOT .properties)
+               - Include all necessary Spring Boot properties
+               - Add sensible defaults
+               - Document configuration with comments
+
+            4. Dependencies (pom.xml):
+               - Spring Boot 3.x parent
+               - Include ONLY dependencies mentioned in requirements
+               - Use latest stable versions
+               - Organize with proper groupId/artifactId
+
+            5. Package Structure:
+               - Use package name from intent: [packageName]
+               - Follow standard structure: controller, service, model, config, exception
+
+            DO NOT:
+            - Add explanatory text outside code blocks
+            - Generate test files (focus on main code)
+            - Include placeholder comments like "// TODO"
+            - Use deprecated APIs
+
+            Generate COMPLETE, RUNNABLE code that can be immediately deployed.
+            """;
+
+    // Used instead when the intent has JPA entities: CrudFileGenerator renders their CRUD layer and
+    // the model only writes what goes beyond it. %s is the list of generated classes.
+    private static final String CUSTOM_LOGIC_SYSTEM_PROMPT = """
+            You are a Senior Backend Engineer specializing in Spring Boot microservices.
+
+            The service skeleton is generated for you from the user's requirements. These classes
+            ALREADY EXIST - do NOT write them:
+            %s
+            Each entity is a JPA entity with a Long id and Lombok @Data; <Entity>Request and
+            <Entity>Response are its DTOs (the response adds the id); <Entity>Mapper has
+            toEntity(request), updateEntity(entity, request) and toResponse(entity); <Entity>Repository
+            extends JpaRepository<<Entity>, Long>; <Entity>Service has findAll(Pageable), findById,
+            create, update and delete; <Entity>Controller serves paged CRUD endpoints under /api/<entity>s.
+            Also generated: the Application class, application.yml, pom.xml, Dockerfile, docker-compose.yml,
+            the CI workflow and, when JWT or OAuth2 is requested, the security configuration and login endpoint.
+
+            Write ONLY the custom logic the requirements ask for beyond plain CRUD: business rules,
+            workflows, extra endpoints, custom queries, scheduled jobs, messaging and integrations, and
+            the configuration classes they need. Use the generated classes by exactly these names
+            (inject them, extend the repositories) and put new behaviour in new classes, e.g.
+            OrderFulfillmentService or OrderReportController. If the requirements are plain CRUD, write
+            no files.
+
+            OUTPUT FORMAT - Use this EXACT format for each file:
+
+            /// START FILE: FileName.java
+            package com.example.service;
+
+            import statements...
+
+            @Annotation
+            public class FileName {
+                // Complete implementation
+            }
+            /// END FILE
+
+            After the files, list every Maven dependency the service needs in ONE JSON list, always
+            including spring-boot-starter-web, spring-boot-starter-data-jpa, lombok and the database driver:
+            [{"groupId": "org.springframework.boot", "artifactId": "spring-boot-starter-web"}]
+
+            Code Quality Standards:
+               - Spring Boot 3.x best practices, SLF4J logging, RESTful conventions
+               - Throw ResourceNotFoundException or IllegalArgumentException; GlobalExceptionHandler maps them
+               - Include Javadoc for complex logic
+
+            DO NOT:
+            - Add explanatory text outside code blocks
+            - Rewrite any of the generated classes listed above
+            - Generate test files (focus on main code)
+            - Include placeholder comments like "// TODO"
+            - Use deprecated APIs
+            """;
 
     public GenerationJob createJob(String userPrompt) {
         GenerationJob job = new GenerationJob();
         job.setId(UUID.randomUUID().toString());
         job.setPrompt(userPrompt);
         job.setStatus("PENDING");
-        jobs.put(job.getId(), job);
+        jobStore.put(job);
+        jobRepository.save(job);
+        eventPublisher.open(job.getId());
         return job;
     }
 
-    public GenerationJob processJob(String jobId) {
-        GenerationJob job = jobs.get(jobId);
+    /**
+     * Deals with jobs that were in flight when the orchestrator stopped: they are
+     * either queued again from the start or marked FAILED, per jobs.recovery.mode.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedJobs() {
+        for (GenerationJob job : jobRepository.findUnfinished()) {
+            if ("resume".equalsIgnoreCase(recoveryMode)) {
+                System.out.println("Resuming job " + job.getId() + " interrupted in " + job.getStatus());
+                job.setStatus("PENDING");
+                jobRepository.save(job);
+                jobStore.put(job);
+                eventPublisher.open(job.getId());
+                try {
+                    submitJob(job.getId(), "recovery");
+                } catch (AdmissionRejectedException e) {
+                    System.err.println("Could not requeue job " + job.getId() + ": " + e.getMessage());
+                }
+            } else {
+                fail(job, "ERROR: Interrupted by orchestrator restart while " + job.getStatus());
+            }
+        }
+    }
 
-        IntentModel intent = parsingService.parse(job.getPrompt());
+    /**
+     * Hands the job to the scheduler and returns immediately; the future
+     * completes once it has been processed. Progress is visible through
+     * {@link #getJob(String)} as the status moves through PARSING, GENERATING,
+     * ASSEMBLING and SCANNING. A job refused by admission control is marked
+     * FAILED and the {@link AdmissionRejectedException} is rethrown.
+     */
+    public CompletableFuture<GenerationJob> submitJob(String jobId, String clientKey) {
+        return submitJob(jobId, clientKey, null);
+    }
 
-        // Handle case where intent parsing fails or returns an error message
-        if (intent.getServiceName() == null || intent.getServiceName().startsWith("ERROR")) {
-            job.setStatus("FAILED");
-            job.setError(intent.getServiceName());
+    /** As {@link #submitJob(String, String)}, with a client-requested timeout (null for the default). */
+    public CompletableFuture<GenerationJob> submitJob(String jobId, String clientKey, Duration timeout) {
+        armDeadline(jobId, timeout);
+        try {
+            return scheduler.submit(clientKey, () -> processJob(jobId));
+        } catch (AdmissionRejectedException e) {
+            GenerationJob job = jobStore.get(jobId);
+            fail(job, "ERROR: " + e.getMessage());
+            finish(job);
+            throw e;
+        }
+    }
+
+    /**
+     * Sets the job's deadline and schedules it to be aborted as TIMED_OUT when
+     * it passes, whether the job is still queued or already running.
+     */
+    public void armDeadline(String jobId, Duration timeout) {
+        Duration effective = timeout == null ? jobTimeout
+                : timeout.compareTo(maxJobTimeout) > 0 ? maxJobTimeout : timeout;
+        GenerationJob job = jobStore.get(jobId);
+        if (job.isFinished()) {
+            return;
+        }
+        job.setDeadline(LocalDateTime.now().plus(effective));
+        ScheduledFuture<?> previous = deadlineTimers.put(jobId, jobExecutor.schedule(
+                () -> abort(jobId, "TIMED_OUT", "ERROR: Job exceeded its deadline of " + effective), effective));
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    /**
+     * Cancels a queued or running job. A running job's worker is interrupted,
+     * which aborts its in-flight LLM calls and frees both its executor slot and
+     * its provider slot; returns null for unknown jobs.
+     */
+    public GenerationJob cancelJob(String jobId) {
+        return abort(jobId, "CANCELLED", "ERROR: Cancelled by client");
+    }
+
+    private GenerationJob abort(String jobId, String status, String error) {
+        GenerationJob job = jobStore.get(jobId);
+        if (job == null || !transition(job, status, error)) {
             return job;
         }
+        System.out.println("Job " + jobId + " " + status);
+        Thread worker = runningJobs.get(jobId);
+        if (worker != null) {
+            // processJob unwinds and calls finish()
+            worker.interrupt();
+        } else {
+            // Still queued; processJob will skip it when it comes up
+            finish(job);
+        }
+        return job;
+    }
 
-        // Store service name for meaningful download filename
-        job.setServiceName(intent.getServiceName());
+    public GenerationJob processJob(String jobId) {
+        GenerationJob job = jobStore.get(jobId);
+        synchronized (job) {
+            if (job.isFinished()) {
+                // Cancelled or timed out while queued
+                return job;
+            }
+            runningJobs.put(jobId, Thread.currentThread());
+        }
+        if (job.getDeadline() != null) {
+            LlmCallContext.setDeadline(job.getDeadline().atZone(ZoneId.systemDefault()).toInstant());
+        }
 
-        String businessLogicSystemPrompt = """
-                You are a Senior Backend Engineer specializing in Spring Boot microservices.
+        try {
+            return runPipeline(job);
+        } catch (InterruptedException e) {
+            // Normally abort() has already recorded CANCELLED or TIMED_OUT and this is a no-op
+            fail(job, "ERROR: Interrupted");
+            return job;
+        } catch (ExecutionException e) {
+            System.err.println("Job " + jobId + " failed: " + e.getCause().getMessage());
+            fail(job, "ERROR: " + e.getCause().getMessage());
+            return job;
+        } catch (Exception e) {
+            System.err.println("Job " + jobId + " failed: " + e.getMessage());
+            fail(job, "ERROR: " + e.getMessage());
+            return job;
+        } finally {
+            runningJobs.remove(jobId);
+            LlmCallContext.clear();
+            finish(job);
+        }
+    }
 
-                Generate a COMPLETE, production-ready Spring Boot microservice based on the user's requirements.
+    private GenerationJob runPipeline(GenerationJob job) throws Exception {
+        updateStatus(job, "PARSING");
 
-                OUTPUT FORMAT - Use this EXACT format for each file:
+        // Concurrent jobs with the same normalized prompt and provider share both LLM calls
+        String coalescingKey = llmClient.getProviderName() + "|" + llmClient.getModel() + "|"
+                + RequestCoalescer.normalize(job.getPrompt());
 
-                /// START FILE: path/to/FileName.java
-                package com.example.service;
+        // The full-service prompt does not depend on the parsed intent, so both LLM calls are
+        // started together and joined before assembly. Fan-out plans from the intent and
+        // therefore starts after it.
+        StreamedFiles streamed = new StreamedFiles(job.getId());
+        Future<String> llmOutputFuture = fanOutEnabled ? null : forkBusinessLogic(job, null, coalescingKey, streamed);
+        try {
+            IntentModel intent = coalescer.execute("intent", coalescingKey,
+                    () -> parsingService.parse(job.getPrompt()));
 
-                import statements...
+            // Handle case where intent parsing fails or returns an error message
+            if (intent.getServiceName() == null || intent.getServiceName().startsWith("ERROR")) {
+                fail(job, intent.getServiceName());
+                return job;
+            }
 
-                @Annotation
-                public class FileName {
-                    // Complete implementation
-                }
-                /// END FILE
-
-                CRITICAL REQUIREMENTS:
-                1. Generate ALL necessary files for a working microservice:
-                   - pom.xml (with all required dependencies)
-                   - application.yml or application.properties (complete configuration)
-                   - Configuration classes (@Configuration)
-                   - DTOs/Models with validation annotations
-                   - Service layer (@Service)
-                   - Controller layer (@RestController)
-                   - Exception handlers (@ControllerAdvice)
-                   - Any other components mentioned in requirements
-
-                2. Code Quality Standards:
-                   - Use Spring Boot 3.x best practices
-                   - Include proper error handling
-                   - Add validation using Jakarta Validation
-                   - Use SLF4J for logging
-                   - Follow RESTful conventions
-                   - Include Javadoc for complex logic
-
-                3. Configuration:
-                   - Use application.yml format (NOT .properties)
-                   - Include all necessary Spring Boot properties
-                   - Add sensible defaults
-                   - Document configuration with comments
-
-                4. Dependencies (pom.xml):
-                   - Spring Boot 3.x parent
-                   - Include ONLY dependencies mentioned in requirements
-                   - Use latest stable versions
-                   - Organize with proper groupId/artifactId
-
-                5. Package Structure:
-                   - Use package name from intent: [packageName]
-                   - Follow standard structure: controller, service, model, config, exception
-
-                DO NOT:
-                - Add explanatory text outside code blocks
-                - Generate test files (focus on main code)
-                - Include placeholder comments like "// TODO"
-                - Use deprecated APIs
-
-                Generate COMPLETE, RUNNABLE code that can be immediately deployed.
-                """;
-        String llmOutput = llmClient.generate(businessLogicSystemPrompt, job.getPrompt());
+            // Store service name for meaningful download filename
+            job.setServiceName(intent.getServiceName());
+
+            // Intent-only artifacts are final already; stream them while the LLM is still writing
+            Map<String, String> scaffold = generationEngine.generateScaffold(intent);
+            scaffold.forEach((path, content) -> eventPublisher.publishFile(job.getId(), path, content));
+
+            updateStatus(job, "GENERATING");
+            if (llmOutputFuture != null && !llmOutputFuture.isDone() && CrudFileGenerator.generatesCrud(intent)) {
+                // The CRUD layer comes from the entities; ask only for the logic beyond it instead. A
+                // full answer that is already in is still used, the generated classes replace its copies.
+                llmOutputFuture.cancel(true);
+                streamed = new StreamedFiles(job.getId());
+                llmOutputFuture = forkBusinessLogic(job, intent, coalescingKey, streamed);
+            } else if (llmOutputFuture == null) {
+                String fanOutOutput = fanOutGenerator.generate(job.getPrompt(), intent);
+                // No usable plan: fall back to the single call
+                llmOutputFuture = fanOutOutput != null ? CompletableFuture.completedFuture(fanOutOutput)
+                        : forkBusinessLogic(job, intent, coalescingKey, streamed);
+            }
+            // The answer is kept from here on, so its files can be shown as they are written
+            streamed.start(intent, scaffold);
+            String llmOutput = llmOutputFuture.get();
+            return assemble(job, intent, llmOutput, scaffold, streamed.published);
+        } finally {
+            // No-op once the generation finished; interrupts the in-flight call otherwise
+            if (llmOutputFuture != null) {
+                llmOutputFuture.cancel(true);
+            }
+        }
+    }
 
+    /**
+     * Starts the business-logic call. Without an intent, or for one without JPA entities, the model
+     * writes the whole service; otherwise only the logic beyond the generated CRUD layer. The answer
+     * streams into {@code streamed}; a job that joined another job's call gets no chunks and shows
+     * its files at assembly instead.
+     */
+    private Future<String> forkBusinessLogic(GenerationJob job, IntentModel intent, String coalescingKey,
+            StreamedFiles streamed) {
+        if (intent == null || !CrudFileGenerator.generatesCrud(intent)) {
+            return jobExecutor.fork(() -> coalescer.execute("business-logic", coalescingKey,
+                    () -> llmClient.generateStream(BUSINESS_LOGIC_SYSTEM_PROMPT, job.getPrompt(), streamed)));
+        }
+        String systemPrompt = customLogicSystemPrompt(intent);
+        return jobExecutor.fork(() -> coalescer.execute("custom-logic", coalescingKey,
+                () -> llmClient.generateStream(systemPrompt, job.getPrompt(), streamed)));
+    }
+
+    static String customLogicSystemPrompt(IntentModel intent) {
+        StringBuilder generated = new StringBuilder();
+        for (EntityModel entity : intent.getEntities()) {
+            generated.append("   - ").append(entity.getName()).append(": model/").append(entity.getName())
+                    .append(".java, repository/").append(entity.getName()).append("Repository.java");
+            for (String path : CrudFileGenerator.classNames(entity)) {
+                generated.append(", ").append(path);
+            }
+            generated.append('\n');
+        }
+        generated.append("   - ").append(String.join(", ", CrudFileGenerator.SHARED_CLASS_NAMES));
+        return CUSTOM_LOGIC_SYSTEM_PROMPT.formatted(generated);
+    }
+
+    private GenerationJob assemble(GenerationJob job, IntentModel intent, String llmOutput,
+            Map<String, String> scaffold, Map<String, String> streamed) {
         if (llmOutput.startsWith("ERROR")) {
-            job.setStatus("FAILED");
-            job.setError(llmOutput);
+            fail(job, llmOutput);
             return job;
         }
 
-        Map<String, String> files = generationEngine.generateProject(intent, llmOutput);
+        updateStatus(job, "ASSEMBLING");
+        Map<String, String> files = generationEngine.generateProject(intent, llmOutput, scaffold,
+                (path, content) -> {
+                    // Files shown while the answer streamed in are only sent again if they changed
+                    if (!content.equals(streamed.get(path))) {
+                        eventPublisher.publishFile(job.getId(), path, content);
+                    }
+                });
 
+        jobRepository.saveFiles(job.getId(), files);
         job.setGeneratedFiles(files);
 
         // 4. Governance Scan
+        updateStatus(job, "SCANNING");
         java.util.List<String> violations = governanceService.scan(files);
         if (!violations.isEmpty()) {
-            job.setStatus("FAILED_GOVERNANCE");
+            updateStatus(job, "FAILED_GOVERNANCE");
         } else {
-            job.setStatus("COMPLETED");
+            updateStatus(job, "COMPLETED");
         }
 
         return job;
     }
 
+    private void updateStatus(GenerationJob job, String status) {
+        transition(job, status, null);
+    }
+
+    /**
+     * Moves the job to a new status unless it already reached a terminal one, so
+     * a cancelled or timed-out job keeps that status while its pipeline unwinds.
+     */
+    private boolean transition(GenerationJob job, String status, String error) {
+        synchronized (job) {
+            if (job.isFinished()) {
+                return false;
+            }
+            if (error != null) {
+                job.setError(error);
+            }
+            job.setStatus(status);
+        }
+        jobRepository.save(job);
+        eventPublisher.publishStatus(job);
+        return true;
+    }
+
+    private void finish(GenerationJob job) {
+        ScheduledFuture<?> timer = deadlineTimers.remove(job.getId());
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        jobStore.markFinished(job.getId());
+        eventPublisher.close(job);
+    }
+
+    private void fail(GenerationJob job, String error) {
+        transition(job, "FAILED", error);
+    }
+
+    /**
+     * Files of a business-logic answer published while it streams in. Chunks are
+     * held back until {@link #start} knows the intent, and with it where the files
+     * go; a speculative answer that gets replaced is never started, so none of its
+     * files are shown.
+     */
+    private final class StreamedFiles implements Consumer<String> {
+        private final String jobId;
+        private final Map<String, String> published = new ConcurrentHashMap<>();
+        private StringBuilder pending = new StringBuilder();
+        private Consumer<CharSequence> parser;
+
+        StreamedFiles(String jobId) {
+            this.jobId = jobId;
+        }
+
+        @Override
+        public synchronized void accept(String chunk) {
+            if (parser == null) {
+                pending.append(chunk);
+            } else {
+                parser.accept(chunk);
+            }
+        }
+
+        synchronized void start(IntentModel intent, Map<String, String> scaffold) {
+            parser = generationEngine.streamLlmOutput(intent, (path, content) -> {
+                // The scaffold replaces these at assembly
+                if (!scaffold.containsKey(path)) {
+                    published.put(path, content);
+                    eventPublisher.publishFile(jobId, path, content);
+                }
+            });
+            parser.accept(pending);
+            pending = null;
+        }
+    }
+
     public GenerationJob getJob(String jobId) {
-        return jobs.get(jobId);
+        return jobStore.get(jobId);
     }
 
-    public byte[] getProjectZip(String jobId) throws Exception {
-        GenerationJob job = jobs.get(jobId);
+    public byte[] getProjectZip(GenerationJob job) throws Exception {
         return ZipUtility.createZip(job.getGeneratedFiles());
     }
 }
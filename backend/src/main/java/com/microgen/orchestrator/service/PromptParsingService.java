@@ -1,15 +1,41 @@
 package com.microgen.orchestrator.service;
 
+import com.microgen.orchestrator.model.EntityModel;
 import com.microgen.orchestrator.model.IntentModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
 @Service
 @lombok.RequiredArgsConstructor
 public class PromptParsingService {
+    private static final Pattern JAVA_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
     private final com.microgen.orchestrator.adapter.LlmClient llmClient;
+    private final RuleBasedIntentExtractor ruleExtractor;
+    private final MeterRegistry meterRegistry;
     private final com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
 
+    // Rule-based extractions at or above this confidence skip the LLM round trip; 1.1 disables the fast path
+    @Value("${intent.rules.confidence-threshold:0.7}")
+    private double confidenceThreshold;
+
     public IntentModel parse(String prompt) {
+        RuleBasedIntentExtractor.Extraction extraction = ruleExtractor.extract(prompt);
+        if (extraction.confidence() >= confidenceThreshold) {
+            meterRegistry.counter("intent.extractions", "path", "rules").increment();
+            System.out.println("Intent extracted by rules (confidence " + extraction.confidence() + ")");
+            return extraction.intent();
+        }
+        meterRegistry.counter("intent.extractions", "path", "llm").increment();
+        return parseWithLlm(prompt);
+    }
+
+    private IntentModel parseWithLlm(String prompt) {
         String systemPrompt = """
                 You are a JSON extraction expert. Extract microservice configuration from the user prompt.
 
@@ -26,14 +52,20 @@ public class PromptParsingService {
                   "auth": "NONE",
                   "database": "H2",
                   "persistence": "NONE",
-                  "port": 8080
+                  "port": 8080,
+                  "entities": [{"name": "Order", "fields": [{"name": "total", "type": "java.math.BigDecimal"}]}]
                 }
 
+                "entities" lists the domain objects the service stores (PascalCase names), each with the
+                fields it needs as Java types: String, Integer, Long, Double, Boolean, java.math.BigDecimal,
+                java.time.LocalDate or java.time.LocalDateTime. Leave out the id, it is generated.
+                Use [] when the service stores nothing, and set "persistence" to "JPA" when it does.
+
                 Example 1 - Input: "Create a Kafka microservice"
-                Output: {"serviceName":"kafka-service","packageName":"com.example.kafka","language":"JAVA","framework":"SPRING_BOOT","architecture":"LAYERED","serviceType":"GENERAL","auth":"NONE","database":"H2","persistence":"NONE","port":8080}
+                Output: {"serviceName":"kafka-service","packageName":"com.example.kafka","language":"JAVA","framework":"SPRING_BOOT","architecture":"LAYERED","serviceType":"GENERAL","auth":"NONE","database":"H2","persistence":"NONE","port":8080,"entities":[]}
 
                 Example 2 - Input: "Order service with MySQL and JWT"
-                Output: {"serviceName":"order-service","packageName":"com.example.order","language":"JAVA","framework":"SPRING_BOOT","architecture":"LAYERED","serviceType":"GENERAL","auth":"JWT","database":"MYSQL","persistence":"JPA","port":8080}
+                Output: {"serviceName":"order-service","packageName":"com.example.order","language":"JAVA","framework":"SPRING_BOOT","architecture":"LAYERED","serviceType":"GENERAL","auth":"JWT","database":"MYSQL","persistence":"JPA","port":8080,"entities":[{"name":"Order","fields":[{"name":"customerName","type":"String"},{"name":"total","type":"java.math.BigDecimal"},{"name":"status","type":"String"}]}]}
 
                 Now extract from the user's prompt. Return ONLY the JSON object.
                 """;
@@ -48,7 +80,9 @@ public class PromptParsingService {
             // Extract JSON from various formats
             json = extractJson(json);
 
-            return objectMapper.readValue(json, IntentModel.class);
+            IntentModel intent = objectMapper.readValue(json, IntentModel.class);
+            intent.setEntities(usableEntities(intent.getEntities()));
+            return intent;
         } catch (Exception e) {
             System.err.println("Failed to parse LLM intent: " + e.getMessage());
             System.err.println("Using minimal intent - code generation will be fully dynamic based on prompt");
@@ -56,6 +90,34 @@ public class PromptParsingService {
         }
     }
 
+    // Entity and repository classes are rendered from these, so anything that would not compile is dropped.
+    // Field types are mapped to the ones the entity template supports; fields of any other type are dropped.
+    private static List<EntityModel> usableEntities(List<EntityModel> entities) {
+        if (entities == null) {
+            return null;
+        }
+        List<EntityModel> usable = new ArrayList<>();
+        for (EntityModel entity : entities) {
+            if (entity == null || entity.getName() == null || !JAVA_NAME.matcher(entity.getName()).matches()) {
+                continue;
+            }
+            List<EntityModel.FieldModel> fields = new ArrayList<>();
+            if (entity.getFields() != null) {
+                for (EntityModel.FieldModel field : entity.getFields()) {
+                    String type = field != null && field.getType() != null
+                            ? RuleBasedIntentExtractor.javaType(field.getType()) : null;
+                    if (type != null && field.getName() != null && JAVA_NAME.matcher(field.getName()).matches()
+                            && !field.getName().equalsIgnoreCase("id")) {
+                        fields.add(new EntityModel.FieldModel(field.getName(), type));
+                    }
+                }
+            }
+            String name = Character.toUpperCase(entity.getName().charAt(0)) + entity.getName().substring(1);
+            usable.add(new EntityModel(name, fields));
+        }
+        return usable.isEmpty() ? null : usable;
+    }
+
     private String extractJson(String response) {
         String json = response.trim();
 
@@ -0,0 +1,142 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.adapter.LlmCallContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Single-flight execution of expensive calls: concurrent callers with the same
+ * key share one in-flight call instead of each issuing their own. Nothing is
+ * cached; once the call completes the next caller starts a fresh one.
+ *
+ * The shared call runs on its own virtual thread, so every caller - including
+ * the one that started it - is just a waiter. Interrupting a waiter only
+ * detaches it; the call itself is cancelled when its last waiter leaves.
+ *
+ * The shared call runs under the latest {@link LlmCallContext} deadline among
+ * its waiters, or none if one of them has none, so a job with a short deadline
+ * cannot cut the call short for the others. Each waiter still stops waiting at
+ * its own deadline and then leaves like an interrupted one.
+ *
+ * Counts are published as {@code generation.coalescing.calls} tagged with the
+ * call kind and {@code result=leader|joined}; the joined share is the hit rate.
+ */
+@Component
+public class RequestCoalescer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final GenerationJobExecutor jobExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Flight<?>> flights = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(GenerationJobExecutor jobExecutor, MeterRegistry meterRegistry) {
+        this.jobExecutor = jobExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Prompts that differ only in surrounding or repeated whitespace are the same request. */
+    public static String normalize(String prompt) {
+        if (prompt == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(Normalizer.normalize(prompt, Normalizer.Form.NFC).trim()).replaceAll(" ");
+    }
+
+    /**
+     * Runs the call or joins the one in flight for the same kind and key.
+     * Throws {@link TimeoutException} if the caller's deadline passes first.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String kind, String key, Callable<V> call)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        String flightKey = kind + "\u0000" + key;
+        Instant deadline = LlmCallContext.getDeadline();
+        boolean[] leader = { false };
+        Flight<V> flight = (Flight<V>) flights.compute(flightKey, (k, existing) -> {
+            if (existing != null && existing.join(deadline)) {
+                return existing;
+            }
+            leader[0] = true;
+            return new Flight<V>(deadline);
+        });
+
+        if (leader[0]) {
+            flight.task = jobExecutor.fork(() -> {
+                LlmCallContext.bindDeadline(() -> flight.deadline);
+                try {
+                    flight.result.complete(call.call());
+                } catch (Throwable t) {
+                    flight.result.completeExceptionally(t);
+                } finally {
+                    flights.remove(flightKey, flight);
+                }
+                return null;
+            });
+        }
+        counter(kind, leader[0] ? "leader" : "joined").increment();
+
+        try {
+            if (deadline == null) {
+                return flight.result.get();
+            }
+            long remainingMillis = Math.max(0, Duration.between(Instant.now(), deadline).toMillis());
+            return flight.result.get(remainingMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException | TimeoutException e) {
+            if (flight.leave()) {
+                flights.remove(flightKey, flight);
+                flight.task.cancel(true);
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String kind, String result) {
+        return Counter.builder("generation.coalescing.calls")
+                .tag("kind", kind)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile Future<?> task;
+        // Latest deadline among the waiters; null once one of them has none
+        private volatile Instant deadline;
+        private int waiters = 1;
+
+        private Flight(Instant deadline) {
+            this.deadline = deadline;
+        }
+
+        // False once every waiter left; a new caller must start its own flight then
+        synchronized boolean join(Instant callerDeadline) {
+            if (waiters == 0) {
+                return false;
+            }
+            waiters++;
+            if (deadline != null && (callerDeadline == null || callerDeadline.isAfter(deadline))) {
+                deadline = callerDeadline;
+            }
+            return true;
+        }
+
+        synchronized boolean leave() {
+            return --waiters == 0;
+        }
+    }
+}
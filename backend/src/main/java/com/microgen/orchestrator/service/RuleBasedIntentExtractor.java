@@ -0,0 +1,218 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.model.EntityModel;
+import com.microgen.orchestrator.model.IntentModel;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic, keyword-based intent extraction for short prompts such as
+ * "Order service with MySQL and JWT". Fills the same fields the LLM
+ * extraction prompt asks for (plus simple entity declarations) and reports
+ * how confident it is, so {@link PromptParsingService} only pays for an LLM
+ * round trip when the prompt is too long or too ambiguous for the rules.
+ *
+ * A service name alone says nothing about what to generate, so confidence
+ * stays below {@link #MAX_WITHOUT_SUBSTANCE} unless the prompt also names an
+ * auth scheme, a database or persistence technology, or an entity. Prompt
+ * length only tips the balance between otherwise equal extractions.
+ */
+@Component
+public class RuleBasedIntentExtractor {
+
+    public record Extraction(IntentModel intent, double confidence) {
+    }
+
+    // Ceiling without any auth, persistence or entity signal; below the default fast-path threshold
+    static final double MAX_WITHOUT_SUBSTANCE = 0.5;
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "the", "create", "build", "generate", "make",
+            "simple", "basic", "new", "spring", "boot", "java", "rest", "restful", "me", "please", "for", "with",
+            "and", "micro", "web", "api", "my", "our", "small");
+
+    // "<name> service" / "<name> microservice" / "<name>-service"
+    private static final Pattern SERVICE_NAME = Pattern.compile(
+            "(?i)\\b([a-z][a-z0-9]*(?:[- ][a-z][a-z0-9]*)?)[- ](?:micro-?)?service\\b");
+    // "service called X" / "service named X"
+    private static final Pattern NAMED_SERVICE = Pattern.compile(
+            "(?i)\\b(?:micro-?)?service\\s+(?:called|named)\\s+['\"]?([a-z][a-z0-9-]*)");
+    private static final Pattern PACKAGE = Pattern.compile("(?i)\\bpackage\\s+([a-z_][a-z0-9_]*(?:\\.[a-z_][a-z0-9_]*)+)");
+    private static final Pattern PORT = Pattern.compile("(?i)\\bport\\s*(?:[:=]|of|on)?\\s*(\\d{2,5})\\b");
+    // "Customer(name:String, email:String)" or "entity Customer with fields name:String, email:String"
+    private static final Pattern ENTITY_PARENS = Pattern.compile("\\b([A-Z][A-Za-z0-9]*)\\s*\\(([^)]*:[^)]*)\\)");
+    private static final Pattern ENTITY_WITH = Pattern.compile(
+            "(?i)\\bentity\\s+([A-Za-z][A-Za-z0-9]*)\\s+with\\s+(?:fields?\\s+)?((?:[a-z][a-z0-9]*\\s*:\\s*[A-Za-z][A-Za-z0-9<>]*\\s*,?\\s*(?:and\\s+)?)+)");
+    private static final Pattern FIELD = Pattern.compile("([A-Za-z][A-Za-z0-9]*)\\s*:\\s*([A-Za-z][A-Za-z0-9<>]*)");
+
+    public Extraction extract(String prompt) {
+        IntentModel intent = new IntentModel();
+        intent.setPort(8080);
+        intent.setPersistence("NONE");
+        if (prompt == null || prompt.isBlank()) {
+            return new Extraction(intent, 0.0);
+        }
+        String lower = prompt.toLowerCase(Locale.ROOT);
+        double confidence = 0.0;
+        // Auth, persistence and entities: what the generated project actually depends on
+        int substantive = 0;
+
+        String baseName = serviceBaseName(prompt);
+        if (baseName != null) {
+            intent.setServiceName(baseName + "-service");
+            intent.setPackageName("com.example." + baseName.replace("-", ""));
+            confidence += 0.45;
+        }
+        Matcher pkg = PACKAGE.matcher(prompt);
+        if (pkg.find()) {
+            intent.setPackageName(pkg.group(1).toLowerCase(Locale.ROOT));
+        }
+
+        boolean jwt = containsWord(lower, "jwt");
+        boolean oauth = containsWord(lower, "oauth2") || containsWord(lower, "oauth");
+        if (jwt && oauth) {
+            confidence -= 0.3;
+        }
+        if (oauth) {
+            intent.setAuth("OAUTH2");
+            substantive++;
+        } else if (jwt) {
+            intent.setAuth("JWT");
+            substantive++;
+        }
+
+        List<String> databases = new ArrayList<>();
+        if (containsWord(lower, "mysql")) {
+            databases.add("MYSQL");
+        }
+        if (containsWord(lower, "postgres") || containsWord(lower, "postgresql")) {
+            databases.add("POSTGRESQL");
+        }
+        if (containsWord(lower, "h2")) {
+            databases.add("H2");
+        }
+        if (databases.size() > 1) {
+            confidence -= 0.3;
+        }
+        if (!databases.isEmpty()) {
+            intent.setDatabase(databases.get(0));
+        }
+
+        if (containsWord(lower, "mybatis")) {
+            intent.setPersistence("MYBATIS");
+            substantive++;
+        } else if (containsWord(lower, "jpa") || containsWord(lower, "hibernate") || !databases.isEmpty()) {
+            intent.setPersistence("JPA");
+            substantive++;
+        }
+
+        Matcher port = PORT.matcher(prompt);
+        if (port.find()) {
+            int value = Integer.parseInt(port.group(1));
+            if (value > 0 && value < 65536) {
+                intent.setPort(value);
+                confidence += 0.05;
+            }
+        }
+
+        List<EntityModel> entities = extractEntities(prompt);
+        if (!entities.isEmpty()) {
+            intent.setEntities(entities);
+            substantive++;
+        }
+
+        if (substantive > 0) {
+            confidence += 0.25 + Math.min(0.2, (substantive - 1) * 0.1);
+        }
+
+        // Tie-breaker only: short prompts leave a little less for the LLM to find that the rules missed
+        int words = lower.split("\\s+").length;
+        if (words <= 25) {
+            confidence += 0.02;
+        } else if (words > 60) {
+            confidence -= 0.05;
+        }
+
+        if (substantive == 0) {
+            confidence = Math.min(confidence, MAX_WITHOUT_SUBSTANCE);
+        }
+        return new Extraction(intent, Math.max(0.0, Math.min(1.0, confidence)));
+    }
+
+    private String serviceBaseName(String prompt) {
+        Matcher named = NAMED_SERVICE.matcher(prompt);
+        if (named.find()) {
+            String name = named.group(1).toLowerCase(Locale.ROOT).replaceAll("-?service$", "");
+            return name.isEmpty() ? null : name;
+        }
+        Matcher matcher = SERVICE_NAME.matcher(prompt);
+        while (matcher.find()) {
+            List<String> parts = new ArrayList<>();
+            for (String word : matcher.group(1).toLowerCase(Locale.ROOT).split("[- ]")) {
+                if (!STOP_WORDS.contains(word)) {
+                    parts.add(word);
+                }
+            }
+            if (!parts.isEmpty()) {
+                return String.join("-", parts);
+            }
+        }
+        return null;
+    }
+
+    private List<EntityModel> extractEntities(String prompt) {
+        List<EntityModel> entities = new ArrayList<>();
+        for (Pattern pattern : List.of(ENTITY_PARENS, ENTITY_WITH)) {
+            Matcher matcher = pattern.matcher(prompt);
+            while (matcher.find()) {
+                List<EntityModel.FieldModel> fields = new ArrayList<>();
+                Matcher field = FIELD.matcher(matcher.group(2));
+                while (field.find()) {
+                    // The JPA template declares the id itself
+                    String type = javaType(field.group(2));
+                    if (!field.group(1).equalsIgnoreCase("id") && type != null) {
+                        fields.add(new EntityModel.FieldModel(field.group(1), type));
+                    }
+                }
+                String name = capitalize(matcher.group(1));
+                boolean duplicate = entities.stream().anyMatch(e -> e.getName().equals(name));
+                if (!fields.isEmpty() && !duplicate) {
+                    entities.add(new EntityModel(name, fields));
+                }
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * The Java type a field type stands for, spelled as the generated entities
+     * declare it, or null for types they do not support.
+     */
+    static String javaType(String type) {
+        return switch (type.trim().toLowerCase(Locale.ROOT)) {
+            case "string", "text", "java.lang.string" -> "String";
+            case "int", "integer", "java.lang.integer" -> "Integer";
+            case "long", "java.lang.long" -> "Long";
+            case "double", "java.lang.double" -> "Double";
+            case "float", "java.lang.float" -> "Float";
+            case "boolean", "bool", "java.lang.boolean" -> "Boolean";
+            case "decimal", "bigdecimal", "java.math.bigdecimal" -> "java.math.BigDecimal";
+            case "date", "localdate", "java.time.localdate" -> "java.time.LocalDate";
+            case "datetime", "timestamp", "localdatetime", "java.time.localdatetime" -> "java.time.LocalDateTime";
+            default -> null;
+        };
+    }
+
+    private static boolean containsWord(String text, String word) {
+        return Pattern.compile("\\b" + Pattern.quote(word) + "\\b").matcher(text).find();
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
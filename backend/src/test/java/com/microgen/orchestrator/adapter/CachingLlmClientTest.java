@@ -0,0 +1,103 @@
+package com.microgen.orchestrator.adapter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingLlmClientTest {
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    // Every answer is the same size, so the disk budget translates into an entry count
+    private final LlmClient provider = (systemPrompt, userPrompt) -> {
+        calls.incrementAndGet();
+        return userPrompt + "-" + "x".repeat(1_000);
+    };
+
+    @Test
+    void diskTierStaysWithinItsBudget() throws Exception {
+        CachingLlmClient cache = cache(5_000);
+        for (int i = 0; i < 20; i++) {
+            cache.generate("system", "prompt-" + i);
+        }
+
+        assertThat(diskUsage()).isLessThanOrEqualTo(5_000);
+        assertThat(files()).isNotEmpty();
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedFilesFirst() throws Exception {
+        CachingLlmClient cache = cache(5_000);
+        for (int i = 0; i < 4; i++) {
+            cache.generate("system", "prompt-" + i);
+        }
+        // Age every file, then hit prompt-0 through a new instance so the hit is served from disk
+        age(files(), Duration.ofMinutes(10));
+        CachingLlmClient restarted = cache(5_000);
+        restarted.generate("system", "prompt-0");
+        assertThat(calls).hasValue(4);
+
+        // Each of these pushes one file out
+        for (int i = 4; i < 7; i++) {
+            restarted.generate("system", "prompt-" + i);
+        }
+
+        CachingLlmClient fresh = cache(5_000);
+        fresh.generate("system", "prompt-0");
+        fresh.generate("system", "prompt-1");
+        // prompt-0 was hit, so prompt-1 to prompt-3 went instead
+        assertThat(calls).hasValue(8);
+    }
+
+    @Test
+    void startupTrimsToALoweredBudget() throws Exception {
+        CachingLlmClient cache = cache(100_000);
+        for (int i = 0; i < 20; i++) {
+            cache.generate("system", "prompt-" + i);
+        }
+        assertThat(diskUsage()).isGreaterThan(5_000);
+
+        cache(5_000);
+
+        assertThat(diskUsage()).isLessThanOrEqualTo(5_000);
+    }
+
+    private CachingLlmClient cache(long diskMaxBytes) throws Exception {
+        // A memory tier of one entry, so lookups reach the disk
+        return new CachingLlmClient(provider, 1, 64 * 1024, Duration.ofHours(1), dir, Duration.ofDays(7),
+                diskMaxBytes, new SimpleMeterRegistry());
+    }
+
+    private List<Path> files() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".json")).toList();
+        }
+    }
+
+    private long diskUsage() throws Exception {
+        long total = 0;
+        for (Path file : files()) {
+            total += Files.size(file);
+        }
+        return total;
+    }
+
+    private static void age(List<Path> files, Duration by) throws Exception {
+        for (Path file : files) {
+            FileTime modified = Files.getLastModifiedTime(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() - by.toMillis()));
+        }
+    }
+}
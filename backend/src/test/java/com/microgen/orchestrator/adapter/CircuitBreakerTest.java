@@ -0,0 +1,92 @@
+package com.microgen.orchestrator.adapter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofMinutes(1), Duration.ofMinutes(10));
+
+        breaker.onFailure(false, null);
+        breaker.onFailure(false, null);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure(false, null);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.remainingOpen()).isGreaterThan(Duration.ofSeconds(50));
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1), Duration.ofMinutes(10));
+
+        breaker.onFailure(false, null);
+        breaker.onSuccess();
+        breaker.onFailure(false, null);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void immediateFailureOpensRightAwayForRetryAfter() {
+        CircuitBreaker breaker = new CircuitBreaker(5, Duration.ofSeconds(1), Duration.ofMinutes(10));
+
+        breaker.onFailure(true, Duration.ofMinutes(3));
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.remainingOpen()).isGreaterThan(Duration.ofMinutes(2));
+    }
+
+    @Test
+    void halfOpenLetsOneProbeThroughAndClosesOnSuccess() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(20), Duration.ofSeconds(1));
+        breaker.onFailure(false, null);
+        Thread.sleep(40);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedProbeReopensForTwiceAsLongUpToTheMaximum() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(50), Duration.ofMillis(150));
+        breaker.onFailure(false, null);
+
+        Duration openFor = Duration.ofMillis(50);
+        for (long reopenMillis : new long[] {50, 100, 150, 150}) {
+            Thread.sleep(openFor.toMillis() + 20);
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure(false, null);
+
+            assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+            assertThat(breaker.remainingOpen()).isBetween(Duration.ofMillis(reopenMillis - 40),
+                    Duration.ofMillis(reopenMillis));
+            openFor = Duration.ofMillis(reopenMillis);
+        }
+    }
+
+    @Test
+    void ignoredProbeFreesTheProbeSlot() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(20), Duration.ofSeconds(1));
+        breaker.onFailure(false, null);
+        Thread.sleep(40);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onIgnored();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+}
@@ -0,0 +1,104 @@
+package com.microgen.orchestrator.adapter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitedLlmClientTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private int status = 200;
+    private Map<String, String> headers = Map.of();
+
+    // Answers every call and records the configured status and x-ratelimit-* headers as the HTTP layer would
+    private final LlmClient provider = (systemPrompt, userPrompt) -> {
+        HttpHeaders response = new HttpHeaders();
+        headers.forEach(response::set);
+        LlmCallContext.recordResponse(status, response);
+        return status == 200 ? "ok" : "ERROR: HTTP " + status;
+    };
+
+    @AfterEach
+    void tearDown() {
+        LlmCallContext.clearExchange();
+    }
+
+    @Test
+    void unlimitedBudgetAdoptsAnnouncedLimit() {
+        RateLimitedLlmClient client = client(0, 0);
+        assertThat(available("requests")).isNaN();
+
+        headers = Map.of("x-ratelimit-limit-requests", "3", "x-ratelimit-remaining-requests", "1");
+        assertThat(client.generate("system", "user")).isEqualTo("ok");
+
+        assertThat(available("requests")).isEqualTo(1);
+    }
+
+    @Test
+    void remainingHeaderLowersTheBudgetUntilCallsWait() {
+        RateLimitedLlmClient client = client(10, 0);
+
+        headers = Map.of("x-ratelimit-limit-requests", "10", "x-ratelimit-remaining-requests", "0");
+        assertThat(client.generate("system", "user")).isEqualTo("ok");
+        assertThat(available("requests")).isZero();
+
+        assertThat(client.generate("system", "user")).startsWith("ERROR: ").contains("request budget exhausted");
+    }
+
+    @Test
+    void remainingAboveLocalViewDoesNotRefill() {
+        RateLimitedLlmClient client = client(5, 0);
+
+        headers = Map.of("x-ratelimit-limit-requests", "5", "x-ratelimit-remaining-requests", "5");
+        client.generate("system", "user");
+
+        // The local call already took one; the provider's count may lag behind
+        assertThat(available("requests")).isEqualTo(4);
+    }
+
+    @Test
+    void singleBucketHeadersAreUsedForRequests() {
+        RateLimitedLlmClient client = client(0, 0);
+
+        headers = Map.of("x-ratelimit-limit", "20", "x-ratelimit-remaining", "7");
+        client.generate("system", "user");
+
+        assertThat(available("requests")).isEqualTo(7);
+    }
+
+    @Test
+    void tokenHeadersSyncTheTokenBudget() {
+        RateLimitedLlmClient client = client(0, 0);
+
+        headers = Map.of("x-ratelimit-limit-tokens", "10000", "x-ratelimit-remaining-tokens", "2500");
+        client.generate("system", "user");
+
+        assertThat(available("tokens")).isEqualTo(2500);
+    }
+
+    @Test
+    void tooManyRequestsDrainsTheRequestBudget() {
+        RateLimitedLlmClient client = client(10, 0);
+
+        status = 429;
+        assertThat(client.generate("system", "user")).isEqualTo("ERROR: HTTP 429");
+
+        assertThat(available("requests")).isZero();
+    }
+
+    private RateLimitedLlmClient client(long requestsPerPeriod, long tokensPerPeriod) {
+        return new RateLimitedLlmClient(provider, requestsPerPeriod, tokensPerPeriod, Duration.ofHours(1), 100,
+                Duration.ofMillis(50), meterRegistry);
+    }
+
+    private double available(String budget) {
+        return meterRegistry.get("llm.ratelimit.available").tag("budget", budget).gauge().value();
+    }
+}
@@ -0,0 +1,120 @@
+package com.microgen.orchestrator.adapter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares reading a completion body the old way (whole body into a String,
+ * {@code readTree}, then {@code choices[0].message.content}) with
+ * {@link StreamingResponses#readContent}, which pulls the content field
+ * straight off the stream. Prints bytes allocated and time per call, read
+ * from the thread's allocation counter:
+ *
+ * <pre>
+ * java -cp "target/test-classes:target/classes:..." \
+ *     com.microgen.orchestrator.adapter.ResponseParsingBenchmark --tokens 4000 --iterations 20000
+ * </pre>
+ *
+ * StreamingResponsesTest checks that both return the same content.
+ */
+public class ResponseParsingBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        int tokens = Integer.parseInt(options.getOrDefault("tokens", "4000"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "20000"));
+
+        byte[] body = completionBody(tokens);
+        System.out.printf("Completion body: %d bytes (~%d tokens of code)%n", body.length, tokens);
+
+        for (int round = 1; round <= 2; round++) {
+            // The first round warms up the JIT; the second one is reported
+            Result tree = measure(iterations, () -> treeContent(body));
+            Result streamed = measure(iterations, () -> streamedContent(body));
+            if (round == 2) {
+                print("readTree", tree);
+                print("streaming", streamed);
+                System.out.printf("Allocation saved: %.0f%%%n",
+                        100.0 * (tree.bytesPerCall - streamed.bytesPerCall) / tree.bytesPerCall);
+            }
+        }
+    }
+
+    // What the adapters did before: StringHttpMessageConverter, then a full JSON tree
+    private static String treeContent(byte[] body) throws IOException {
+        String response = new String(new ByteArrayInputStream(body).readAllBytes(), StandardCharsets.UTF_8);
+        JsonNode root = OBJECT_MAPPER.readTree(response);
+        return root.path("choices").get(0).path("message").path("content").asText();
+    }
+
+    private static String streamedContent(byte[] body) throws IOException {
+        InputStream stream = new ByteArrayInputStream(body);
+        return StreamingResponses.readContent(stream, OBJECT_MAPPER, StreamingResponses.CHAT_CONTENT);
+    }
+
+    private static Result measure(int iterations, Parse parse) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long sink = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += parse.content().length();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        if (sink == 0) {
+            System.out.println("(empty content)");
+        }
+        return new Result(allocated / iterations, elapsed / 1000.0 / iterations);
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-10s %10d bytes/call %10.1f us/call%n", name, result.bytesPerCall, result.microsPerCall);
+    }
+
+    /** An OpenAI-style completion whose content is a multi-file Java answer of about {@code tokens} tokens. */
+    static byte[] completionBody(int tokens) throws IOException {
+        StringBuilder code = new StringBuilder();
+        for (int file = 1; code.length() < tokens * 4; file++) {
+            code.append("/// START FILE: Order").append(file).append("Service.java\n")
+                    .append("package com.example.orders.service;\n\n")
+                    .append("import org.springframework.stereotype.Service;\n\n")
+                    .append("@Service\npublic class Order").append(file).append("Service {\n")
+                    .append("    public String describe(String \"quoted\" input) {\n")
+                    .append("        return \"order \" + input;\n    }\n}\n/// END FILE\n");
+        }
+
+        Map<String, Object> message = Map.of("role", "assistant", "content", code.toString());
+        Map<String, Object> choice = Map.of("index", 0, "message", message, "finish_reason", "stop");
+        Map<String, Object> completion = Map.of(
+                "id", "chatcmpl-benchmark",
+                "object", "chat.completion",
+                "model", "benchmark-model",
+                "choices", List.of(choice),
+                "usage", Map.of("prompt_tokens", 900, "completion_tokens", tokens, "total_tokens", 900 + tokens));
+        return OBJECT_MAPPER.writeValueAsBytes(completion);
+    }
+
+    @FunctionalInterface
+    private interface Parse {
+        String content() throws IOException;
+    }
+
+    private record Result(long bytesPerCall, double microsPerCall) {
+    }
+}
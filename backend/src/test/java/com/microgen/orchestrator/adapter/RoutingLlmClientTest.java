@@ -0,0 +1,121 @@
+package com.microgen.orchestrator.adapter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoutingLlmClientTest {
+
+    private static final String FAST = "You extract intents.";
+    private static final String SLOW = "You write whole services.";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicBoolean hangNext = new AtomicBoolean();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final RoutingLlmClient router = new RoutingLlmClient(List.of(provider("a"), provider("b")), true, 0.95,
+            Duration.ZERO, Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofMinutes(1), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        router.close();
+    }
+
+    @Test
+    void hedgesEachCallClassAtItsOwnLatency() {
+        for (int i = 0; i < 10; i++) {
+            router.generate(SLOW, "service");
+        }
+        for (int i = 0; i < 30; i++) {
+            router.generate(FAST, "intent");
+        }
+        double hedgesBefore = hedges("fired");
+
+        // The primary hangs; the fast calls alone set the hedge delay, not the slow ones
+        hangNext.set(true);
+        long start = System.nanoTime();
+        String response = router.generate(FAST, "intent");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(response).endsWith("-ok");
+        assertThat(hedges("fired")).isEqualTo(hedgesBefore + 1);
+        assertThat(hedges("won")).isGreaterThanOrEqualTo(1);
+        assertThat(elapsedMillis).isLessThan(250);
+    }
+
+    @Test
+    void closeCancelsCallsStillRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        LlmClient hanging = new LlmClient() {
+            @Override
+            public String generate(String systemPrompt, String userPrompt) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "ERROR: interrupted";
+            }
+
+            @Override
+            public String getProviderName() {
+                return "hanging";
+            }
+        };
+        RoutingLlmClient client = new RoutingLlmClient(List.of(hanging, provider("b")), false, 0.95,
+                Duration.ZERO, Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+        Thread caller = Thread.ofVirtual().start(() -> client.generate(FAST, "intent"));
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        client.close();
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        caller.join(5_000);
+    }
+
+    @Test
+    void callsAfterCloseReturnAnError() {
+        router.close();
+
+        assertThat(router.generate(FAST, "intent")).startsWith("ERROR:");
+    }
+
+    // Answers FAST in about a millisecond and SLOW in 300 ms; hangs once when hangNext is set
+    private LlmClient provider(String name) {
+        return new LlmClient() {
+            @Override
+            public String generate(String systemPrompt, String userPrompt) {
+                try {
+                    if (hangNext.compareAndSet(true, false)) {
+                        release.await();
+                    }
+                    Thread.sleep(systemPrompt.equals(SLOW) ? 300 : 1);
+                } catch (InterruptedException e) {
+                    return "ERROR: interrupted";
+                }
+                return name + "-ok";
+            }
+
+            @Override
+            public String getProviderName() {
+                return name;
+            }
+        };
+    }
+
+    private double hedges(String result) {
+        return meterRegistry.get("llm.routing.hedges").tag("result", result).counter().count();
+    }
+}
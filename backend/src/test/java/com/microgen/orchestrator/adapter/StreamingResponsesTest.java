@@ -0,0 +1,100 @@
+package com.microgen.orchestrator.adapter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingResponsesTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void readContentMatchesTreeParsing() throws IOException {
+        byte[] body = completionBody(4000);
+
+        String streamed = StreamingResponses.readContent(new ByteArrayInputStream(body), OBJECT_MAPPER,
+                StreamingResponses.CHAT_CONTENT);
+
+        // What the adapters did before: the whole body into a String, then a full JSON tree
+        JsonNode root = OBJECT_MAPPER.readTree(new String(body, StandardCharsets.UTF_8));
+        assertThat(streamed).isEqualTo(root.path("choices").get(0).path("message").path("content").asText())
+                .contains("/// START FILE: Order1Service.java");
+    }
+
+    @Test
+    void readContentFollowsNestedPaths() throws IOException {
+        byte[] ollama = OBJECT_MAPPER.writeValueAsBytes(Map.of("model", "m", "done", true,
+                "message", Map.of("role", "assistant", "content", "ollama \"text\"")));
+        byte[] gemini = OBJECT_MAPPER.writeValueAsBytes(Map.of("candidates", List.of(Map.of(
+                "content", Map.of("parts", List.of(Map.of("text", "gemini text")))))));
+
+        assertThat(StreamingResponses.readContent(new ByteArrayInputStream(ollama), OBJECT_MAPPER,
+                StreamingResponses.OLLAMA_CONTENT)).isEqualTo("ollama \"text\"");
+        assertThat(StreamingResponses.readContent(new ByteArrayInputStream(gemini), OBJECT_MAPPER,
+                StreamingResponses.GEMINI_CONTENT)).isEqualTo("gemini text");
+    }
+
+    @Test
+    void serverSentEventsDeliverEachDelta() throws IOException {
+        String events = """
+                data: {"choices":[{"delta":{"role":"assistant"}}]}
+
+                data: {"choices":[{"delta":{"content":"/// START FILE: A.java\\n"}}]}
+
+                data: {"choices":[{"delta":{"content":"class A {}"}}]}
+
+                data: [DONE]
+
+                """;
+        List<String> chunks = new ArrayList<>();
+
+        String completion = StreamingResponses.readServerSentEvents(
+                new ByteArrayInputStream(events.getBytes(StandardCharsets.UTF_8)), OBJECT_MAPPER, chunks::add);
+
+        assertThat(chunks).containsExactly("/// START FILE: A.java\n", "class A {}");
+        assertThat(completion).isEqualTo("/// START FILE: A.java\nclass A {}");
+    }
+
+    @Test
+    void errorBodyIsReportedAsIOException() {
+        byte[] body = "{\"error\": {\"message\": \"quota exceeded\", \"type\": \"insufficient_quota\"}}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> StreamingResponses.readContent(new ByteArrayInputStream(body), OBJECT_MAPPER,
+                StreamingResponses.CHAT_CONTENT))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("quota exceeded");
+    }
+
+    /** An OpenAI-style completion whose content is a multi-file Java answer of about {@code tokens} tokens. */
+    private static byte[] completionBody(int tokens) throws IOException {
+        StringBuilder code = new StringBuilder();
+        for (int file = 1; code.length() < tokens * 4; file++) {
+            code.append("/// START FILE: Order").append(file).append("Service.java\n")
+                    .append("package com.example.orders.service;\n\n")
+                    .append("@Service\npublic class Order").append(file).append("Service {\n")
+                    .append("    public String describe(String \"quoted\" input) {\n")
+                    .append("        return \"order \\u00e9 \" + input;\n    }\n}\n/// END FILE\n");
+        }
+
+        Map<String, Object> message = Map.of("role", "assistant", "content", code.toString());
+        Map<String, Object> choice = Map.of("index", 0, "message", message, "finish_reason", "stop");
+        Map<String, Object> completion = Map.of(
+                "id", "chatcmpl-test",
+                "object", "chat.completion",
+                "model", "test-model",
+                "choices", List.of(choice),
+                "usage", Map.of("prompt_tokens", 900, "completion_tokens", tokens, "total_tokens", 900 + tokens));
+        return OBJECT_MAPPER.writeValueAsBytes(completion);
+    }
+}
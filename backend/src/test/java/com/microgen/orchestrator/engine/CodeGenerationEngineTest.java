@@ -0,0 +1,70 @@
+package com.microgen.orchestrator.engine;
+
+import com.microgen.orchestrator.engine.generator.ApplicationFileGenerator;
+import com.microgen.orchestrator.model.IntentModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CodeGenerationEngineTest {
+
+  private static final String OUTPUT = """
+      [{"groupId": "org.springframework.boot", "artifactId": "spring-boot-starter-web"}]
+      /// START FILE: OrderController.java
+      package com.example.order.controller;
+
+      public class OrderController {
+      }
+      /// END FILE
+      /// START FILE: OrderService.java
+      package com.other;
+
+      public class OrderService {
+      }
+      /// END FILE
+      /// START FILE: PriceUtil.java
+      package com.example.order.util;
+
+      public class PriceUtil {
+      """;
+
+  private final CodeGenerationEngine engine = new CodeGenerationEngine(List.of(new ApplicationFileGenerator()), 1, 50);
+
+  @AfterEach
+  void tearDown() {
+    engine.shutdown();
+  }
+
+  @Test
+  void streamedFilesMatchAssembly() {
+    IntentModel intent = intent();
+    Map<String, String> streamed = new LinkedHashMap<>();
+    Consumer<CharSequence> sink = engine.streamLlmOutput(intent, streamed::put);
+    for (int i = 0; i < OUTPUT.length(); i += 7) {
+      sink.accept(OUTPUT.substring(i, Math.min(OUTPUT.length(), i + 7)));
+    }
+
+    Map<String, String> assembled = engine.generateProject(intent, OUTPUT);
+
+    assertThat(streamed).containsOnlyKeys("src/main/java/com/example/order/controller/OrderController.java",
+        "src/main/java/com/example/order/service/OrderService.java");
+    streamed.forEach((path, content) -> assertThat(assembled).containsEntry(path, content));
+    assertThat(streamed.get("src/main/java/com/example/order/service/OrderService.java"))
+        .startsWith("package com.example.order.service;");
+    // The truncated last block only shows up once the whole answer is in
+    assertThat(assembled).containsKey("src/main/java/com/example/order/util/PriceUtil.java");
+  }
+
+  private static IntentModel intent() {
+    IntentModel intent = new IntentModel();
+    intent.setServiceName("order-service");
+    intent.setPackageName("com.example.order");
+    return intent;
+  }
+}
@@ -0,0 +1,126 @@
+package com.microgen.orchestrator.engine;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Timing run for {@link DependencyBlockScanner}:
+ *
+ * <pre>
+ * java -cp "target/test-classes:target/classes:..." \
+ *     com.microgen.orchestrator.engine.DependencyBlockScannerBenchmark --fuzz 20000 --seed 42
+ * </pre>
+ *
+ * <ol>
+ * <li>Fuzz: random mixes of the syntax the scanner reacts to; the time per
+ * character is reported.</li>
+ * <li>Adversarial inputs (unclosed brackets, comments, strings, tags and
+ * {@code <project>} documents) timed against the regex chain it replaced, at
+ * growing sizes, so linear and quadratic growth are easy to tell apart.</li>
+ * </ol>
+ *
+ * DependencyBlockScannerTest checks the results themselves.
+ */
+public class DependencyBlockScannerBenchmark {
+
+  private static final String DEPENDENCIES = """
+      [
+        {"groupId": "org.springframework.boot", "artifactId": "spring-boot-starter-web"},
+        {"groupId": "org.postgresql", "artifactId": "postgresql", "note": "needs ] and [ in \\"strings\\""}
+      ]""";
+
+  private static final String[] FUZZ_TOKENS = {"[", "]", "[{", "}]", "{", "}", "\"", "\\", "\\\"", "/*", "*/", "//",
+      "\n", "<", ">", "<project>", "</project>", "```", "```json\n", "```java\n", "/// START FILE: A.java\n",
+      "/// END FILE\n", "\"artifactId\"", ":", ",", " ", "dep", "http://x", DEPENDENCIES};
+
+  public static void main(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+    }
+    fuzz(Integer.parseInt(options.getOrDefault("fuzz", "20000")),
+        Long.parseLong(options.getOrDefault("seed", String.valueOf(System.nanoTime()))));
+    adversarial();
+  }
+
+  private static void fuzz(int runs, long seed) {
+    Random random = new Random(seed);
+    long nanos = 0;
+    long chars = 0;
+    int found = 0;
+    for (int run = 0; run < runs; run++) {
+      StringBuilder input = new StringBuilder();
+      int tokens = 1 + random.nextInt(400);
+      for (int t = 0; t < tokens; t++) {
+        input.append(FUZZ_TOKENS[random.nextInt(FUZZ_TOKENS.length)]);
+      }
+      String text = input.toString();
+      long start = System.nanoTime();
+      String json = DependencyBlockScanner.find(text);
+      if (run > runs / 10) {
+        // Skip JIT warm-up
+        nanos += System.nanoTime() - start;
+        chars += text.length();
+      }
+      if (!json.isEmpty()) {
+        found++;
+      }
+    }
+    System.out.printf("Fuzz: %d inputs (seed %d), %d with a dependency array, %.1f ns/char%n", runs, seed,
+        found, (double) nanos / Math.max(1, chars));
+  }
+
+  private static void adversarial() {
+    Map<String, IntFunction<String>> inputs = new LinkedHashMap<>();
+    inputs.put("open brackets", n -> "[".repeat(n));
+    inputs.put("open comment", n -> "/*" + "x*".repeat(n / 2));
+    inputs.put("open tags", n -> "<a ".repeat(n / 3));
+    inputs.put("open projects", n -> "<project>".repeat(n / 9));
+    inputs.put("open string", n -> "[{\"" + "\\\"[".repeat(n / 3));
+    inputs.put("array soup", n -> "[{}]".repeat(n / 4));
+
+    System.out.printf("%-14s %10s %14s %14s%n", "input", "size", "regex ms", "scanner ms");
+    for (Map.Entry<String, IntFunction<String>> input : inputs.entrySet()) {
+      for (int size : new int[] {10_000, 40_000, 160_000}) {
+        String text = input.getValue().apply(size);
+        double regex = time(() -> legacyClean(text));
+        double scanner = time(() -> DependencyBlockScanner.find(text));
+        System.out.printf("%-14s %10d %14.2f %14.3f%n", input.getKey(), text.length(), regex, scanner);
+      }
+    }
+  }
+
+  private static double time(Runnable run) {
+    run.run();
+    long start = System.nanoTime();
+    run.run();
+    return (System.nanoTime() - start) / 1_000_000.0;
+  }
+
+  /** The cleanLlmOutput regex chain and bracket search the scanner replaced. */
+  static String legacyClean(String llmResponse) {
+    String response = llmResponse;
+    response = response.replaceAll("(?is)///\\s*(START|END)\\s*FILE\\s*:?\\s*[\\w./-]*\\s*\n?", "");
+    response = response.replaceAll("(?s)<project.*?/project>", "");
+    response = response.replaceAll("(?s)<[^>]*>", "");
+    response = response.replaceAll("(?s)``````", "");
+    response = response.replaceAll("(?m)^\\s*//.*$", "");
+    response = response.replaceAll("/\\*.*?\\*/", "");
+
+    int arrayStart = response.indexOf('[');
+    if (arrayStart != -1) {
+      int count = 1;
+      for (int i = arrayStart + 1; i < response.length(); i++) {
+        if (response.charAt(i) == '[') {
+          count++;
+        } else if (response.charAt(i) == ']' && --count == 0) {
+          return response.substring(arrayStart, i + 1);
+        }
+      }
+    }
+    return "";
+  }
+}
@@ -0,0 +1,112 @@
+package com.microgen.orchestrator.engine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class DependencyBlockScannerTest {
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  private static final String DEPENDENCIES = """
+      [
+        {"groupId": "org.springframework.boot", "artifactId": "spring-boot-starter-web"},
+        {"groupId": "org.postgresql", "artifactId": "postgresql", "note": "needs ] and [ in \\"strings\\""}
+      ]""";
+
+  private static final String CODE = "/// START FILE: A.java\n"
+      + "class A { int[] xs = {1}; String s = \"[{\\\"artifactId\\\":1}]\"; }\n/// END FILE\n";
+
+  private static final String[] FUZZ_TOKENS = {"[", "]", "[{", "}]", "{", "}", "\"", "\\", "\\\"", "/*", "*/", "//",
+      "\n", "<", ">", "<project>", "</project>", "```", "```json\n", "```java\n", "/// START FILE: A.java\n",
+      "/// END FILE\n", "\"artifactId\"", ":", ",", " ", "dep", "http://x", DEPENDENCIES};
+
+  @Test
+  void findsPlainArray() throws Exception {
+    assertDependencies(DependencyBlockScanner.find(DEPENDENCIES));
+  }
+
+  @Test
+  void skipsFileBlocks() throws Exception {
+    assertDependencies(DependencyBlockScanner.find(CODE + DEPENDENCIES));
+  }
+
+  @Test
+  void skipsCodeFencesOtherThanJson() throws Exception {
+    assertDependencies(DependencyBlockScanner.find(
+        "```java\nint[] a = new int[]{1};\n```\n```json\n" + DEPENDENCIES + "\n```"));
+  }
+
+  @Test
+  void skipsPomDocuments() throws Exception {
+    assertDependencies(DependencyBlockScanner.find(
+        "<project><dependencies>[x]</dependencies></project>\n" + DEPENDENCIES));
+  }
+
+  @Test
+  void dropsCommentsInsideArray() throws Exception {
+    assertDependencies(DependencyBlockScanner.find(DEPENDENCIES.replace("[\n", "[ // web and db\n /* first */\n")));
+  }
+
+  @Test
+  void passesOverArraysWithoutArtifactId() throws Exception {
+    assertDependencies(DependencyBlockScanner.find("Use [1, 2] or " + DEPENDENCIES));
+    assertThat(DependencyBlockScanner.find("[{\"name\": \"x\"}]")).isEmpty();
+  }
+
+  @Test
+  void findsNothingInCodeOrTruncatedArray() {
+    assertThat(DependencyBlockScanner.find(CODE)).isEmpty();
+    assertThat(DependencyBlockScanner.find(DEPENDENCIES.substring(0, DEPENDENCIES.length() - 3))).isEmpty();
+  }
+
+  @Test
+  void fuzzedInputsGiveNothingOrValidArray() {
+    Random random = new Random(42);
+    for (int run = 0; run < 5_000; run++) {
+      StringBuilder input = new StringBuilder();
+      int tokens = 1 + random.nextInt(400);
+      for (int t = 0; t < tokens; t++) {
+        input.append(FUZZ_TOKENS[random.nextInt(FUZZ_TOKENS.length)]);
+      }
+      String json = DependencyBlockScanner.find(input.toString());
+      if (!json.isEmpty()) {
+        assertThat(isDependencyArray(json)).as("run %d: %s from %s", run, json, input).isTrue();
+      }
+    }
+  }
+
+  // The regex chain this replaced took seconds to minutes on these; a linear scan takes milliseconds
+  @Test
+  void unclosedConstructsStayLinear() {
+    String[] inputs = {"[".repeat(200_000), "/*" + "x*".repeat(100_000), "<a ".repeat(70_000),
+        "<project>".repeat(20_000), "[{\"" + "\\\"[".repeat(70_000), "[{}]".repeat(50_000)};
+    assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+      for (String input : inputs) {
+        assertThat(DependencyBlockScanner.find(input)).isEmpty();
+      }
+    });
+  }
+
+  private static void assertDependencies(String json) throws Exception {
+    JsonNode root = JSON.readTree(json);
+    assertThat(root.isArray()).isTrue();
+    assertThat(root).hasSize(2);
+    assertThat(root.get(0).path("artifactId").asText()).isEqualTo("spring-boot-starter-web");
+    assertThat(root.get(1).path("note").asText()).isEqualTo("needs ] and [ in \"strings\"");
+  }
+
+  private static boolean isDependencyArray(String json) {
+    try {
+      return json.contains("\"artifactId\"") && JSON.readTree(json).isArray();
+    } catch (Exception e) {
+      return false;
+    }
+  }
+}
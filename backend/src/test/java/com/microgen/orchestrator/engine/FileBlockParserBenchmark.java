@@ -0,0 +1,139 @@
+package com.microgen.orchestrator.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Times {@link FileBlockParser} against the split/indexOf/substring parsing
+ * it replaced, on generated multi-file outputs of a few hundred KB:
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes \
+ *     com.microgen.orchestrator.engine.FileBlockParserBenchmark --sizes 100,300,600 --chunk 64
+ * </pre>
+ *
+ * Besides parsing a whole output, it feeds the same output in stream-sized
+ * chunks, once to the incremental parser and once to the legacy parser run
+ * again over everything received so far, which is what finding completed
+ * files mid-stream took before. The last block of every output is cut off
+ * to cover truncated responses. FileBlockParserTest checks that chunked and
+ * whole parsing give the same blocks.
+ */
+public class FileBlockParserBenchmark {
+
+  public static void main(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+    }
+    int chunk = Integer.parseInt(options.getOrDefault("chunk", "64"));
+    int iterations = Integer.parseInt(options.getOrDefault("iterations", "50"));
+
+    System.out.printf("%-8s %8s %14s %14s %16s %18s%n", "size", "files", "legacy ms", "single-pass ms",
+        "chunked ms", "legacy rescan ms");
+    for (String size : options.getOrDefault("sizes", "100,300,600").split(",")) {
+      String output = output(Integer.parseInt(size.trim()) * 1024);
+      int files = FileBlockParser.parse(output).size();
+
+      // Warm-up pass, then the measured one
+      run(output, chunk, iterations);
+      double[] millis = run(output, chunk, iterations);
+      System.out.printf("%-8s %8d %14.2f %14.2f %16.2f %18.2f%n", size + "KB", files, millis[0], millis[1],
+          millis[2], millis[3]);
+    }
+  }
+
+  private static double[] run(String output, int chunk, int iterations) {
+    double legacy = time(iterations, () -> legacyParse(output).size());
+    double singlePass = time(iterations, () -> FileBlockParser.parse(output).size());
+    double chunked = time(iterations, () -> chunked(output, chunk));
+    // Quadratic; a single run says enough
+    double rescan = time(1, () -> legacyRescan(output, chunk * 16));
+    return new double[] {legacy, singlePass, chunked, rescan};
+  }
+
+  private static double time(int iterations, Parse parse) {
+    long sink = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      sink += parse.files();
+    }
+    double millis = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    if (sink < 0) {
+      System.out.println(sink);
+    }
+    return millis;
+  }
+
+  private static int chunked(String output, int chunk) {
+    int[] files = {0};
+    FileBlockParser parser = new FileBlockParser(block -> files[0]++);
+    for (int i = 0; i < output.length(); i += chunk) {
+      parser.accept(output.subSequence(i, Math.min(output.length(), i + chunk)));
+    }
+    parser.finish();
+    return files[0];
+  }
+
+  // Re-parses the growing buffer after every chunk to find newly completed files
+  private static int legacyRescan(String output, int chunk) {
+    StringBuilder received = new StringBuilder();
+    int files = 0;
+    for (int i = 0; i < output.length(); i += chunk) {
+      received.append(output, i, Math.min(output.length(), i + chunk));
+      files = legacyParse(received.toString()).size();
+    }
+    return files;
+  }
+
+  /** The parsing loop CodeGenerationEngine used before FileBlockParser, minus file placement. */
+  static List<String[]> legacyParse(String llmOutput) {
+    List<String[]> files = new ArrayList<>();
+    String[] parts = llmOutput.split("/// START FILE: ");
+    for (int p = 1; p < parts.length; p++) {
+      String part = parts[p];
+      if (part.trim().isEmpty())
+        continue;
+      int endIndex = part.indexOf("\n");
+      if (endIndex == -1)
+        continue;
+      String filename = part.substring(0, endIndex).trim();
+      String content = part.substring(endIndex + 1);
+      if (content.contains("/// END FILE")) {
+        content = content.substring(0, content.indexOf("/// END FILE")).trim();
+      }
+      if (!content.contains("package com.example.orders")) {
+        content = content.replaceFirst("package .*", "package com.example.orders.service;");
+      }
+      files.add(new String[] {filename, content});
+    }
+    return files;
+  }
+
+  /** Roughly {@code size} characters of LLM-style output whose last file is cut off mid-way. */
+  static String output(int size) {
+    StringBuilder output = new StringBuilder("Here is the complete service:\n\n");
+    for (int file = 1; output.length() < size; file++) {
+      output.append("/// START FILE: Order").append(file).append("Service.java\n")
+          .append("package com.example.orders.service;\n\n")
+          .append("import org.springframework.stereotype.Service;\n")
+          .append("import java.util.List;\n\n")
+          .append("@Service\npublic class Order").append(file).append("Service {\n");
+      for (int method = 0; method < 12; method++) {
+        output.append("    public List<String> find").append(method).append("(String customer) {\n")
+            .append("        // Looks up orders for the customer\n")
+            .append("        return List.of(customer, \"order-").append(method).append("\");\n")
+            .append("    }\n\n");
+      }
+      output.append("}\n/// END FILE\n\n");
+    }
+    return output.substring(0, output.length() - 200);
+  }
+
+  @FunctionalInterface
+  private interface Parse {
+    int files();
+  }
+}
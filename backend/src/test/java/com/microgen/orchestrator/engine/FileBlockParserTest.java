@@ -0,0 +1,113 @@
+package com.microgen.orchestrator.engine;
+
+import com.microgen.orchestrator.engine.FileBlockParser.FileBlock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileBlockParserTest {
+
+  @Test
+  void parsesBlocksAndIgnoresTextOutside() {
+    List<FileBlock> files = FileBlockParser.parse("""
+        Here is the service:
+        /// START FILE: OrderService.java
+        package com.example.orders.service;
+
+        public class OrderService {
+        }
+        /// END FILE
+        Some closing remarks.
+        /// START FILE: Order.java
+        public class Order {}
+        /// END FILE
+        """);
+
+    assertThat(files).containsExactly(
+        new FileBlock("OrderService.java", "package com.example.orders.service;\n\npublic class OrderService {\n}",
+            true),
+        new FileBlock("Order.java", "public class Order {}", true));
+  }
+
+  @Test
+  void emitsCutShortBlocksAsIncomplete() {
+    List<FileBlock> files = FileBlockParser.parse("""
+        /// START FILE: A.java
+        class A {}
+        /// START FILE: B.java
+        class B {
+        """);
+
+    assertThat(files).containsExactly(new FileBlock("A.java", "class A {}", false),
+        new FileBlock("B.java", "class B {", false));
+  }
+
+  @Test
+  void endMarkerMayFollowCodeOnTheSameLine() {
+    assertThat(FileBlockParser.parse("/// START FILE: A.java\nclass A {} /// END FILE\n"))
+        .containsExactly(new FileBlock("A.java", "class A {}", true));
+  }
+
+  @Test
+  void countsOnlyNamedBlocks() {
+    FileBlockParser parser = new FileBlockParser(block -> {
+    });
+    parser.accept("/// START FILE: \n/// START FILE: A.java\nclass A {}\n/// END FILE\n");
+    parser.finish();
+
+    assertThat(parser.blockCount()).isEqualTo(1);
+  }
+
+  @Test
+  void chunkedInputGivesSameBlocksAtAnySplit() {
+    String output = output(40_000);
+    List<FileBlock> whole = FileBlockParser.parse(output);
+    assertThat(whole).hasSizeGreaterThan(10);
+    assertThat(whole.get(whole.size() - 1).complete()).isFalse();
+
+    for (int chunk : new int[] {1, 2, 3, 7, 64, 4096}) {
+      assertThat(chunked(output, chunk)).as("chunk size %d", chunk).isEqualTo(whole);
+    }
+  }
+
+  @Test
+  void emitsEachBlockAsSoonAsItsEndArrives() {
+    List<FileBlock> files = new ArrayList<>();
+    FileBlockParser parser = new FileBlockParser(files::add);
+
+    parser.accept("/// START FILE: A.java\nclass A {}\n/// END");
+    assertThat(files).isEmpty();
+    parser.accept(" FILE\n/// START FILE: B.java\n");
+    assertThat(files).extracting(FileBlock::name).containsExactly("A.java");
+  }
+
+  private static List<FileBlock> chunked(String output, int chunk) {
+    List<FileBlock> files = new ArrayList<>();
+    FileBlockParser parser = new FileBlockParser(files::add);
+    for (int i = 0; i < output.length(); i += chunk) {
+      parser.accept(output.subSequence(i, Math.min(output.length(), i + chunk)));
+    }
+    parser.finish();
+    return files;
+  }
+
+  // Roughly size characters of LLM-style output whose last file is cut off mid-way
+  private static String output(int size) {
+    StringBuilder output = new StringBuilder("Here is the complete service:\n\n");
+    for (int file = 1; output.length() < size; file++) {
+      output.append("/// START FILE: Order").append(file).append("Service.java\n")
+          .append("package com.example.orders.service;\n\n")
+          .append("@Service\npublic class Order").append(file).append("Service {\n");
+      for (int method = 0; method < 12; method++) {
+        output.append("    public List<String> find").append(method).append("(String customer) {\n")
+            .append("        return List.of(customer, \"order-").append(method).append("\"); // ///\n")
+            .append("    }\n\n");
+      }
+      output.append("}\n/// END FILE\n\n");
+    }
+    return output.substring(0, output.length() - 200);
+  }
+}
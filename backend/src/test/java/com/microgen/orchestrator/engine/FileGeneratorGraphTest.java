@@ -0,0 +1,260 @@
+package com.microgen.orchestrator.engine;
+
+import com.microgen.orchestrator.engine.generator.ApplicationFileGenerator;
+import com.microgen.orchestrator.engine.generator.AuthFileGenerator;
+import com.microgen.orchestrator.engine.generator.CiFileGenerator;
+import com.microgen.orchestrator.engine.generator.ContainerFileGenerator;
+import com.microgen.orchestrator.engine.generator.CrudFileGenerator;
+import com.microgen.orchestrator.engine.generator.EntityFileGenerator;
+import com.microgen.orchestrator.engine.generator.PersistenceFileGenerator;
+import com.microgen.orchestrator.model.EntityModel;
+import com.microgen.orchestrator.model.IntentModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileGeneratorGraphTest {
+
+  private static final List<FileGenerator> STANDARD = List.of(new ApplicationFileGenerator(),
+      new AuthFileGenerator(), new EntityFileGenerator(), new PersistenceFileGenerator(), new CrudFileGenerator(),
+      new ContainerFileGenerator(), new CiFileGenerator());
+
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  void parallelScaffoldEqualsSequential() {
+    FileGeneratorGraph graph = new FileGeneratorGraph(STANDARD, pool, 0);
+    for (int entities : new int[] {0, 1, 200}) {
+      IntentModel intent = intent(entities);
+      assertThat(graph.render(intent).asMap()).as("%d entities", entities)
+          .isEqualTo(sequential(intent).asMap());
+    }
+  }
+
+  @Test
+  void standardGeneratorsWriteDisjointPaths() {
+    // None of them depends on another, so a shared path would have no defined winner
+    IntentModel intent = intent(3);
+    Set<String> seen = new HashSet<>();
+    for (FileGenerator generator : STANDARD) {
+      assertThat(generator.dependsOn()).as(generator.name()).isEmpty();
+      if (generator.appliesTo(intent)) {
+        FileTree files = new FileTree();
+        generator.generate(intent, files);
+        for (String path : files.asMap().keySet()) {
+          assertThat(seen.add(path)).as("%s writes %s again", generator.name(), path).isTrue();
+        }
+      }
+    }
+  }
+
+  @Test
+  void ordersByDependencyAndKeepsRegistrationOrderOtherwise() {
+    FileGeneratorGraph graph = new FileGeneratorGraph(List.of(generator("crud", "entity"), generator("ci"),
+        generator("entity")), pool, 0);
+
+    assertThat(graph.names()).containsExactly("ci", "entity", "crud");
+  }
+
+  @Test
+  void dependentGeneratorOverwritesItsDependency() {
+    FileGenerator first = generator("first", Set.of(), "A.java", "first");
+    FileGenerator second = generator("second", Set.of("first"), "A.java", "second");
+
+    assertThat(new FileGeneratorGraph(List.of(second, first), pool, 0).render(intent(0)).asMap())
+        .containsEntry("A.java", "second");
+  }
+
+  @Test
+  void rejectsBrokenRegistrations() {
+    assertThatThrownBy(() -> new FileGeneratorGraph(List.of(generator("a"), generator("a")), pool, 0))
+        .isInstanceOf(IllegalStateException.class).hasMessageContaining("Duplicate");
+    assertThatThrownBy(() -> new FileGeneratorGraph(List.of(generator("a", "missing")), pool, 0))
+        .isInstanceOf(IllegalStateException.class).hasMessageContaining("unknown generator missing");
+    assertThatThrownBy(() -> new FileGeneratorGraph(List.of(generator("a", "b"), generator("b", "a")), pool, 0))
+        .isInstanceOf(IllegalStateException.class).hasMessageContaining("cycle");
+  }
+
+  @Test
+  void rendersSmallIntentsOnTheCallingThread() {
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    FileGeneratorGraph graph = new FileGeneratorGraph(List.of(
+        generator("a", Set.of(), () -> threads.add(Thread.currentThread()))), pool, 10);
+
+    graph.render(intent(9));
+    assertThat(threads).containsExactly(Thread.currentThread());
+
+    threads.clear();
+    graph.render(intent(10));
+    assertThat(threads).hasSize(1).doesNotContain(Thread.currentThread());
+  }
+
+  @Test
+  void sequentialRenderStopsBetweenGeneratorsWhenInterrupted() {
+    AtomicBoolean secondRan = new AtomicBoolean();
+    FileGeneratorGraph graph = new FileGeneratorGraph(List.of(
+        generator("first", Set.of(), () -> Thread.currentThread().interrupt()),
+        generator("second", Set.of(), () -> secondRan.set(true))), pool, 10);
+
+    assertThatThrownBy(() -> graph.render(intent(0))).isInstanceOf(CancellationException.class);
+    assertThat(Thread.interrupted()).isTrue();
+    assertThat(secondRan).isFalse();
+  }
+
+  @Test
+  void parallelRenderReturnsOnInterruptAndSkipsPendingGenerators() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicBoolean dependentRan = new AtomicBoolean();
+    FileGeneratorGraph graph = new FileGeneratorGraph(List.of(
+        generator("slow", Set.of(), () -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }),
+        generator("dependent", Set.of("slow"), () -> dependentRan.set(true))), pool, 0);
+
+    CompletableFuture<Throwable> outcome = new CompletableFuture<>();
+    Thread caller = new Thread(() -> {
+      try {
+        graph.render(intent(0));
+        outcome.complete(null);
+      } catch (RuntimeException e) {
+        outcome.complete(e);
+      }
+    });
+    caller.start();
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    caller.interrupt();
+
+    assertThat(outcome.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+    release.countDown();
+    pool.awaitQuiescence(5, TimeUnit.SECONDS);
+    assertThat(dependentRan).isFalse();
+  }
+
+  @Test
+  void rethrowsWhatTheGeneratorThrew() {
+    FileGenerator failing = new FileGenerator() {
+      @Override
+      public String name() {
+        return "failing";
+      }
+
+      @Override
+      public boolean appliesTo(IntentModel intent) {
+        return true;
+      }
+
+      @Override
+      public void generate(IntentModel intent, FileTree files) {
+        throw new IllegalArgumentException("bad intent");
+      }
+    };
+
+    assertThatThrownBy(() -> new FileGeneratorGraph(List.of(failing), pool, 0).render(intent(0)))
+        .isInstanceOf(IllegalArgumentException.class).hasMessage("bad intent");
+  }
+
+  private static FileTree sequential(IntentModel intent) {
+    FileTree files = new FileTree();
+    for (FileGenerator generator : STANDARD) {
+      if (generator.appliesTo(intent)) {
+        generator.generate(intent, files);
+      }
+    }
+    return files;
+  }
+
+  private static FileGenerator generator(String name, Set<String> dependsOn, Runnable action) {
+    return new FileGenerator() {
+      @Override
+      public String name() {
+        return name;
+      }
+
+      @Override
+      public Set<String> dependsOn() {
+        return dependsOn;
+      }
+
+      @Override
+      public boolean appliesTo(IntentModel intent) {
+        return true;
+      }
+
+      @Override
+      public void generate(IntentModel intent, FileTree files) {
+        action.run();
+      }
+    };
+  }
+
+  private static FileGenerator generator(String name, String... dependsOn) {
+    return generator(name, Set.of(dependsOn), name + ".txt", name);
+  }
+
+  private static FileGenerator generator(String name, Set<String> dependsOn, String path, String content) {
+    return new FileGenerator() {
+      @Override
+      public String name() {
+        return name;
+      }
+
+      @Override
+      public Set<String> dependsOn() {
+        return dependsOn;
+      }
+
+      @Override
+      public boolean appliesTo(IntentModel intent) {
+        return true;
+      }
+
+      @Override
+      public void generate(IntentModel intent, FileTree files) {
+        files.put(path, content);
+      }
+    };
+  }
+
+  private static IntentModel intent(int entities) {
+    IntentModel intent = new IntentModel();
+    intent.setPackageName("com.acme.catalog");
+    intent.setServiceName("catalog-service");
+    intent.setAuth("JWT");
+    intent.setDatabase("POSTGRESQL");
+    List<EntityModel> models = new ArrayList<>();
+    for (int i = 0; i < entities; i++) {
+      List<EntityModel.FieldModel> fields = new ArrayList<>();
+      for (int f = 0; f < 12; f++) {
+        fields.add(new EntityModel.FieldModel("field" + f, f % 3 == 0 ? "Long" : "String"));
+      }
+      models.add(new EntityModel("Entity" + i, fields));
+    }
+    intent.setEntities(models);
+    return intent;
+  }
+}
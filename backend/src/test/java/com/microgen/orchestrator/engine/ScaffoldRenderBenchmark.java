@@ -0,0 +1,103 @@
+package com.microgen.orchestrator.engine;
+
+import com.microgen.orchestrator.engine.generator.ApplicationFileGenerator;
+import com.microgen.orchestrator.engine.generator.AuthFileGenerator;
+import com.microgen.orchestrator.engine.generator.CiFileGenerator;
+import com.microgen.orchestrator.engine.generator.ContainerFileGenerator;
+import com.microgen.orchestrator.engine.generator.CrudFileGenerator;
+import com.microgen.orchestrator.engine.generator.EntityFileGenerator;
+import com.microgen.orchestrator.engine.generator.PersistenceFileGenerator;
+import com.microgen.orchestrator.model.EntityModel;
+import com.microgen.orchestrator.model.IntentModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Scaffold rendering for intents with many entities, one generator after the
+ * other on the calling thread versus the {@link FileGeneratorGraph} on a
+ * ForkJoin pool:
+ *
+ * <pre>
+ * java -cp "target/test-classes:target/classes:..." \
+ *     com.microgen.orchestrator.engine.ScaffoldRenderBenchmark --parallelism 8 --rounds 20
+ * </pre>
+ *
+ * The median time per scaffold is reported; FileGeneratorGraphTest checks
+ * that both produce the same files.
+ */
+public class ScaffoldRenderBenchmark {
+
+  public static void main(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+    }
+    int parallelism = Integer.parseInt(options.getOrDefault("parallelism",
+        String.valueOf(Runtime.getRuntime().availableProcessors())));
+    int rounds = Integer.parseInt(options.getOrDefault("rounds", "20"));
+
+    List<FileGenerator> generators = List.of(new ApplicationFileGenerator(), new AuthFileGenerator(),
+        new EntityFileGenerator(), new PersistenceFileGenerator(), new CrudFileGenerator(),
+        new ContainerFileGenerator(), new CiFileGenerator());
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    // Threshold 0: always measure the pool, whatever generation.render.sequential-below says
+    FileGeneratorGraph graph = new FileGeneratorGraph(generators, pool, 0);
+
+    System.out.printf("%-10s %8s %16s %16s%n", "entities", "files", "sequential ms", "parallel ms");
+    for (int entities : new int[] {10, 100, 1_000, 5_000}) {
+      IntentModel intent = intent(entities);
+      int files = sequential(generators, intent).asMap().size();
+      double sequentialMs = median(rounds, () -> sequential(generators, intent));
+      double parallelMs = median(rounds, () -> graph.render(intent));
+      System.out.printf("%-10d %8d %16.2f %16.2f%n", entities, files, sequentialMs, parallelMs);
+    }
+    pool.shutdown();
+  }
+
+  private static FileTree sequential(List<FileGenerator> generators, IntentModel intent) {
+    FileTree files = new FileTree();
+    for (FileGenerator generator : generators) {
+      if (generator.appliesTo(intent)) {
+        generator.generate(intent, files);
+      }
+    }
+    return files;
+  }
+
+  private static IntentModel intent(int entities) {
+    IntentModel intent = new IntentModel();
+    intent.setPackageName("com.acme.catalog");
+    intent.setServiceName("catalog-service");
+    intent.setAuth("JWT");
+    intent.setDatabase("POSTGRESQL");
+    List<EntityModel> models = new ArrayList<>();
+    for (int i = 0; i < entities; i++) {
+      List<EntityModel.FieldModel> fields = new ArrayList<>();
+      for (int f = 0; f < 12; f++) {
+        fields.add(new EntityModel.FieldModel("field" + f, f % 3 == 0 ? "Long" : "String"));
+      }
+      models.add(new EntityModel("Entity" + i, fields));
+    }
+    intent.setEntities(models);
+    return intent;
+  }
+
+  private static double median(int rounds, Runnable render) {
+    for (int i = 0; i < 3; i++) {
+      render.run();
+    }
+    double[] millis = new double[rounds];
+    for (int i = 0; i < rounds; i++) {
+      long start = System.nanoTime();
+      render.run();
+      millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+    }
+    Arrays.sort(millis);
+    return millis[rounds / 2];
+  }
+}
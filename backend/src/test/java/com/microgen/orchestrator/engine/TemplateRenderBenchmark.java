@@ -0,0 +1,154 @@
+package com.microgen.orchestrator.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link Template} rendering against the
+ * {@code String.formatted} text blocks it replaced, one pair of methods per
+ * template. {@code main} runs it with the GC profiler, so bytes allocated per
+ * op ({@code gc.alloc.rate.norm}) are reported next to throughput:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp "target/test-classes:target/classes:..." \
+ *     com.microgen.orchestrator.engine.TemplateRenderBenchmark -f 1 -wi 5 -i 10
+ * </pre>
+ *
+ * Any JMH command line option may be passed. TemplateTest checks that both
+ * sides produce the same text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+  private static final String PACKAGE = "com.acme.orders";
+  private static final String FIELDS = "    private String customer;\n    private java.math.BigDecimal total;\n";
+
+  private static final String LEGACY_ENTITY = """
+      package %s.model;
+
+      import jakarta.persistence.*;
+      import lombok.Data;
+
+      @Entity
+      @Table(name = "%s")
+      @Data
+      public class %s {
+          @Id
+          @GeneratedValue(strategy = GenerationType.IDENTITY)
+          private Long id;
+          %s
+      }
+      """;
+
+  private static final String LEGACY_AUTH_CONTROLLER = """
+      package %s.controller;
+
+      import %s.model.AuthRequest;
+      import %s.security.JwtUtils;
+      import org.springframework.web.bind.annotation.*;
+
+      @RestController
+      @RequestMapping("/api/auth")
+      public class AuthController {
+          private final JwtUtils jwtUtils;
+
+          public AuthController(JwtUtils jwtUtils) {
+              this.jwtUtils = jwtUtils;
+          }
+
+          @PostMapping("/login")
+          public String login(@RequestBody AuthRequest request) {
+              return jwtUtils.generateToken(request.getUsername());
+          }
+      }
+      """;
+
+  private static final String LEGACY_YML = """
+      server:
+        port: %d
+      spring:
+        application:
+          name: %s
+        datasource:
+          url: %s
+          driver-class-name: %s
+          username: %s
+          password: %s
+        sql:
+          init:
+            mode: always
+      """;
+
+  private Template entity;
+  private Template authController;
+  private Template applicationYml;
+
+  @Setup
+  public void setUp() {
+    TemplateRegistry templates = TemplateRegistry.standard();
+    entity = templates.get("jpa-entity");
+    authController = templates.get("auth-controller");
+    applicationYml = templates.get("application-yml");
+  }
+
+  @Benchmark
+  public String entityFormatted() {
+    return LEGACY_ENTITY.formatted(PACKAGE, "orders", "Order", FIELDS);
+  }
+
+  @Benchmark
+  public String entityTemplate() {
+    return entity.render(Map.of("packageName", PACKAGE, "tableName", "orders", "entityName", "Order",
+        "fields", FIELDS));
+  }
+
+  @Benchmark
+  public String authControllerFormatted() {
+    return LEGACY_AUTH_CONTROLLER.formatted(PACKAGE, PACKAGE, PACKAGE);
+  }
+
+  @Benchmark
+  public String authControllerTemplate() {
+    return authController.render(Map.of("packageName", PACKAGE));
+  }
+
+  @Benchmark
+  public String applicationYmlFormatted() {
+    return LEGACY_YML.formatted(8082, "orders", "jdbc:h2:mem:orders", "org.h2.Driver", "sa", "password");
+  }
+
+  @Benchmark
+  public String applicationYmlTemplate() {
+    return applicationYml.render(Map.of("port", 8082, "serviceName", "orders", "dbUrl", "jdbc:h2:mem:orders",
+        "dbDriver", "org.h2.Driver", "dbUser", "sa", "dbPass", "password"));
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .include(TemplateRenderBenchmark.class.getName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+}
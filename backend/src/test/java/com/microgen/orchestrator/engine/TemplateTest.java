@@ -0,0 +1,126 @@
+package com.microgen.orchestrator.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TemplateTest {
+
+  private static final String PACKAGE = "com.acme.orders";
+
+  // The String.formatted text blocks the registry templates replaced
+  private static final String LEGACY_ENTITY = """
+      package %s.model;
+
+      import jakarta.persistence.*;
+      import lombok.Data;
+
+      @Entity
+      @Table(name = "%s")
+      @Data
+      public class %s {
+          @Id
+          @GeneratedValue(strategy = GenerationType.IDENTITY)
+          private Long id;
+          %s
+      }
+      """;
+
+  private static final String LEGACY_AUTH_CONTROLLER = """
+      package %s.controller;
+
+      import %s.model.AuthRequest;
+      import %s.security.JwtUtils;
+      import org.springframework.web.bind.annotation.*;
+
+      @RestController
+      @RequestMapping("/api/auth")
+      public class AuthController {
+          private final JwtUtils jwtUtils;
+
+          public AuthController(JwtUtils jwtUtils) {
+              this.jwtUtils = jwtUtils;
+          }
+
+          @PostMapping("/login")
+          public String login(@RequestBody AuthRequest request) {
+              return jwtUtils.generateToken(request.getUsername());
+          }
+      }
+      """;
+
+  private static final String LEGACY_YML = """
+      server:
+        port: %d
+      spring:
+        application:
+          name: %s
+        datasource:
+          url: %s
+          driver-class-name: %s
+          username: %s
+          password: %s
+        sql:
+          init:
+            mode: always
+      """;
+
+  private final TemplateRegistry templates = TemplateRegistry.standard();
+
+  @Test
+  void registryMatchesFormattedTextBlocks() {
+    String fields = "    private String customer;\n    private java.math.BigDecimal total;\n";
+
+    assertThat(templates.render("jpa-entity", Map.of("packageName", PACKAGE, "tableName", "orders",
+        "entityName", "Order", "fields", fields)))
+        .isEqualTo(LEGACY_ENTITY.formatted(PACKAGE, "orders", "Order", fields));
+    assertThat(templates.render("auth-controller", Map.of("packageName", PACKAGE)))
+        .isEqualTo(LEGACY_AUTH_CONTROLLER.formatted(PACKAGE, PACKAGE, PACKAGE));
+    assertThat(templates.render("application-yml", Map.of("port", 8082, "serviceName", "orders",
+        "dbUrl", "jdbc:h2:mem:orders", "dbDriver", "org.h2.Driver", "dbUser", "sa", "dbPass", "password")))
+        .isEqualTo(LEGACY_YML.formatted(8082, "orders", "jdbc:h2:mem:orders", "org.h2.Driver", "sa", "password"));
+  }
+
+  @Test
+  void rendersRepeatedPlaceholdersAndKeepsOtherBraces() {
+    Template template = Template.compile("t", "{{a}}-{{b}}-{{a}} ${{ secrets.TOKEN }} {{ a }} {{1x}} {{");
+
+    assertThat(template.getParameters()).containsExactly("a", "b");
+    assertThat(template.render(Map.of("a", "x", "b", 2))).isEqualTo("x-2-x ${{ secrets.TOKEN }} {{ a }} {{1x}} {{");
+  }
+
+  @Test
+  void rendersNullAsTextButRejectsMissingValue() {
+    Template template = Template.compile("t", "name={{name}}");
+    Map<String, Object> values = new HashMap<>();
+    values.put("name", null);
+
+    assertThat(template.render(values)).isEqualTo("name=null");
+    assertThatThrownBy(() -> template.render(Map.of()))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("'name'");
+  }
+
+  @Test
+  void writeToMatchesRender() throws Exception {
+    Map<String, String> values = Map.of("packageName", PACKAGE, "serviceName", "orders",
+        "dependencies", "    <dependency/>\n");
+    StringWriter out = new StringWriter();
+
+    templates.get("pom").writeTo(out, values);
+
+    assertThat(out.toString()).isEqualTo(templates.render("pom", values));
+  }
+
+  @Test
+  void unknownTemplateIsRejected() {
+    assertThatThrownBy(() -> templates.get("no-such-template")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> TemplateRegistry.load(java.util.List.of("no-such-template")))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -0,0 +1,189 @@
+package com.microgen.orchestrator.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline load driver for a running orchestrator, normally started with the
+ * {@code loadtest} profile so recorded fixtures stand in for the providers:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp "target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     com.microgen.orchestrator.loadtest.LoadTestDriver --url http://localhost:8081 \
+ *     --jobs 2000 --concurrency 200 --prompts prompts.txt
+ * </pre>
+ *
+ * Each job is submitted to {@code /api/generate} and followed over its
+ * {@code /api/jobs/{id}/events} stream; the time between status events gives
+ * the time spent in each stage (PENDING is the queue wait). Prints throughput
+ * plus p50/p99 per stage and end to end.
+ */
+public class LoadTestDriver {
+
+    private static final List<String> DEFAULT_PROMPTS = List.of(
+            "Create an order service with MySQL and JWT. Entities: Order(id:Long,customer:String,total:BigDecimal)",
+            "Build a product catalog microservice with PostgreSQL and JPA",
+            "Kafka consumer service that stores payment events in MongoDB",
+            "Inventory service with H2, entity Item(id:Long,sku:String,quantity:Integer)",
+            "Customer management API secured with OAuth2 and backed by MySQL");
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Map<String, List<Long>> stageMillis = new ConcurrentHashMap<>();
+    private final List<Long> totalMillis = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+
+    LoadTestDriver(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        int jobs = Integer.parseInt(options.getOrDefault("jobs", "1000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "100"));
+        List<String> prompts = options.containsKey("prompts")
+                ? Files.readAllLines(Path.of(options.get("prompts"))).stream().filter(l -> !l.isBlank()).toList()
+                : DEFAULT_PROMPTS;
+
+        LoadTestDriver driver = new LoadTestDriver(options.getOrDefault("url", "http://localhost:8081"));
+        driver.run(jobs, concurrency, prompts);
+    }
+
+    void run(int jobs, int concurrency, List<String> prompts) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        long start = System.nanoTime();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < jobs; i++) {
+                // Suffix keeps prompts distinct so coalescing and caching do not collapse the load
+                String prompt = prompts.get(i % prompts.size()) + " #" + i;
+                inFlight.acquire();
+                threads.execute(() -> {
+                    try {
+                        runJob(prompt);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        report(jobs, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void runJob(String prompt) {
+        long submitted = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/generate"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of("prompt", prompt))))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                outcome("HTTP_" + response.statusCode());
+                return;
+            }
+            String jobId = objectMapper.readTree(response.body()).path("id").asText();
+            follow(jobId, submitted);
+        } catch (Exception e) {
+            outcome("CLIENT_ERROR");
+        }
+    }
+
+    private void follow(String jobId, long submitted) throws Exception {
+        HttpResponse<InputStream> events = http.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/jobs/" + jobId + "/events")).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+
+        String stage = "PENDING";
+        long stageStart = submitted;
+        String event = null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(events.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("event:")) {
+                    event = line.substring(6).trim();
+                } else if (line.startsWith("data:") && ("status".equals(event) || "done".equals(event))) {
+                    JsonNode data = objectMapper.readTree(line.substring(5));
+                    String status = data.path("status").asText();
+                    long now = System.nanoTime();
+                    if (!status.equals(stage)) {
+                        sample(stageMillis.computeIfAbsent(stage, k -> Collections.synchronizedList(new ArrayList<>())),
+                                now - stageStart);
+                        stage = status;
+                        stageStart = now;
+                    }
+                    if ("done".equals(event)) {
+                        sample(totalMillis, now - submitted);
+                        outcome(status);
+                        return;
+                    }
+                }
+            }
+        }
+        outcome("STREAM_CLOSED");
+    }
+
+    private static void sample(List<Long> samples, long nanos) {
+        samples.add(nanos / 1_000_000);
+    }
+
+    private void outcome(String status) {
+        outcomes.computeIfAbsent(status, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private void report(int jobs, Duration elapsed) {
+        System.out.printf("%n%d jobs in %.1fs -> %.2f jobs/s%n", jobs, elapsed.toMillis() / 1000.0,
+                jobs * 1000.0 / Math.max(1, elapsed.toMillis()));
+        System.out.println("Outcomes: " + new LinkedHashMap<>(outcomes));
+        System.out.printf("%-14s %8s %10s %10s %10s%n", "stage", "count", "p50 ms", "p99 ms", "max ms");
+        for (String stage : List.of("PENDING", "PARSING", "GENERATING", "ASSEMBLING", "SCANNING")) {
+            print(stage, stageMillis.getOrDefault(stage, List.of()));
+        }
+        print("TOTAL", totalMillis);
+    }
+
+    private static void print(String stage, List<Long> samples) {
+        List<Long> sorted;
+        synchronized (samples) {
+            sorted = new ArrayList<>(samples);
+        }
+        Collections.sort(sorted);
+        System.out.printf("%-14s %8d %10d %10d %10d%n", stage, sorted.size(), percentile(sorted, 0.50),
+                percentile(sorted, 0.99), sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1));
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+}
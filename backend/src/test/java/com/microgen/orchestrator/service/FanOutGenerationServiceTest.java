@@ -0,0 +1,116 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.adapter.LlmClient;
+import com.microgen.orchestrator.engine.CodeGenerationEngine;
+import com.microgen.orchestrator.engine.generator.ApplicationFileGenerator;
+import com.microgen.orchestrator.model.IntentModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FanOutGenerationServiceTest {
+
+    private static final String PLAN = """
+            {"dependencies": [
+               {"groupId": "org.springframework.boot", "artifactId": "spring-boot-starter-web"},
+               {"groupId": "org.postgresql", "artifactId": "postgresql", "version": "42.7.4"}],
+             "files": [
+               {"file": "pom.xml", "layer": "build", "description": "Maven build"},
+               {"file": "OrderController.java", "layer": "controller", "description": "REST endpoints"},
+               {"file": "OrderService.java", "layer": "service", "description": "Business logic"}]}
+            """;
+
+    private static final Pattern ASSIGNED = Pattern.compile("^- (\\S+): ", Pattern.MULTILINE);
+
+    private final Queue<String> groupPrompts = new ConcurrentLinkedQueue<>();
+    private final GenerationJobExecutor jobExecutor = new GenerationJobExecutor(4);
+    private final CodeGenerationEngine engine = new CodeGenerationEngine(List.of(new ApplicationFileGenerator()), 1, 50);
+    private String planResponse = PLAN;
+    private FanOutGenerationService fanOut;
+
+    @BeforeEach
+    void setUp() {
+        // Answers the plan call with planResponse and every group call with one class per assigned file
+        LlmClient llmClient = (systemPrompt, userPrompt) -> {
+            if (systemPrompt.contains("software architect")) {
+                return planResponse;
+            }
+            groupPrompts.add(userPrompt);
+            StringBuilder output = new StringBuilder();
+            Matcher assigned = ASSIGNED.matcher(userPrompt.substring(userPrompt.indexOf("Your files")));
+            while (assigned.find()) {
+                String file = assigned.group(1);
+                output.append("/// START FILE: ").append(file).append('\n')
+                        .append("package com.example.order;\n\npublic class ")
+                        .append(file.replace(".java", "")).append(" {\n}\n/// END FILE\n");
+            }
+            return output.toString();
+        };
+        fanOut = new FanOutGenerationService(llmClient, jobExecutor, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(fanOut, "maxFilesPerCall", 3);
+        ReflectionTestUtils.setField(fanOut, "maxFiles", 40);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobExecutor.shutdown();
+        engine.shutdown();
+    }
+
+    @Test
+    void buildsPomFromPlannedDependencies() throws Exception {
+        IntentModel intent = intent();
+
+        String output = fanOut.generate("Order service on PostgreSQL", intent);
+        Map<String, String> files = engine.generateProject(intent, output);
+
+        String pom = files.get("pom.xml");
+        assertThat(pom).contains("<artifactId>spring-boot-starter-web</artifactId>")
+                .contains("<artifactId>postgresql</artifactId>")
+                .contains("<version>42.7.4</version>")
+                .doesNotContain("spring-kafka");
+        assertThat(files).containsKeys("src/main/java/com/example/order/controller/OrderController.java",
+                "src/main/java/com/example/order/service/OrderService.java");
+        assertThat(files.keySet()).filteredOn(path -> path.endsWith("pom.xml")).containsExactly("pom.xml");
+        assertThat(groupPrompts).hasSize(2).noneMatch(prompt -> prompt.contains("- pom.xml"));
+    }
+
+    @Test
+    void fallsBackToKafkaDefaultsWhenPlanHasNoDependencies() throws Exception {
+        planResponse = """
+                {"files": [{"file": "OrderController.java", "layer": "controller", "description": "REST"}]}
+                """;
+        IntentModel intent = intent();
+
+        Map<String, String> files = engine.generateProject(intent, fanOut.generate("Order service", intent));
+
+        assertThat(files.get("pom.xml")).contains("spring-kafka");
+        assertThat(files).containsKey("src/main/java/com/example/order/controller/OrderController.java");
+    }
+
+    @Test
+    void returnsNullWhenPlanIsUnreadable() throws Exception {
+        planResponse = "Sure! Here is the plan: OrderController, OrderService";
+
+        assertThat(fanOut.generate("Order service", intent())).isNull();
+        assertThat(groupPrompts).isEmpty();
+    }
+
+    private static IntentModel intent() {
+        IntentModel intent = new IntentModel();
+        intent.setServiceName("order-service");
+        intent.setPackageName("com.example.order");
+        return intent;
+    }
+}
@@ -0,0 +1,284 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.model.GenerationJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileGenerationJobRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void restoresJobsAndFilesAfterRestart() throws Exception {
+        FileGenerationJobRepository repository = open();
+        GenerationJob done = job("Order service", "COMPLETED");
+        done.setServiceName("order-service");
+        repository.save(job(done.getId(), "Order service", "PENDING"));
+        repository.save(done);
+        repository.saveFiles(done.getId(), Map.of("pom.xml", "<project/>", "src/A.java", "class A {}"));
+        GenerationJob running = job("Billing service", "GENERATING");
+        repository.save(running);
+        repository.close();
+
+        FileGenerationJobRepository reopened = open();
+
+        GenerationJob restored = reopened.findById(done.getId()).orElseThrow();
+        assertThat(restored.getStatus()).isEqualTo("COMPLETED");
+        assertThat(restored.getServiceName()).isEqualTo("order-service");
+        assertThat(restored.getPrompt()).isEqualTo("Order service");
+        assertThat(restored.getCreatedAt()).isEqualTo(done.getCreatedAt());
+        assertThat(reopened.loadFiles(done.getId())).containsEntry("src/A.java", "class A {}").hasSize(2);
+        assertThat(reopened.findUnfinished()).extracting(GenerationJob::getId).containsExactly(running.getId());
+        assertThat(reopened.findById("unknown")).isEmpty();
+        assertThat(reopened.loadFiles(running.getId())).isNull();
+    }
+
+    @Test
+    void journalRecordsOnlyChangedFields() throws Exception {
+        FileGenerationJobRepository repository = open();
+        GenerationJob job = job("Order service", "PENDING");
+        repository.save(job);
+        job.setStatus("PARSING");
+        repository.save(job);
+
+        List<String> lines = Files.readAllLines(journal());
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).contains("\"prompt\":\"Order service\"");
+        assertThat(lines.get(1)).contains("\"status\":\"PARSING\"").doesNotContain("prompt");
+    }
+
+    @Test
+    void replayStopsAtTornRecordAndKeepsEverythingBefore() throws Exception {
+        FileGenerationJobRepository crashed = open();
+        GenerationJob job = job("Order service", "PENDING");
+        crashed.save(job);
+        job.setStatus("GENERATING");
+        crashed.save(job);
+        // A crash in the middle of the next append
+        Files.writeString(journal(), "{\"id\":\"" + job.getId() + "\",\"status\":\"COMPL",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        FileGenerationJobRepository reopened = open();
+
+        assertThat(reopened.findById(job.getId()).orElseThrow().getStatus()).isEqualTo("GENERATING");
+        // The torn journal is never appended to again
+        GenerationJob next = job("Billing service", "PENDING");
+        reopened.save(next);
+        assertThat(open().findById(next.getId())).isPresent();
+    }
+
+    @Test
+    void snapshotReplacesOlderJournals() throws Exception {
+        FileGenerationJobRepository repository = open();
+        GenerationJob first = job("Order service", "COMPLETED");
+        repository.save(first);
+        repository.snapshot();
+        GenerationJob second = job("Billing service", "PENDING");
+        repository.save(second);
+
+        assertThat(files("snapshot-")).hasSize(1);
+        assertThat(files("journal-")).hasSize(1);
+
+        FileGenerationJobRepository reopened = open();
+        assertThat(reopened.findById(first.getId())).isPresent();
+        assertThat(reopened.findById(second.getId())).isPresent();
+    }
+
+    @Test
+    void rollsSegmentsAtMaxSize() throws Exception {
+        FileGenerationJobRepository repository = open(64);
+        GenerationJob first = job("a", "COMPLETED");
+        GenerationJob second = job("b", "COMPLETED");
+        repository.save(first);
+        repository.save(second);
+        repository.saveFiles(first.getId(), Map.of("A.java", "x".repeat(100)));
+        repository.saveFiles(second.getId(), Map.of("B.java", "y".repeat(100)));
+
+        try (Stream<Path> segments = Files.list(dir.resolve("segments"))) {
+            assertThat(segments.count()).isEqualTo(2);
+        }
+        assertThat(repository.loadFiles(first.getId())).containsEntry("A.java", "x".repeat(100));
+        assertThat(repository.loadFiles(second.getId())).containsEntry("B.java", "y".repeat(100));
+    }
+
+    @Test
+    void snapshotDropsFinishedJobsPastRetentionWithTheirSegments() throws Exception {
+        FileGenerationJobRepository repository = open(64);
+        GenerationJob old = job("Order service", "COMPLETED");
+        old.setCreatedAt(LocalDateTime.now().minusDays(2));
+        GenerationJob oldRunning = job("Billing service", "GENERATING");
+        oldRunning.setCreatedAt(LocalDateTime.now().minusDays(2));
+        GenerationJob recent = job("Stock service", "COMPLETED");
+        for (GenerationJob job : List.of(old, oldRunning, recent)) {
+            repository.save(job);
+        }
+        repository.saveFiles(old.getId(), Map.of("A.java", "x".repeat(100)));
+        repository.saveFiles(recent.getId(), Map.of("B.java", "y".repeat(100)));
+        ReflectionTestUtils.setField(repository, "retention", Duration.ofDays(1));
+
+        repository.snapshot();
+
+        assertThat(repository.findById(old.getId())).isEmpty();
+        assertThat(repository.findById(oldRunning.getId())).isPresent();
+        assertThat(repository.loadFiles(recent.getId())).containsEntry("B.java", "y".repeat(100));
+        assertThat(segments()).hasSize(1);
+        repository.close();
+        FileGenerationJobRepository reopened = open();
+        assertThat(reopened.findById(old.getId())).isEmpty();
+        assertThat(reopened.findById(recent.getId())).isPresent();
+    }
+
+    @Test
+    void snapshotDropsOldestFinishedJobsBeyondMaxJobs() throws Exception {
+        FileGenerationJobRepository repository = open();
+        GenerationJob oldest = job("a", "COMPLETED");
+        oldest.setCreatedAt(LocalDateTime.now().minusHours(3));
+        GenerationJob running = job("b", "GENERATING");
+        running.setCreatedAt(LocalDateTime.now().minusHours(4));
+        GenerationJob newer = job("c", "FAILED");
+        newer.setCreatedAt(LocalDateTime.now().minusHours(2));
+        GenerationJob newest = job("d", "COMPLETED");
+        for (GenerationJob job : List.of(oldest, running, newer, newest)) {
+            repository.save(job);
+        }
+        ReflectionTestUtils.setField(repository, "maxJobs", 2);
+
+        repository.snapshot();
+
+        assertThat(repository.findById(oldest.getId())).isEmpty();
+        assertThat(repository.findById(newer.getId())).isEmpty();
+        assertThat(repository.findById(running.getId())).isPresent();
+        assertThat(repository.findById(newest.getId())).isPresent();
+    }
+
+    @Test
+    void compactsSparseSegmentsIntoTheCurrentOne() throws Exception {
+        FileGenerationJobRepository repository = open(300);
+        GenerationJob kept = job("a", "COMPLETED");
+        GenerationJob dropped = job("b", "COMPLETED");
+        dropped.setCreatedAt(LocalDateTime.now().minusDays(2));
+        GenerationJob later = job("c", "COMPLETED");
+        for (GenerationJob job : List.of(kept, dropped, later)) {
+            repository.save(job);
+        }
+        repository.saveFiles(kept.getId(), Map.of("A.java", "x".repeat(50)));
+        repository.saveFiles(dropped.getId(), Map.of("B.java", "y".repeat(200)));
+        // Rolls over, leaving the first segment mostly dead once the second job is dropped
+        repository.saveFiles(later.getId(), Map.of("C.java", "z".repeat(250)));
+        List<Path> before = segments();
+        ReflectionTestUtils.setField(repository, "retention", Duration.ofDays(1));
+
+        repository.snapshot();
+
+        assertThat(before).hasSize(2);
+        assertThat(segments()).containsExactly(before.get(1));
+        assertThat(repository.loadFiles(kept.getId())).containsEntry("A.java", "x".repeat(50));
+        assertThat(repository.loadFiles(later.getId())).containsEntry("C.java", "z".repeat(250));
+        repository.close();
+        assertThat(open().loadFiles(kept.getId())).containsEntry("A.java", "x".repeat(50));
+    }
+
+    @Test
+    void filesSavedDuringSnapshotsSurviveCompaction() throws Exception {
+        FileGenerationJobRepository repository = open(300);
+        List<GenerationJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            GenerationJob job = job("service " + i, "GENERATING");
+            repository.save(job);
+            jobs.add(job);
+        }
+        AtomicBoolean saving = new AtomicBoolean(true);
+        Thread snapshots = Thread.ofVirtual().start(() -> {
+            while (saving.get()) {
+                try {
+                    repository.snapshot();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        for (GenerationJob job : jobs) {
+            writers.submit(() -> repository.saveFiles(job.getId(), Map.of("A.java", job.getPrompt())));
+        }
+        writers.shutdown();
+        assertThat(writers.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        saving.set(false);
+        snapshots.join();
+        repository.snapshot();
+
+        for (GenerationJob job : jobs) {
+            assertThat(repository.loadFiles(job.getId())).containsEntry("A.java", job.getPrompt());
+        }
+        repository.close();
+        FileGenerationJobRepository reopened = open(300);
+        for (GenerationJob job : jobs) {
+            assertThat(reopened.loadFiles(job.getId())).containsEntry("A.java", job.getPrompt());
+        }
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> segments = Files.list(dir.resolve("segments"))) {
+            return segments.sorted().toList();
+        }
+    }
+
+    private FileGenerationJobRepository open() throws Exception {
+        return open(64 * 1024 * 1024);
+    }
+
+    private FileGenerationJobRepository open(long segmentMaxBytes) throws Exception {
+        FileGenerationJobRepository repository = new FileGenerationJobRepository();
+        ReflectionTestUtils.setField(repository, "directory", dir.toString());
+        ReflectionTestUtils.setField(repository, "segmentMaxBytes", segmentMaxBytes);
+        ReflectionTestUtils.setField(repository, "retention", Duration.ZERO);
+        ReflectionTestUtils.setField(repository, "maxJobs", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(repository, "compactThreshold", 0.5);
+        repository.open();
+        return repository;
+    }
+
+    private Path journal() throws Exception {
+        List<Path> journals = files("journal-");
+        return journals.get(journals.size() - 1);
+    }
+
+    private List<Path> files(String prefix) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().startsWith(prefix)).sorted().toList();
+        }
+    }
+
+    private static GenerationJob job(String prompt, String status) {
+        GenerationJob job = new GenerationJob(prompt);
+        job.setStatus(status);
+        return job;
+    }
+
+    private static GenerationJob job(String id, String prompt, String status) {
+        GenerationJob job = job(prompt, status);
+        job.setId(id);
+        return job;
+    }
+}
@@ -0,0 +1,141 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.controller.GenerationController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GenerationSchedulerTest {
+
+    private final GenerationJobExecutor executor = new GenerationJobExecutor(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private GenerationScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void singleJobIsNotStarvedByBurst() throws Exception {
+        scheduler = scheduler(200, Duration.ofHours(1), Duration.ofMillis(10), "");
+        occupySlot();
+
+        Queue<String> order = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<String>> jobs = new java.util.ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            String name = "burst-" + i;
+            jobs.add(scheduler.submit("burst", () -> record(order, name)));
+        }
+        jobs.add(scheduler.submit("single", () -> record(order, "single")));
+        release.countDown();
+        CompletableFuture.allOf(jobs.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(order).containsExactly("burst-1", "single", "burst-2", "burst-3", "burst-4", "burst-5");
+    }
+
+    @Test
+    void weightedClientGetsProportionallyMoreTurns() throws Exception {
+        scheduler = scheduler(200, Duration.ofHours(1), Duration.ofMillis(10), "premium:2");
+        occupySlot();
+
+        Queue<String> order = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<String>> jobs = new java.util.ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            String regular = "regular-" + i;
+            String premium = "premium-" + i;
+            jobs.add(scheduler.submit("regular", () -> record(order, regular)));
+            jobs.add(scheduler.submit("premium", () -> record(order, premium)));
+        }
+        release.countDown();
+        CompletableFuture.allOf(jobs.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // Start tags: regular 0, 1, 2; premium 0, 0.5, 1
+        assertThat(order).containsExactly("regular-1", "premium-1", "premium-2", "regular-2", "premium-3",
+                "regular-3");
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        scheduler = scheduler(2, Duration.ofHours(1), Duration.ofMillis(10), "");
+        occupySlot();
+        scheduler.submit("a", () -> "1");
+        scheduler.submit("a", () -> "2");
+
+        assertThatThrownBy(() -> scheduler.submit("b", () -> "3"))
+                .isInstanceOf(AdmissionRejectedException.class)
+                .hasMessageContaining("2 jobs waiting")
+                .extracting(e -> ((AdmissionRejectedException) e).getRetryAfter())
+                .isEqualTo(Duration.ofHours(1));
+        assertThat(scheduler.queueDepth()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsWhenExpectedWaitIsTooLong() throws Exception {
+        scheduler = scheduler(200, Duration.ofSeconds(1), Duration.ofSeconds(30), "");
+        occupySlot();
+
+        assertThatThrownBy(() -> scheduler.submit("a", () -> "1"))
+                .isInstanceOf(AdmissionRejectedException.class)
+                .extracting(e -> ((AdmissionRejectedException) e).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void rejectionIsServedAs503WithRetryAfter() {
+        GenerationController controller = new GenerationController(null, null, null);
+
+        ResponseEntity<String> response = controller.handleRejected(
+                new AdmissionRejectedException("Generation queue is saturated", Duration.ofMillis(12_400)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("12");
+        assertThat(response.getBody()).isEqualTo("Generation queue is saturated");
+    }
+
+    private GenerationScheduler scheduler(int maxQueueSize, Duration maxQueueWait, Duration expectedJobDuration,
+            String weights) {
+        GenerationScheduler created = new GenerationScheduler(executor, new SimpleMeterRegistry(), maxQueueSize,
+                maxQueueWait, expectedJobDuration, weights);
+        created.start();
+        return created;
+    }
+
+    // Holds the only executor slot until release, so everything submitted afterwards queues up
+    private void occupySlot() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.submit("blocker", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "blocker";
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static String record(Queue<String> order, String name) {
+        order.add(name);
+        return name;
+    }
+}
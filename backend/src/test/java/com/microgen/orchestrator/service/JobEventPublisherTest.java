@@ -0,0 +1,107 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.model.GenerationJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class JobEventPublisherTest {
+
+    private final JobStore jobStore = new JobStore(new NoRepository());
+    private final JobEventPublisher publisher = new JobEventPublisher(jobStore);
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new EventsController()).build();
+
+    JobEventPublisherTest() {
+        ReflectionTestUtils.setField(publisher, "timeout", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void unfinishedJobWithoutStreamEndsRightAway() throws Exception {
+        // Recovered after a restart but not requeued yet: nothing would ever publish to it
+        GenerationJob job = job("GENERATING");
+
+        MockHttpServletResponse response = subscribe(job);
+
+        assertThat(response.getContentAsString()).contains("event:status", "event:done", "GENERATING");
+    }
+
+    @Test
+    void lateSubscriberGetsEachFileOnceWithItsLatestContent() throws Exception {
+        GenerationJob job = job("GENERATING");
+        publisher.open(job.getId());
+        publisher.publishStatus(job);
+        publisher.publishFile(job.getId(), "A.java", "class A {}");
+        publisher.publishFile(job.getId(), "B.java", "class B {}");
+        publisher.publishFile(job.getId(), "A.java", "class A { int x; }");
+
+        MockHttpServletResponse response = subscribe(job);
+        job.setStatus("COMPLETED");
+        publisher.close(job);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> response.getContentAsString().contains("event:done"));
+        String events = response.getContentAsString();
+        assertThat(events).contains("class A { int x; }", "class B {}").doesNotContain("class A {}");
+        assertThat(events.indexOf("A.java")).isLessThan(events.indexOf("B.java"));
+        assertThat(events.split("A.java", -1)).hasSize(2);
+        assertThat(job.getPublishedFiles()).isEmpty();
+    }
+
+    private MockHttpServletResponse subscribe(GenerationJob job) throws Exception {
+        return mvc.perform(get("/events/{jobId}", job.getId())).andReturn().getResponse();
+    }
+
+    private GenerationJob job(String status) {
+        GenerationJob job = new GenerationJob("Order service");
+        job.setStatus(status);
+        jobStore.put(job);
+        return job;
+    }
+
+    @RestController
+    private class EventsController {
+        @GetMapping("/events/{jobId}")
+        SseEmitter events(@PathVariable String jobId) {
+            return publisher.subscribe(jobStore.get(jobId));
+        }
+    }
+
+    private static final class NoRepository implements GenerationJobRepository {
+        @Override
+        public void save(GenerationJob job) {
+        }
+
+        @Override
+        public void saveFiles(String jobId, Map<String, String> files) {
+        }
+
+        @Override
+        public Optional<GenerationJob> findById(String jobId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Map<String, String> loadFiles(String jobId) {
+            return null;
+        }
+
+        @Override
+        public List<GenerationJob> findUnfinished() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.model.GenerationJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobStoreTest {
+
+    private final InMemoryRepository repository = new InMemoryRepository();
+
+    @Test
+    void dropsLeastRecentlyUsedFinishedJobs() {
+        JobStore store = store(2, Long.MAX_VALUE, Duration.ofHours(1));
+        GenerationJob first = finished(store, "a");
+        GenerationJob second = finished(store, "b");
+        store.get(first.getId());
+
+        finished(store, "c");
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(repository.reads.get()).isZero();
+        // Evicted jobs are read through from the repository
+        assertThat(store.get(second.getId()).getStatus()).isEqualTo("COMPLETED");
+        assertThat(repository.reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void neverEvictsJobsInFlight() {
+        JobStore store = store(1, 0, Duration.ZERO);
+        for (int i = 0; i < 3; i++) {
+            store.put(new GenerationJob("prompt " + i));
+        }
+        store.evictExpired();
+
+        assertThat(store.size()).isEqualTo(3);
+    }
+
+    @Test
+    void expiresFinishedJobsAfterTtl() throws Exception {
+        JobStore store = store(100, Long.MAX_VALUE, Duration.ofMillis(30));
+        finished(store, "a");
+        store.put(new GenerationJob("running"));
+
+        Thread.sleep(60);
+        store.evictExpired();
+
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void spillsColdFilesOverByteBudgetAndReloadsThemOnRead() {
+        JobStore store = store(100, 5_000, Duration.ofHours(1));
+        GenerationJob cold = finished(store, "a", Map.of("A.java", "x".repeat(2_000)));
+        GenerationJob hot = finished(store, "b", Map.of("B.java", "y".repeat(2_000)));
+        assertThat(store.residentBytes()).isEqualTo(bytes("B.java", 2_000));
+
+        GenerationJob reloaded = store.get(cold.getId());
+
+        assertThat(reloaded.getGeneratedFiles()).containsEntry("A.java", "x".repeat(2_000));
+        assertThat(repository.fileReads.get()).isEqualTo(1);
+        // Now the other job is the least recently used one
+        assertThat(store.residentBytes()).isEqualTo(bytes("A.java", 2_000));
+        assertThat(store.get(hot.getId()).getGeneratedFiles()).containsEntry("B.java", "y".repeat(2_000));
+        // Spilling swaps in a copy; references handed out earlier keep their files
+        assertThat(cold.getGeneratedFiles()).isNotNull();
+    }
+
+    @Test
+    void keepsFilesWithinByteBudget() {
+        JobStore store = store(100, 1_000_000, Duration.ofHours(1));
+        GenerationJob job = finished(store, "a", Map.of("A.java", "x".repeat(2_000)));
+
+        assertThat(store.residentBytes()).isEqualTo(bytes("A.java", 2_000));
+        assertThat(store.get(job.getId())).isSameAs(job);
+        assertThat(repository.fileReads.get()).isZero();
+    }
+
+    @Test
+    void returnsReloadedFilesEvenWhenTheJobAloneExceedsTheBudget() {
+        JobStore store = store(100, 1_000, Duration.ofHours(1));
+        GenerationJob job = new GenerationJob("a");
+        job.setDeadline(LocalDateTime.now().plusMinutes(5));
+        finished(store, job, Map.of("A.java", "x".repeat(2_000)));
+        assertThat(store.residentBytes()).isZero();
+
+        GenerationJob reloaded = store.get(job.getId());
+
+        assertThat(reloaded.getGeneratedFiles()).containsEntry("A.java", "x".repeat(2_000));
+        assertThat(reloaded.getDeadline()).isEqualTo(job.getDeadline());
+        assertThat(store.residentBytes()).isZero();
+    }
+
+    @Test
+    void reloadedJobsExpireAfterReloadTtl() throws Exception {
+        JobStore store = store(1, Long.MAX_VALUE, Duration.ofHours(1));
+        ReflectionTestUtils.setField(store, "reloadTtl", Duration.ofMillis(30));
+        GenerationJob first = finished(store, "a");
+        finished(store, "b");
+        store.get(first.getId());
+        assertThat(store.size()).isEqualTo(1);
+
+        Thread.sleep(60);
+        store.evictExpired();
+
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void readsTheRepositoryOutsideTheLock() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        repository.onRead = () -> {
+            reading.countDown();
+            release.await();
+            return null;
+        };
+        JobStore store = store(10, Long.MAX_VALUE, Duration.ofHours(1));
+        GenerationJob job = new GenerationJob("stored");
+        repository.save(job);
+
+        CompletableFuture<GenerationJob> read = CompletableFuture.supplyAsync(() -> store.get(job.getId()));
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        // Other callers are not stuck behind the repository read
+        store.put(new GenerationJob("running"));
+        assertThat(store.size()).isEqualTo(1);
+        release.countDown();
+
+        assertThat(read.get(5, TimeUnit.SECONDS).getId()).isEqualTo(job.getId());
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void unknownJobIsNull() {
+        assertThat(store(10, 10, Duration.ofHours(1)).get("unknown")).isNull();
+    }
+
+    // Two bytes per char of path and content, as the store estimates it
+    private static long bytes(String path, int contentLength) {
+        return 2L * (path.length() + contentLength);
+    }
+
+    private JobStore store(int maxEntries, long maxBytes, Duration ttl) {
+        JobStore store = new JobStore(repository);
+        ReflectionTestUtils.setField(store, "maxEntries", maxEntries);
+        ReflectionTestUtils.setField(store, "maxBytes", maxBytes);
+        ReflectionTestUtils.setField(store, "ttl", ttl);
+        ReflectionTestUtils.setField(store, "reloadTtl", ttl);
+        return store;
+    }
+
+    private GenerationJob finished(JobStore store, String prompt) {
+        return finished(store, prompt, null);
+    }
+
+    private GenerationJob finished(JobStore store, String prompt, Map<String, String> files) {
+        return finished(store, new GenerationJob(prompt), files);
+    }
+
+    private GenerationJob finished(JobStore store, GenerationJob job, Map<String, String> files) {
+        store.put(job);
+        repository.save(job);
+        if (files != null) {
+            repository.saveFiles(job.getId(), files);
+            job.setGeneratedFiles(files);
+        }
+        job.setStatus("COMPLETED");
+        repository.save(job);
+        store.markFinished(job.getId());
+        return job;
+    }
+
+    private static final class InMemoryRepository implements GenerationJobRepository {
+        private final Map<String, GenerationJob> jobs = new ConcurrentHashMap<>();
+        private final Map<String, Map<String, String>> files = new ConcurrentHashMap<>();
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicInteger fileReads = new AtomicInteger();
+        private Callable<Void> onRead = () -> null;
+
+        @Override
+        public void save(GenerationJob job) {
+            GenerationJob copy = new GenerationJob(job.getPrompt());
+            copy.setId(job.getId());
+            copy.setStatus(job.getStatus());
+            copy.setCreatedAt(job.getCreatedAt());
+            jobs.put(job.getId(), copy);
+        }
+
+        @Override
+        public void saveFiles(String jobId, Map<String, String> files) {
+            this.files.put(jobId, files);
+        }
+
+        @Override
+        public Optional<GenerationJob> findById(String jobId) {
+            reads.incrementAndGet();
+            try {
+                onRead.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return Optional.ofNullable(jobs.get(jobId));
+        }
+
+        @Override
+        public Map<String, String> loadFiles(String jobId) {
+            fileReads.incrementAndGet();
+            return files.get(jobId);
+        }
+
+        @Override
+        public List<GenerationJob> findUnfinished() {
+            return jobs.values().stream().filter(job -> !job.isFinished()).toList();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.model.EntityModel;
+import com.microgen.orchestrator.model.IntentModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class PromptParsingServiceTest {
+
+    @Test
+    void mapsFieldTypesToSupportedOnesAndDropsTheRest() {
+        IntentModel intent = parse("""
+                {"serviceName": "order-service", "packageName": "com.example.order", "persistence": "JPA",
+                 "entities": [{"name": "Order", "fields": [
+                   {"name": "customer", "type": "java.lang.String"},
+                   {"name": "total", "type": "decimal"},
+                   {"name": "paid", "type": "boolean"},
+                   {"name": "placedAt", "type": "LocalDateTime"},
+                   {"name": "price", "type": "Money"},
+                   {"name": "lines", "type": "List<Foo"},
+                   {"name": "tags", "type": "List<String>"}]}]}
+                """);
+
+        assertThat(intent.getEntities()).hasSize(1);
+        assertThat(intent.getEntities().get(0).getFields())
+                .extracting(EntityModel.FieldModel::getName, EntityModel.FieldModel::getType)
+                .containsExactly(
+                        tuple("customer", "String"),
+                        tuple("total", "java.math.BigDecimal"),
+                        tuple("paid", "Boolean"),
+                        tuple("placedAt", "java.time.LocalDateTime"));
+    }
+
+    @Test
+    void entityWithOnlyUnsupportedFieldsKeepsNoFields() {
+        IntentModel intent = parse("""
+                {"serviceName": "wallet-service", "persistence": "JPA",
+                 "entities": [{"name": "wallet", "fields": [{"name": "balance", "type": "Money"}]}]}
+                """);
+
+        assertThat(intent.getEntities()).extracting(EntityModel::getName).containsExactly("Wallet");
+        assertThat(intent.getEntities().get(0).getFields()).isEmpty();
+    }
+
+    private static IntentModel parse(String llmAnswer) {
+        PromptParsingService service = new PromptParsingService((systemPrompt, userPrompt) -> llmAnswer,
+                new RuleBasedIntentExtractor(), new SimpleMeterRegistry());
+        // Always take the LLM path
+        ReflectionTestUtils.setField(service, "confidenceThreshold", 1.1);
+        return service.parse("A service");
+    }
+}
@@ -0,0 +1,194 @@
+package com.microgen.orchestrator.service;
+
+import com.microgen.orchestrator.adapter.LlmCallContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class RequestCoalescerTest {
+
+    private final GenerationJobExecutor jobExecutor = new GenerationJobExecutor(16);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(jobExecutor, meterRegistry);
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        jobExecutor.shutdown();
+    }
+
+    @Test
+    void concurrentCallersShareOneCall() throws Exception {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(callers.submit(() -> coalescer.execute("intent", "key", this::blockingCall)));
+        }
+        awaitCallers("intent", 1, 3);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result-1");
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void completedCallIsNotCached() throws Exception {
+        release.countDown();
+
+        assertThat(coalescer.execute("intent", "key", this::blockingCall)).isEqualTo("result-1");
+        assertThat(coalescer.execute("intent", "key", this::blockingCall)).isEqualTo("result-2");
+    }
+
+    @Test
+    void differentKindsAndKeysDoNotShare() throws Exception {
+        release.countDown();
+        List<Future<String>> results = List.of(
+                callers.submit(() -> coalescer.execute("intent", "a", this::blockingCall)),
+                callers.submit(() -> coalescer.execute("intent", "b", this::blockingCall)),
+                callers.submit(() -> coalescer.execute("business-logic", "a", this::blockingCall)));
+        for (Future<String> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void failureReachesEveryWaiter() throws Exception {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(callers.submit(() -> coalescer.execute("intent", "key", () -> {
+                release.await();
+                throw new IllegalStateException("provider down");
+            })));
+        }
+        awaitCallers("intent", 1, 2);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .rootCause().hasMessage("provider down");
+        }
+    }
+
+    @Test
+    void callIsCancelledOnlyWhenLastWaiterLeaves() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Future<String> first = callers.submit(() -> coalescer.execute("intent", "key", () -> {
+            try {
+                return blockingCall();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        }));
+        Future<String> second = callers.submit(() -> coalescer.execute("intent", "key", this::blockingCall));
+        awaitCallers("intent", 1, 1);
+        await().atMost(Duration.ofSeconds(5)).until(() -> calls.get() == 1);
+
+        first.cancel(true);
+        assertThat(interrupted.await(200, TimeUnit.MILLISECONDS)).isFalse();
+
+        second.cancel(true);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The abandoned flight is gone; a new caller starts its own
+        Future<String> third = callers.submit(() -> coalescer.execute("intent", "key", this::blockingCall));
+        release.countDown();
+        assertThat(third.get(5, TimeUnit.SECONDS)).isEqualTo("result-2");
+    }
+
+    @Test
+    void sharedCallRunsUnderTheLatestDeadline() throws Exception {
+        Instant early = Instant.now().plusSeconds(30);
+        Instant late = Instant.now().plusSeconds(60);
+        AtomicReference<Instant> seen = new AtomicReference<>();
+        Future<String> first = callers.submit(() -> withDeadline(early, () -> coalescer.execute("intent", "key", () -> {
+            release.await();
+            seen.set(LlmCallContext.getDeadline());
+            return "done";
+        })));
+        awaitCallers("intent", 1, 0);
+        Future<String> second = callers.submit(() -> withDeadline(late,
+                () -> coalescer.execute("intent", "key", this::blockingCall)));
+        awaitCallers("intent", 1, 1);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(seen.get()).isEqualTo(late);
+    }
+
+    @Test
+    void waiterGivesUpAtItsOwnDeadlineWithoutCancellingTheCall() throws Exception {
+        Future<String> patient = callers.submit(() -> coalescer.execute("intent", "key", this::blockingCall));
+        awaitCallers("intent", 1, 0);
+        Future<String> hurried = callers.submit(() -> withDeadline(Instant.now().plusMillis(100),
+                () -> coalescer.execute("intent", "key", this::blockingCall)));
+
+        assertThatThrownBy(() -> hurried.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        release.countDown();
+        assertThat(patient.get(5, TimeUnit.SECONDS)).isEqualTo("result-1");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void normalizesWhitespace() {
+        assertThat(RequestCoalescer.normalize("  Order\tservice \n with  JWT ")).isEqualTo("Order service with JWT");
+        assertThat(RequestCoalescer.normalize(null)).isEmpty();
+    }
+
+    private String blockingCall() throws InterruptedException {
+        int call = calls.incrementAndGet();
+        release.await();
+        return "result-" + call;
+    }
+
+    private static <V> V withDeadline(Instant deadline, Callable<V> call) throws Exception {
+        LlmCallContext.setDeadline(deadline);
+        try {
+            return call.call();
+        } finally {
+            LlmCallContext.clear();
+        }
+    }
+
+    private void awaitCallers(String kind, int leaders, int joined) {
+        await().atMost(Duration.ofSeconds(5)).until(() -> count(kind, "leader") == leaders
+                && count(kind, "joined") == joined);
+    }
+
+    private double count(String kind, String result) {
+        var counter = meterRegistry.find("generation.coalescing.calls").tag("kind", kind).tag("result", result)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,48 @@
+package com.microgen.orchestrator.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleBasedIntentExtractorTest {
+
+    // Default intent.rules.confidence-threshold
+    private static final double THRESHOLD = 0.7;
+
+    private final RuleBasedIntentExtractor extractor = new RuleBasedIntentExtractor();
+
+    @Test
+    void shortPromptWithServiceNameAloneGoesToTheLlm() {
+        RuleBasedIntentExtractor.Extraction extraction = extractor.extract("Order service");
+
+        assertThat(extraction.intent().getServiceName()).isEqualTo("order-service");
+        assertThat(extraction.confidence()).isLessThan(THRESHOLD);
+        assertThat(extractor.extract("Order service on port 9090").confidence()).isLessThan(THRESHOLD);
+    }
+
+    @Test
+    void serviceNameWithConcreteSignalTakesTheFastPath() {
+        assertThat(extractor.extract("Order service with JWT").confidence()).isGreaterThanOrEqualTo(THRESHOLD);
+        assertThat(extractor.extract("Order service on PostgreSQL").confidence()).isGreaterThanOrEqualTo(THRESHOLD);
+        assertThat(extractor.extract("Order service with entity Order with fields total:decimal").confidence())
+                .isGreaterThanOrEqualTo(THRESHOLD);
+    }
+
+    @Test
+    void lengthOnlyBreaksTies() {
+        String filler = " It should be easy to maintain and follow the usual conventions of the team.".repeat(6);
+        double shortPrompt = extractor.extract("Order service with JWT and MySQL").confidence();
+        double longPrompt = extractor.extract("Order service with JWT and MySQL." + filler).confidence();
+
+        assertThat(shortPrompt).isGreaterThan(longPrompt);
+        assertThat(shortPrompt - longPrompt).isLessThanOrEqualTo(0.1);
+        // A long prompt with a single signal is left to the LLM
+        assertThat(extractor.extract("Order service with JWT." + filler).confidence()).isLessThan(THRESHOLD);
+    }
+
+    @Test
+    void conflictingSignalsLowerConfidence() {
+        assertThat(extractor.extract("Order service with JWT and OAuth2 on MySQL or PostgreSQL").confidence())
+                .isLessThan(THRESHOLD);
+    }
+}
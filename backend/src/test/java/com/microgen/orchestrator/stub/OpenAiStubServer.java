@@ -0,0 +1,280 @@
+package com.microgen.orchestrator.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for an OpenAI-compatible {@code /chat/completions} endpoint,
+ * as spoken by the HuggingFace, OpenAI and OpenRouter adapters. It lets the
+ * real adapters, HTTP pool, retries and limits run under load without leaving
+ * the machine. Start the orchestrator with the {@code stub} profile to point
+ * the OpenAI adapter at it:
+ *
+ * <pre>
+ * java -cp "target/test-classes:..." com.microgen.orchestrator.stub.OpenAiStubServer \
+ *     --port 9090 --latency PT0.5S --tokens-per-second 200 --error-429 0.05 --error-503 0.02
+ * </pre>
+ *
+ * Options:
+ * <ul>
+ * <li>{@code --latency} time to first token (ISO-8601 duration)</li>
+ * <li>{@code --tokens-per-second} generation speed; 4 characters count as a token</li>
+ * <li>{@code --error-429}, {@code --error-503} share of requests answered with that status</li>
+ * <li>{@code --retry-after} seconds sent with injected errors</li>
+ * <li>{@code --rate-limit} requests per minute announced in x-ratelimit-* headers</li>
+ * <li>{@code --files} number of files in the canned {@code /// START FILE} output</li>
+ * <li>{@code --output} file whose content is returned instead of the canned output</li>
+ * </ul>
+ * Intent-extraction and planning prompts get matching JSON answers, so whole
+ * jobs run through. Requests with {@code "stream": true} are answered with
+ * Server-Sent Events at the configured speed. {@code GET /stats} reports
+ * request counts and peak concurrency.
+ */
+public class OpenAiStubServer {
+
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int TOKENS_PER_CHUNK = 4;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration latency;
+    private final double tokensPerSecond;
+    private final double error429;
+    private final double error503;
+    private final int retryAfterSeconds;
+    private final int rateLimit;
+    private final String cannedOutput;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+    private final AtomicInteger windowRequests = new AtomicInteger();
+
+    OpenAiStubServer(Duration latency, double tokensPerSecond, double error429, double error503,
+            int retryAfterSeconds, int rateLimit, String cannedOutput) {
+        this.latency = latency;
+        this.tokensPerSecond = tokensPerSecond;
+        this.error429 = error429;
+        this.error503 = error503;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rateLimit = rateLimit;
+        this.cannedOutput = cannedOutput;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        String output = options.containsKey("output")
+                ? Files.readString(Path.of(options.get("output")))
+                : cannedFiles(Integer.parseInt(options.getOrDefault("files", "6")));
+
+        OpenAiStubServer stub = new OpenAiStubServer(
+                Duration.parse(options.getOrDefault("latency", "PT0.5S")),
+                Double.parseDouble(options.getOrDefault("tokens-per-second", "200")),
+                Double.parseDouble(options.getOrDefault("error-429", "0")),
+                Double.parseDouble(options.getOrDefault("error-503", "0")),
+                Integer.parseInt(options.getOrDefault("retry-after", "1")),
+                Integer.parseInt(options.getOrDefault("rate-limit", "0")),
+                output);
+        int port = Integer.parseInt(options.getOrDefault("port", "9090"));
+        stub.start(port);
+        System.out.println("OpenAI stub listening on http://localhost:" + port + "/v1/chat/completions");
+    }
+
+    HttpServer start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+        return server;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            if (exchange.getRequestMethod().equals("GET") && path.endsWith("/stats")) {
+                sendJson(exchange, 200, stats());
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("POST") || !path.endsWith("/chat/completions")) {
+                sendJson(exchange, 404, error("Unknown endpoint " + path));
+                return;
+            }
+
+            requests.incrementAndGet();
+            peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                complete(exchange, objectMapper.readTree(exchange.getRequestBody()));
+            } finally {
+                active.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void complete(HttpExchange exchange, JsonNode request) throws IOException, InterruptedException {
+        rateLimitHeaders(exchange);
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < error429 + error503) {
+            injectedErrors.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+            int status = roll < error429 ? 429 : 503;
+            sendJson(exchange, status, error(status == 429 ? "Rate limit reached (injected)"
+                    : "Model is loading (injected)"));
+            return;
+        }
+
+        String content = answerFor(request);
+        Thread.sleep(latency.toMillis());
+        if (request.path("stream").asBoolean(false)) {
+            stream(exchange, request.path("model").asText("stub"), content);
+            return;
+        }
+
+        // Non-streaming clients still wait for the whole completion to be generated
+        Thread.sleep(generationMillis(content.length()));
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("id", "chatcmpl-stub-" + requests.get());
+        response.put("object", "chat.completion");
+        response.put("model", request.path("model").asText("stub"));
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+        ObjectNode usage = response.putObject("usage");
+        usage.put("prompt_tokens", request.toString().length() / CHARS_PER_TOKEN);
+        usage.put("completion_tokens", content.length() / CHARS_PER_TOKEN);
+        sendJson(exchange, 200, response);
+    }
+
+    private void stream(HttpExchange exchange, String model, String content) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        int chunkChars = TOKENS_PER_CHUNK * CHARS_PER_TOKEN;
+        long pauseMillis = generationMillis(chunkChars);
+        try (OutputStream body = exchange.getResponseBody()) {
+            for (int i = 0; i < content.length(); i += chunkChars) {
+                ObjectNode event = objectMapper.createObjectNode();
+                event.put("object", "chat.completion.chunk");
+                event.put("model", model);
+                event.putArray("choices").addObject().put("index", 0).putObject("delta")
+                        .put("content", content.substring(i, Math.min(content.length(), i + chunkChars)));
+                body.write(("data: " + objectMapper.writeValueAsString(event) + "\n\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                body.flush();
+                Thread.sleep(pauseMillis);
+            }
+            body.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    // Recognizes the orchestrator's own prompts so complete jobs can run against the stub
+    private String answerFor(JsonNode request) {
+        String system = "";
+        for (JsonNode message : request.path("messages")) {
+            if (message.path("role").asText().equals("system")) {
+                system = message.path("content").asText();
+            }
+        }
+        if (system.contains("JSON extraction expert") || system.contains("JSON object")) {
+            return """
+                    {"serviceName":"stub-service","packageName":"com.example.stub","language":"JAVA",\
+                    "framework":"SPRING_BOOT","architecture":"LAYERED","serviceType":"GENERAL","auth":"NONE",\
+                    "database":"H2","persistence":"JPA","port":8080}""";
+        }
+        if (system.contains("software architect")) {
+            return """
+                    {"dependencies":[{"groupId":"org.springframework.boot","artifactId":"spring-boot-starter-web"},
+                      {"groupId":"org.springframework.boot","artifactId":"spring-boot-starter-data-jpa"}],
+                     "files":[{"file":"ItemController.java","layer":"controller","description":"REST endpoints"},
+                      {"file":"ItemService.java","layer":"service","description":"Business logic"},
+                      {"file":"Item.java","layer":"model","description":"Entity"}]}""";
+        }
+        return cannedOutput;
+    }
+
+    private void rateLimitHeaders(HttpExchange exchange) {
+        if (rateLimit <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+        if (now - start >= 60_000 && windowStart.compareAndSet(start, now)) {
+            windowRequests.set(0);
+        }
+        int used = windowRequests.incrementAndGet();
+        exchange.getResponseHeaders().set("x-ratelimit-limit-requests", String.valueOf(rateLimit));
+        exchange.getResponseHeaders().set("x-ratelimit-remaining-requests",
+                String.valueOf(Math.max(0, rateLimit - used)));
+    }
+
+    private long generationMillis(int chars) {
+        return tokensPerSecond <= 0 ? 0 : (long) (chars / (double) CHARS_PER_TOKEN / tokensPerSecond * 1000);
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(status, 0);
+            try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                out.write(bytes);
+            }
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private Map<String, Object> stats() {
+        return Map.of("requests", requests.get(), "injectedErrors", injectedErrors.get(),
+                "active", active.get(), "peakActive", peakActive.get());
+    }
+
+    private static Map<String, Object> error(String message) {
+        return Map.of("error", Map.of("message", message, "type", "stub_error"));
+    }
+
+    static String cannedFiles(int files) {
+        StringBuilder output = new StringBuilder();
+        for (int i = 1; i <= files; i++) {
+            output.append("/// START FILE: Stub").append(i).append("Service.java\n")
+                    .append("package com.example.stub.service;\n\n")
+                    .append("import org.springframework.stereotype.Service;\n\n")
+                    .append("@Service\n")
+                    .append("public class Stub").append(i).append("Service {\n")
+                    .append("    public String describe() {\n")
+                    .append("        return \"stub ").append(i).append("\";\n")
+                    .append("    }\n")
+                    .append("}\n")
+                    .append("/// END FILE\n");
+        }
+        return output.toString();
+    }
+}
@@ -3,25 +3,24 @@
 import { PromptInput } from "@/components/PromptInput";
 import { ConfigPanel } from "@/components/ConfigPanel";
 import { FilePreview } from "@/components/FilePreview";
-import { useStore } from "@/store/useStore";
+import { useStore, isErrorStatus } from "@/store/useStore";
 import { Loader2, Play, Terminal, CheckCircle2 } from "lucide-react";
 import axios from "axios";
 import { motion, AnimatePresence } from "framer-motion";
 import { useState } from "react";
 
 export default function Home() {
-  const { prompt, generatedFiles, setGeneratedFiles, isGenerating, setIsGenerating, currentJobId, setCurrentJobId, setJobError } = useStore();
+  const { prompt, generatedFiles, setGeneratedFiles, addGeneratedFile, isGenerating, setIsGenerating, currentJobId, setCurrentJobId, setJobError } = useStore();
   const [jobStatus, setJobStatus] = useState<string | null>(null);
 
-  // Loading Steps for visual feedback
-  const [loadingStep, setLoadingStep] = useState(0);
-  const loadingMessages = [
-    "Analyzing Intent...",
-    "Architecting Microservice...",
-    "Generating Components...",
-    "Enforcing Governance...",
-    "Finalizing Artifacts..."
-  ];
+  // Loading message per backend stage
+  const stageMessages: Record<string, string> = {
+    PENDING: "Queued...",
+    PARSING: "Analyzing Intent...",
+    GENERATING: "Generating Components...",
+    ASSEMBLING: "Finalizing Artifacts...",
+    SCANNING: "Enforcing Governance...",
+  };
 
   const handleManualGenerate = async () => {
     // Clear previous generation state
@@ -30,13 +29,7 @@ export default function Home() {
     setJobError(null);
 
     setIsGenerating(true);
-    setJobStatus("GENERATING");
-
-    // Simulate steps for UI effect
-    setLoadingStep(0);
-    const interval = setInterval(() => {
-      setLoadingStep((prev) => (prev + 1) % loadingMessages.length);
-    }, 1500);
+    setJobStatus("PENDING");
 
     try {
       const response = await axios.post("http://localhost:8081/api/generate", { prompt });
@@ -44,22 +37,31 @@ export default function Home() {
       setCurrentJobId(job.id);
       setJobStatus(job.status);
 
-      clearInterval(interval);
-
-      if (job.status === "COMPLETED") {
-        setGeneratedFiles(job.generatedFiles || {});
-        setTimeout(() => {
-          setIsGenerating(false);
-        }, 800);
-      } else {
+      // Files arrive one by one as soon as they are final; "done" carries the terminal status
+      const events = new EventSource(`http://localhost:8081/api/jobs/${job.id}/events`);
+      events.addEventListener("status", (e) => {
+        setJobStatus(JSON.parse((e as MessageEvent).data).status);
+      });
+      events.addEventListener("file", (e) => {
+        const file = JSON.parse((e as MessageEvent).data);
+        addGeneratedFile(file.path, file.content);
+      });
+      events.addEventListener("done", (e) => {
+        events.close();
+        const result = JSON.parse((e as MessageEvent).data);
+        setJobStatus(result.status);
         setIsGenerating(false);
-        setGeneratedFiles({});
-        if (job.status === "FAILED") {
-          setJobError(job.error || "Synthesis failed due to LLM provider error.");
+        if (isErrorStatus(result.status)) {
+          setGeneratedFiles({});
+          setJobError(result.error || "Synthesis failed due to LLM provider error.");
         }
-      }
+      });
+      events.onerror = () => {
+        events.close();
+        setJobStatus("ERROR");
+        setIsGenerating(false);
+      };
     } catch (error) {
-      clearInterval(interval);
       console.error("Generation failed", error);
       setJobStatus("ERROR");
       setIsGenerating(false);
@@ -144,7 +146,7 @@ export default function Home() {
 
       {/* Fullscreen Loading Overlay - Fixed Z-Index and Background */}
       <AnimatePresence>
-        {isGenerating && (
+        {isGenerating && Object.keys(generatedFiles).length === 0 && (
           <motion.div
             initial={{ opacity: 0 }}
             animate={{ opacity: 1 }}
@@ -156,7 +158,7 @@ export default function Home() {
             </div>
             <h3 className="text-xl font-bold text-slate-900 mb-2">Synthesizing Architecture</h3>
             <p className="text-slate-500 font-medium text-sm">
-              {loadingMessages[loadingStep]}
+              {stageMessages[jobStatus ?? "PENDING"] ?? "Synthesizing..."}
             </p>
 
             <div className="w-64 h-1 bg-slate-100 rounded-full mt-8 overflow-hidden">
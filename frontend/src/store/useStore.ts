@@ -1,5 +1,10 @@
 import { create } from 'zustand';
 
+// Terminal job statuses that end without a usable project
+export const ERROR_STATUSES = ['FAILED', 'FAILED_GOVERNANCE', 'CANCELLED', 'TIMED_OUT'];
+
+export const isErrorStatus = (status: string | null | undefined) => !!status && ERROR_STATUSES.includes(status);
+
 interface GenConfig {
     serviceType: string;
     auth: string;
@@ -20,6 +25,7 @@ interface GenState {
     setConfig: (config: Partial<GenConfig>) => void;
     setCurrentJobId: (jobId: string | null) => void;
     setGeneratedFiles: (files: Record<string, string>) => void;
+    addGeneratedFile: (path: string, content: string) => void;
     setIsGenerating: (isGenerating: boolean) => void;
     setJobError: (error: string | null) => void;
 }
@@ -42,6 +48,7 @@ export const useStore = create<GenState>((set) => ({
     setConfig: (config) => set((state) => ({ config: { ...state.config, ...config } })),
     setCurrentJobId: (currentJobId) => set({ currentJobId }),
     setGeneratedFiles: (generatedFiles) => set({ generatedFiles }),
+    addGeneratedFile: (path, content) => set((state) => ({ generatedFiles: { ...state.generatedFiles, [path]: content } })),
     setIsGenerating: (isGenerating) => set({ isGenerating }),
     setJobError: (jobError) => set({ jobError }),
 }));